@@ -0,0 +1,38 @@
+-- ============================================
+-- Caller upsert (POST /caller?on_conflict=phone_number)
+-- One caller row per phone number; id generated by the database
+-- ============================================
+
+-- Merge existing duplicates into the oldest row per phone number before adding the constraint:
+-- re-point every table referencing a duplicate, then delete the duplicates
+WITH ranked AS (
+  SELECT id, phone_number,
+         FIRST_VALUE(id) OVER (PARTITION BY phone_number ORDER BY created_at, id) AS keep_id
+  FROM caller
+  WHERE phone_number IS NOT NULL
+)
+UPDATE emergency e SET caller_id = r.keep_id
+FROM ranked r
+WHERE e.caller_id = r.id AND r.id <> r.keep_id;
+
+WITH ranked AS (
+  SELECT id, phone_number,
+         FIRST_VALUE(id) OVER (PARTITION BY phone_number ORDER BY created_at, id) AS keep_id
+  FROM caller
+  WHERE phone_number IS NOT NULL
+)
+UPDATE checklist_response cr SET caller_id = r.keep_id
+FROM ranked r
+WHERE cr.caller_id = r.id AND r.id <> r.keep_id;
+
+DELETE FROM caller c
+USING caller keep
+WHERE c.phone_number = keep.phone_number
+  AND (keep.created_at, keep.id) < (c.created_at, c.id);
+
+-- on_conflict target: PostgREST needs a unique constraint / index on phone_number
+CREATE UNIQUE INDEX IF NOT EXISTS caller_phone_number_key ON caller (phone_number);
+
+-- Upserts send no id; new rows get cl-{uuid} like the ids the API used to generate
+ALTER TABLE caller ALTER COLUMN id SET DEFAULT 'cl-' || gen_random_uuid();
+NOTIFY pgrst, 'reload schema';
@@ -0,0 +1,19 @@
+-- ============================================
+-- Checklist autosave (POST /checklist_response?on_conflict=emergency_id,question_order)
+-- One answer row per question of an emergency; only changed answers are written
+-- ============================================
+
+-- Keep the newest row if a past delete-and-reinsert race left duplicates
+DELETE FROM checklist_response c
+USING checklist_response newer
+WHERE c.emergency_id = newer.emergency_id
+  AND c.question_order = newer.question_order
+  AND (c.response_time, c.id) < (newer.response_time, newer.id);
+
+-- on_conflict target for the bulk upsert (also serves the emergency_id lookups)
+CREATE UNIQUE INDEX IF NOT EXISTS checklist_response_emergency_question_key
+  ON checklist_response (emergency_id, question_order);
+
+-- Upserts send no id; new rows get cr-{uuid} like the ids the API used to generate
+ALTER TABLE checklist_response ALTER COLUMN id SET DEFAULT 'cr-' || gen_random_uuid();
+NOTIFY pgrst, 'reload schema';
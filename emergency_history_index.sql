@@ -0,0 +1,20 @@
+-- ============================================
+-- Emergency history (GET /api/emergencies/history)
+-- Keyset pagination on (created_at, id) + filters
+-- ============================================
+
+-- Page scan: ORDER BY created_at DESC, id DESC with (created_at, id) < cursor
+CREATE INDEX IF NOT EXISTS emergency_created_at_id_idx ON emergency (created_at DESC, id DESC);
+
+-- Filtered history (operator / incident type / risk level within a time range)
+CREATE INDEX IF NOT EXISTS emergency_operator_created_at_idx ON emergency (operator_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS emergency_type_created_at_idx ON emergency (type, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS emergency_risk_level_created_at_idx ON emergency (risk_level, created_at DESC, id DESC);
+
+-- Lets PostgREST embed caller / operator (caller:caller_id(*), operator:operator_id(...)).
+-- NOT VALID skips checking existing rows; without these the API joins each page itself.
+ALTER TABLE emergency ADD CONSTRAINT emergency_caller_id_fkey
+  FOREIGN KEY (caller_id) REFERENCES caller (id) NOT VALID;
+ALTER TABLE emergency ADD CONSTRAINT emergency_operator_id_fkey
+  FOREIGN KEY (operator_id) REFERENCES operator (id) NOT VALID;
+NOTIFY pgrst, 'reload schema';
@@ -0,0 +1,109 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.dto.EmergencyRecord;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding a PostgREST emergency listing: typed records read from the response stream (as
+ * {@link SupabaseRepository} does) against the previous path, a String body read into
+ * {@code TypeReference<List<Map>>} and then copied field by field into a new HashMap per row.
+ *
+ * Run with ./gradlew jmh; the gc profiler also reports the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordBindingBenchmark {
+
+    private static final TypeReference<List<Map<String, Object>>> ROWS = new TypeReference<>() {
+    };
+
+    private static final String[] FIELDS = {
+            "id", "caller_id", "operator_id", "status", "call_started_at", "call_ended_at",
+            "stt_engine", "language", "total_duration_ms", "speakers_count", "utterances_count",
+            "risk_level", "risk_level_reason", "type", "caller_location", "latitude", "longitude",
+            "road_address", "postal_code", "address1", "address2", "audio_id", "created_at", "updated_at"
+    };
+
+    @Param({"100", "1000"})
+    int rows;
+
+    private byte[] body;
+    private ObjectMapper mapper;
+    private ObjectReader recordReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        recordReader = mapper.readerForListOf(EmergencyRecord.class);
+
+        List<Map<String, Object>> emergencies = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", "00000000-0000-0000-0000-" + String.format("%012d", i));
+            row.put("caller_id", "10000000-0000-0000-0000-" + String.format("%012d", i % 50));
+            row.put("operator_id", "20000000-0000-0000-0000-" + String.format("%012d", i % 8));
+            row.put("status", "completed");
+            row.put("call_started_at", "2025-01-01T09:00:00");
+            row.put("call_ended_at", "2025-01-01T09:04:12");
+            row.put("stt_engine", "clova");
+            row.put("language", "ko-KR");
+            row.put("total_duration_ms", 252000);
+            row.put("speakers_count", 2);
+            row.put("utterances_count", 38);
+            row.put("risk_level", 1 + i % 5);
+            row.put("risk_level_reason", "의식이 없는 환자, 호흡 확인 필요");
+            row.put("type", "medical");
+            row.put("caller_location", "서울 강남구 역삼동 테헤란로 152");
+            row.put("latitude", 37.5000 + i * 0.0001);
+            row.put("longitude", 127.0364 + i * 0.0001);
+            row.put("road_address", "서울특별시 강남구 테헤란로 152");
+            row.put("postal_code", "06236");
+            row.put("address1", "서울 강남구");
+            row.put("address2", "역삼동 강남파이낸스센터");
+            row.put("audio_id", null);
+            row.put("created_at", "2025-01-01T09:04:13");
+            row.put("updated_at", "2025-01-01T09:04:13");
+            emergencies.add(row);
+        }
+        body = mapper.writeValueAsBytes(emergencies);
+    }
+
+    @Benchmark
+    public List<EmergencyRecord> recordsFromStream() throws IOException {
+        return recordReader.readValue(new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> mapsFromString() throws IOException {
+        String response = new String(body, StandardCharsets.UTF_8);
+        List<Map<String, Object>> rows = mapper.readValue(response, ROWS);
+
+        List<Map<String, Object>> emergencies = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> emergency = new HashMap<>();
+            for (String field : FIELDS) {
+                emergency.put(field, row.get(field));
+            }
+            emergencies.add(emergency);
+        }
+        return emergencies;
+    }
+}
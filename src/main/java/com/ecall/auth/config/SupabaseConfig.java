@@ -1,12 +1,37 @@
 package com.ecall.auth.config;
 
+import com.ecall.common.instrumentation.OutboundCallExchangeFilter;
+import com.ecall.common.instrumentation.OutboundCallInterceptor;
+import com.ecall.common.resilience.AbortableClientHttpRequestFactory;
+import com.ecall.common.resilience.DependencyGuardExchangeFilter;
+import com.ecall.common.resilience.DependencyGuardInterceptor;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 @Getter
@@ -19,14 +44,171 @@ public class SupabaseConfig {
     @Value("${supabase.key}")
     private String supabaseKey;
 
+    // Shared Supabase HTTP transport (connection pool + timeouts)
+    @Value("${supabase.http.max-total:50}")
+    private int maxTotalConnections;
+
+    @Value("${supabase.http.max-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${supabase.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${supabase.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${supabase.http.pool-acquire-timeout-ms:2000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${supabase.http.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${supabase.http.max-pending-acquires:500}")
+    private int maxPendingAcquires;
+
+    // General purpose transport (OpenAI, Kakao, ...)
+    @Value("${outbound.http.connect-timeout-ms:3000}")
+    private long outboundConnectTimeoutMs;
+
+    @Value("${outbound.http.read-timeout-ms:60000}")
+    private long outboundReadTimeoutMs;
+
+    @Value("${outbound.http.openai-max-connections:32}")
+    private int openAiMaxConnections;
+
+    /**
+     * General purpose RestTemplate (OpenAI, Kakao, ...)
+     */
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(DependencyGuardInterceptor dependencyGuardInterceptor,
+                                     OutboundCallInterceptor outboundCallInterceptor) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(outboundConnectTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(outboundReadTimeoutMs));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(dependencyGuardInterceptor);
+        restTemplate.getInterceptors().add(outboundCallInterceptor);
+        return restTemplate;
+    }
+
+    /**
+     * RestTemplate for OpenAI calls made through AiCallExecutor: the requests of abandoned
+     * attempts are aborted instead of running on to the read timeout
+     */
+    @Bean
+    public RestTemplate openAiRestTemplate(DependencyGuardInterceptor dependencyGuardInterceptor,
+                                           OutboundCallInterceptor outboundCallInterceptor) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(openAiMaxConnections)
+                        .setMaxConnPerRoute(openAiMaxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(outboundConnectTimeoutMs))
+                                .setSocketTimeout(Timeout.ofMilliseconds(outboundReadTimeoutMs))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(outboundReadTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+
+        RestTemplate restTemplate = new RestTemplate(new AbortableClientHttpRequestFactory(httpClient));
+        restTemplate.getInterceptors().add(dependencyGuardInterceptor);
+        restTemplate.getInterceptors().add(outboundCallInterceptor);
+        return restTemplate;
+    }
+
+    /**
+     * Pooled keep-alive connection manager shared by every Supabase/PostgREST call
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager supabaseConnectionManager() {
+        log.info("Initializing Supabase connection pool - maxTotal: {}, maxPerRoute: {}, connectTimeout: {}ms, readTimeout: {}ms",
+                maxTotalConnections, maxConnectionsPerRoute, connectTimeoutMs, readTimeoutMs);
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient supabaseHttpClient(
+            @Qualifier("supabaseConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+    }
+
+    /**
+     * RestTemplate for Supabase REST/Storage calls.
+     * Backed by the pooled Apache HttpClient, so PATCH is supported natively.
+     */
+    @Bean
+    public RestTemplate supabaseRestTemplate(@Qualifier("supabaseHttpClient") CloseableHttpClient httpClient,
+                                             DependencyGuardInterceptor dependencyGuardInterceptor,
+                                             OutboundCallInterceptor outboundCallInterceptor) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.getInterceptors().add(dependencyGuardInterceptor);
+        restTemplate.getInterceptors().add(outboundCallInterceptor);
+        return restTemplate;
+    }
+
+    /**
+     * Exposes pool usage as httpcomponents.httpclient.pool.* metrics (tag httpclient=supabase)
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public MeterBinder supabaseConnectionPoolMetrics(
+            @Qualifier("supabaseConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "supabase");
     }
 
+    /**
+     * Connection pool of the non-blocking Supabase client. Requests beyond maxConnections wait
+     * (without holding a thread) in a bounded pending queue, exported as reactor.netty.connection.provider.* metrics
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider supabaseReactiveConnectionProvider() {
+        return ConnectionProvider.builder("supabase")
+                .maxConnections(maxTotalConnections)
+                .pendingAcquireMaxCount(maxPendingAcquires)
+                .pendingAcquireTimeout(Duration.ofMillis(poolAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(idleEvictSeconds))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Non-blocking WebClient for Supabase REST, with the same timeouts as the blocking transport
+     */
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(
+            @Qualifier("supabaseReactiveConnectionProvider") ConnectionProvider connectionProvider,
+            DependencyGuardExchangeFilter dependencyGuardExchangeFilter,
+            OutboundCallExchangeFilter outboundCallExchangeFilter) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(dependencyGuardExchangeFilter)
+                .filter(outboundCallExchangeFilter)
                 .baseUrl(supabaseUrl + "/rest/v1")
                 .defaultHeader("apikey", supabaseKey)
                 .defaultHeader("Authorization", "Bearer " + supabaseKey)
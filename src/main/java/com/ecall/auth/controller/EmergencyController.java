@@ -1,14 +1,24 @@
 package com.ecall.auth.controller;
 
+import com.ecall.auth.service.EmergencyChangeFeed;
 import com.ecall.auth.service.EmergencyService;
+import com.ecall.common.instrumentation.OutboundCallLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Emergency reads are non-blocking: the servlet thread is released while Supabase answers.
+ * While Supabase is unhealthy the last good result is served with "stale": true.
+ */
 @Slf4j
 @RestController
 @RequestMapping("/api/emergencies")
@@ -16,53 +26,100 @@ import java.util.Map;
 public class EmergencyController {
 
     private final EmergencyService emergencyService;
+    private final EmergencyChangeFeed emergencyChangeFeed;
+
+    /**
+     * Live feed of emergency changes (SSE). Reconnect with the last event id
+     * (Last-Event-ID header, sent by EventSource automatically, or ?resumeToken=) to replay missed events
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String resumeToken) {
+        return emergencyChangeFeed.subscribe(resumeToken != null ? resumeToken : lastEventId);
+    }
 
     /**
      * Get all emergencies with caller and operator details
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllEmergencies() {
-        try {
-            List<Map<String, Object>> emergencies = emergencyService.getAllEmergencies();
+    public Mono<ResponseEntity<Map<String, Object>>> getAllEmergencies() {
+        return emergencyService.getAllEmergencies()
+                .map(emergencies -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("data", emergencies.value());
+                    return ResponseEntity.ok(emergencies.describeInto(response));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error fetching emergencies", e);
+                    return Mono.just(ResponseEntity.internalServerError().body(Map.of(
+                            "success", false,
+                            "error", e.getMessage()
+                    )));
+                })
+                .contextWrite(OutboundCallLedger.propagate());
+    }
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "data", emergencies
-            ));
-        } catch (Exception e) {
-            log.error("Error fetching emergencies", e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "success", false,
-                    "error", e.getMessage()
-            ));
-        }
+    /**
+     * Get emergency history one page at a time (keyset pagination, newest first)
+     */
+    @GetMapping("/history")
+    public Mono<ResponseEntity<Map<String, Object>>> getEmergencyHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String incidentType,
+            @RequestParam(required = false) Integer riskLevel,
+            @RequestParam(required = false) String operatorId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return Mono.defer(() -> emergencyService.getEmergencyPage(
+                        cursor, limit, incidentType, riskLevel, operatorId, from, to))
+                .map(page -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("data", page.items());
+                    response.put("next_cursor", page.nextCursor());
+                    response.put("has_more", page.hasMore());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "error", e.getMessage()
+                ))))
+                .onErrorResume(e -> {
+                    log.error("Error fetching emergency history", e);
+                    return Mono.just(ResponseEntity.internalServerError().body(Map.of(
+                            "success", false,
+                            "error", e.getMessage()
+                    )));
+                })
+                .contextWrite(OutboundCallLedger.propagate());
     }
 
     /**
      * Get emergency by ID with caller and operator details
      */
     @GetMapping("/{emergencyId}")
-    public ResponseEntity<Map<String, Object>> getEmergencyById(@PathVariable String emergencyId) {
-        try {
-            Map<String, Object> emergency = emergencyService.getEmergencyById(emergencyId);
-
-            if (emergency == null) {
-                return ResponseEntity.ok(Map.of(
+    public Mono<ResponseEntity<Map<String, Object>>> getEmergencyById(@PathVariable String emergencyId) {
+        return emergencyService.getEmergencyById(emergencyId)
+                .map(emergency -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("data", emergency.value());
+                    return ResponseEntity.ok(emergency.describeInto(response));
+                })
+                .defaultIfEmpty(ResponseEntity.ok(Map.of(
                         "success", false,
                         "error", "Emergency not found"
-                ));
-            }
-
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "data", emergency
-            ));
-        } catch (Exception e) {
-            log.error("Error fetching emergency by ID", e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "success", false,
-                    "error", e.getMessage()
-            ));
-        }
+                )))
+                .onErrorResume(e -> {
+                    log.error("Error fetching emergency by ID", e);
+                    return Mono.just(ResponseEntity.internalServerError().body(Map.of(
+                            "success", false,
+                            "error", e.getMessage()
+                    )));
+                })
+                .contextWrite(OutboundCallLedger.propagate());
     }
 }
@@ -1,12 +1,15 @@
 package com.ecall.auth.controller;
 
+import com.ecall.auth.dto.OperatorSummary;
 import com.ecall.auth.service.IntakeDeskService;
+import com.ecall.common.resilience.Snapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,12 +41,12 @@ public class IntakeDeskController {
     @GetMapping("/operators")
     public ResponseEntity<Map<String, Object>> getOperators() {
         try {
-            List<Map<String, Object>> operators = intakeDeskService.getOperators();
+            Snapshot<List<OperatorSummary>> operators = intakeDeskService.getOperators();
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "data", operators
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", operators.value());
+            return ResponseEntity.ok(operators.describeInto(response));
         } catch (Exception e) {
             log.error("Error fetching operators", e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -59,12 +62,12 @@ public class IntakeDeskController {
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllIntakeDesks() {
         try {
-            List<Map<String, Object>> intakeDesks = intakeDeskService.getAllIntakeDesks();
+            Snapshot<List<Map<String, Object>>> intakeDesks = intakeDeskService.getAllIntakeDesks();
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "data", intakeDesks
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", intakeDesks.value());
+            return ResponseEntity.ok(intakeDesks.describeInto(response));
         } catch (Exception e) {
             log.error("Error fetching intake desks", e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -177,11 +180,13 @@ public class IntakeDeskController {
                 ));
             }
 
-            intakeDeskService.assignOperatorsToIntakeDesk(intakeDeskId, operatorIds);
+            Map<String, String> results = intakeDeskService.assignOperatorsToIntakeDesk(intakeDeskId, operatorIds);
+            long assigned = results.values().stream().filter("assigned"::equals).count();
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "message", operatorIds.size() + "명의 대원이 배치되었습니다"
+                    "message", assigned + "명의 대원이 배치되었습니다",
+                    "results", results
             ));
         } catch (Exception e) {
             log.error("Error assigning members to intake desk", e);
@@ -198,7 +203,7 @@ public class IntakeDeskController {
     @GetMapping("/{intakeDeskId}/members")
     public ResponseEntity<Map<String, Object>> getIntakeDeskMembers(@PathVariable String intakeDeskId) {
         try {
-            List<Map<String, Object>> members = intakeDeskService.getIntakeDeskMembers(intakeDeskId);
+            List<OperatorSummary> members = intakeDeskService.getIntakeDeskMembers(intakeDeskId);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -213,6 +218,41 @@ public class IntakeDeskController {
         }
     }
 
+    /**
+     * Remove multiple members at once
+     */
+    @PostMapping("/{intakeDeskId}/remove-members")
+    public ResponseEntity<Map<String, Object>> removeMembers(
+            @PathVariable String intakeDeskId,
+            @RequestBody Map<String, Object> request) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> operatorIds = (List<String>) request.get("operatorIds");
+
+            if (operatorIds == null || operatorIds.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "error", "제거할 대원을 선택해주세요"
+                ));
+            }
+
+            Map<String, String> results = intakeDeskService.removeMembers(intakeDeskId, operatorIds);
+            long removed = results.values().stream().filter("removed"::equals).count();
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", removed + "명의 대원이 제거되었습니다",
+                    "results", results
+            ));
+        } catch (Exception e) {
+            log.error("Error removing members from intake desk", e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Remove member from intake desk
      */
@@ -5,25 +5,37 @@ import com.ecall.auth.dto.LoginResponse;
 import com.ecall.auth.dto.MediaAssetResponse;
 import com.ecall.auth.dto.OperatorRegistrationRequest;
 import com.ecall.auth.dto.OperatorRegistrationResponse;
+import com.ecall.auth.dto.TriageResult;
 import com.ecall.auth.service.AddressService;
 import com.ecall.auth.service.CallerService;
 import com.ecall.auth.service.ChecklistResponseService;
 import com.ecall.auth.service.EmergencyService;
+import com.ecall.auth.service.EmergencyTriageService;
 import com.ecall.auth.service.IncidentTypeClassificationService;
+import com.ecall.auth.service.LlmDispatchScheduler;
+import com.ecall.auth.service.LocalTriageClassifier;
 import com.ecall.auth.service.LocationExtractionService;
 import com.ecall.auth.service.MediaAssetService;
 import com.ecall.auth.service.OperatorService;
-import com.ecall.auth.service.RiskLevelAssessmentService;
+import com.ecall.auth.service.StageExecutor;
+import com.ecall.common.instrumentation.OutboundCallLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -40,7 +52,22 @@ public class OperatorController {
     private final ChecklistResponseService checklistResponseService;
     private final CallerService callerService;
     private final EmergencyService emergencyService;
-    private final RiskLevelAssessmentService riskLevelAssessmentService;
+    private final EmergencyTriageService emergencyTriageService;
+    private final LocalTriageClassifier localTriageClassifier;
+    private final StageExecutor stageExecutor;
+
+    // Per-stage deadlines for complete-emergency; a late stage falls back instead of failing the call
+    @Value("${emergency.completion.risk-timeout-ms:8000}")
+    private Duration riskStageTimeout;
+
+    @Value("${emergency.completion.caller-timeout-ms:3000}")
+    private Duration callerStageTimeout;
+
+    @Value("${emergency.completion.address-timeout-ms:3000}")
+    private Duration addressStageTimeout;
+
+    @Value("${auth.password.retry-after-seconds:2}")
+    private int loginRetryAfterSeconds;
 
     @PostMapping("/register")
     public ResponseEntity<OperatorRegistrationResponse> registerOperator(
@@ -58,16 +85,24 @@ public class OperatorController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
+    public Mono<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request) {
         log.info("Login request received for operator ID: {}", request.getOperatorId());
 
-        LoginResponse response = operatorService.login(request);
-
-        if (response.isSuccess()) {
-            return ResponseEntity.ok(response);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-        }
+        return operatorService.login(request)
+                .map(response -> response.isSuccess()
+                        ? ResponseEntity.ok(response)
+                        : ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response))
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    // Password hash pool saturated: ask the client to come back instead of queueing forever
+                    log.warn("Login deferred for operator ID {}: {}", request.getOperatorId(), e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginRetryAfterSeconds))
+                            .body(LoginResponse.builder()
+                                    .success(false)
+                                    .message("Too many logins in progress, please retry shortly")
+                                    .build()));
+                })
+                .contextWrite(OutboundCallLedger.propagate());
     }
 
     @PostMapping("/upload-photo")
@@ -104,7 +139,9 @@ public class OperatorController {
         String transcript = request.get("transcript");
         log.info("Location extraction request for transcript length: {}", transcript != null ? transcript.length() : 0);
 
-        String location = locationExtractionService.extractLocationFromTranscript(transcript);
+        // Not used by the live console: re-extraction waits behind live calls
+        String location = LlmDispatchScheduler.inBackground(
+                () -> locationExtractionService.extractLocationFromTranscript(transcript));
 
         Map<String, String> response = new HashMap<>();
         response.put("location", location != null ? location : "");
@@ -118,7 +155,9 @@ public class OperatorController {
         String transcript = request.get("transcript");
         log.info("Incident classification request for transcript length: {}", transcript != null ? transcript.length() : 0);
 
-        String incidentType = incidentTypeClassificationService.classifyIncidentType(transcript);
+        // Not used by the live console: re-classification waits behind live calls
+        String incidentType = LlmDispatchScheduler.inBackground(
+                () -> incidentTypeClassificationService.classifyIncidentType(transcript));
 
         Map<String, String> response = new HashMap<>();
         response.put("incidentType", incidentType != null ? incidentType : "");
@@ -127,8 +166,48 @@ public class OperatorController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Risk level, incident type and location of the transcript so far, from one AI call
+     */
+    @PostMapping("/triage")
+    public ResponseEntity<Map<String, Object>> triage(@RequestBody Map<String, String> request) {
+        String transcript = request.get("transcript");
+        log.info("Triage request for transcript length: {}", transcript != null ? transcript.length() : 0);
+
+        TriageResult triage = emergencyTriageService.triage(transcript);
+        // Resolve the mentioned place like /extract-location does
+        String address = triage.location() != null ? addressService.searchAddress(triage.location()) : null;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("level", triage.riskLevel());
+        response.put("reason", triage.reason());
+        response.put("incidentType", triage.incidentType() != null ? triage.incidentType() : "");
+        response.put("location", address != null ? address : "");
+        response.put("source", triage.source());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Keyword-based provisional triage, answered in-process without waiting for the AI
+     */
+    @PostMapping("/triage/provisional")
+    public ResponseEntity<Map<String, Object>> provisionalTriage(@RequestBody Map<String, String> request) {
+        LocalTriageClassifier.Classification local = localTriageClassifier.classify(request.get("transcript"));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("level", local.riskLevel());
+        response.put("incidentType", local.incidentType() != null ? local.incidentType() : "");
+        response.put("matchedKeywords", local.matchedKeywords());
+        response.put("source", "local");
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/save-checklist")
-    public ResponseEntity<Map<String, Object>> saveChecklist(@RequestBody Map<String, Object> request) {
+    public Mono<ResponseEntity<Map<String, Object>>> saveChecklist(@RequestBody Map<String, Object> request) {
         String emergencyId = (String) request.get("emergencyCallId");
         String callerId = (String) request.get("callerId");
         String operatorId = (String) request.get("operatorId");
@@ -138,38 +217,38 @@ public class OperatorController {
         log.info("Checklist save request for emergency: {} with {} responses", emergencyId, responses != null ? responses.size() : 0);
 
         if (emergencyId == null || emergencyId.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "Emergency call ID is required"
-            ));
+            )));
         }
 
         if (callerId == null || callerId.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "Caller ID is required"
-            ));
+            )));
         }
 
         if (operatorId == null || operatorId.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "Operator ID is required"
-            ));
+            )));
         }
 
         if (incidentType == null || incidentType.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "Incident type is required"
-            ));
+            )));
         }
 
         if (responses == null || responses.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "Checklist responses are required"
-            ));
+            )));
         }
 
         // Convert to ChecklistResponse objects
@@ -180,15 +259,16 @@ public class OperatorController {
             checklistResponses.add(new ChecklistResponseService.ChecklistResponse(question, answer));
         }
 
-        // Save to database
-        boolean success = checklistResponseService.saveChecklistResponses(
-                emergencyId, callerId, operatorId, incidentType, checklistResponses);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", success);
-        response.put("message", success ? "Checklist saved successfully" : "Failed to save checklist");
-
-        return ResponseEntity.ok(response);
+        // Save to database (non-blocking: the servlet thread is released while Supabase answers)
+        return checklistResponseService.saveChecklistResponses(
+                        emergencyId, callerId, operatorId, incidentType, checklistResponses)
+                .map(success -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", success);
+                    response.put("message", success ? "Checklist saved successfully" : "Failed to save checklist");
+                    return ResponseEntity.ok(response);
+                })
+                .contextWrite(OutboundCallLedger.propagate());
     }
 
     @PostMapping("/complete-emergency")
@@ -216,34 +296,68 @@ public class OperatorController {
                 incidentType, callerLocation, mediaAssetId, transcript != null ? transcript.length() : 0);
 
         try {
-            // Step 1: Assess risk level using AI (only if transcript is provided)
-            int riskLevel = 0;
-            String riskLevelReason = "";
-
-            if (transcript != null && !transcript.isEmpty()) {
-                Map<String, Object> riskAssessment = riskLevelAssessmentService.assessRiskLevel(transcript);
-                riskLevel = (Integer) riskAssessment.get("level");
-                riskLevelReason = (String) riskAssessment.get("reason");
-                log.info("Risk assessment - Level: {}, Reason: {}", riskLevel, riskLevelReason);
-            }
-
-            // Step 2: Create/get caller (phone number only, no name initially)
-            String callerId = callerService.getOrCreateCaller(callerPhoneNumber, null);
-            log.info("Caller ID: {}", callerId);
-
-            // Step 2.5: Extract name from transcript and update if found
-            if (transcript != null && !transcript.isEmpty()) {
-                String extractedName = callerService.extractNameFromTranscript(transcript);
+            StageExecutor.Timings timings = new StageExecutor.Timings();
+            boolean hasTranscript = transcript != null && !transcript.isEmpty();
+
+            // Steps 1-3 are independent remote calls (OpenAI, Supabase, Kakao): run them
+            // concurrently and only join before persisting the emergency record
+
+            // Step 1: Triage using AI - risk level, plus incident type / location when the
+            // request has none (only if transcript is provided). If the AI is late or fails,
+            // the local keyword classification is stored instead
+            TriageResult noTriage = new TriageResult(0, "", null, null, "none");
+            CompletableFuture<TriageResult> triageStage = hasTranscript
+                    ? stageExecutor.run("triage", () -> isUpdate
+                                    // Re-saving a finished call is back-office work
+                                    ? LlmDispatchScheduler.inBackground(() -> emergencyTriageService.triage(transcript))
+                                    : emergencyTriageService.triage(transcript),
+                            riskStageTimeout, localTriageClassifier.classify(transcript).toTriageResult(), timings)
+                    : CompletableFuture.completedFuture(noTriage);
+
+            // Step 2: Create/get caller, setting the name if the transcript contains one
+            // (name extraction is local pattern matching, so it rides along in the single upsert).
+            // No fallback: an emergency must not be stored without its caller
+            CompletableFuture<String> callerStage = stageExecutor.runRequired("caller", () -> {
+                String extractedName = hasTranscript ? callerService.extractNameFromTranscript(transcript) : null;
                 if (extractedName != null) {
                     log.info("Extracted caller name from transcript: {}", extractedName);
-                    callerService.updateCallerName(callerId, extractedName);
-                } else {
-                    log.info("No caller name found in transcript");
                 }
-            }
+                return callerService.getOrCreateCaller(callerPhoneNumber, extractedName);
+            }, callerStageTimeout, timings);
 
             // Step 3: Extract location information if caller location provided
-            String extractedLocation = null;
+            // Normalize location text (fix common speech recognition errors)
+            String normalizedLocation = callerLocation != null && !callerLocation.isEmpty()
+                    ? normalizeLocationText(callerLocation) : null;
+            CompletableFuture<AddressService.AddressDetail> addressStage = normalizedLocation != null
+                    ? runAddressStage(callerLocation, normalizedLocation, timings)
+                    : CompletableFuture.completedFuture(null);
+
+            try {
+                CompletableFuture.allOf(triageStage, callerStage, addressStage).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+
+            TriageResult triage = triageStage.join();
+            int riskLevel = triage.riskLevel();
+            String riskLevelReason = triage.reason();
+            log.info("Risk assessment - Level: {}, Reason: {}", riskLevel, riskLevelReason);
+
+            if ((incidentType == null || incidentType.isEmpty()) && triage.incidentType() != null) {
+                incidentType = triage.incidentType();
+                log.info("Incident type from triage: {}", incidentType);
+            }
+            if (normalizedLocation == null && triage.location() != null) {
+                // Only known once triage is done, so this lookup cannot overlap with it
+                normalizedLocation = normalizeLocationText(triage.location());
+                addressStage = runAddressStage(triage.location(), normalizedLocation, timings);
+            }
+
+            String callerId = callerStage.join();
+            log.info("Caller ID: {}", callerId);
+
+            String extractedLocation = normalizedLocation; // Store original text
             Double latitude = null;
             Double longitude = null;
             String roadAddress = null;
@@ -251,45 +365,31 @@ public class OperatorController {
             String address1 = null;
             String address2 = null;
 
-            if (callerLocation != null && !callerLocation.isEmpty()) {
-                // Normalize location text (fix common speech recognition errors)
-                String normalizedLocation = normalizeLocationText(callerLocation);
-                log.info("Extracting location from: {} (normalized: {})", callerLocation, normalizedLocation);
-
-                try {
-                    // Get detailed location information from Kakao API
-                    AddressService.AddressDetail addressDetail = addressService.searchAddressDetail(normalizedLocation);
-                    if (addressDetail != null) {
-                        extractedLocation = normalizedLocation; // Store original text
-                        latitude = addressDetail.getLatitude();
-                        longitude = addressDetail.getLongitude();
-                        roadAddress = addressDetail.getRoadAddress();
-                        postalCode = addressDetail.getPostalCode();
-
-                        // Use region info to construct address1 and address2
-                        // address1: 시/도 + 구
-                        // address2: 동 + 건물명
-                        if (addressDetail.getRegion1() != null && addressDetail.getRegion2() != null) {
-                            address1 = addressDetail.getRegion1() + " " + addressDetail.getRegion2();
-                        }
-                        if (addressDetail.getRegion3() != null) {
-                            address2 = addressDetail.getRegion3();
-                            if (addressDetail.getBuildingName() != null && !addressDetail.getBuildingName().isEmpty()) {
-                                address2 += " " + addressDetail.getBuildingName();
-                            }
-                        }
-
-                        log.info("Address detail found - Road: {}, Postal: {}, Lat: {}, Lng: {}, Address1: {}, Address2: {}",
-                                roadAddress, postalCode, latitude, longitude, address1, address2);
-                    } else {
-                        // If Kakao API fails, just store the normalized location
-                        extractedLocation = normalizedLocation;
-                        log.warn("Failed to get address detail from Kakao API");
+            AddressService.AddressDetail addressDetail = addressStage.join();
+            if (addressDetail != null) {
+                latitude = addressDetail.getLatitude();
+                longitude = addressDetail.getLongitude();
+                roadAddress = addressDetail.getRoadAddress();
+                postalCode = addressDetail.getPostalCode();
+
+                // Use region info to construct address1 and address2
+                // address1: 시/도 + 구
+                // address2: 동 + 건물명
+                if (addressDetail.getRegion1() != null && addressDetail.getRegion2() != null) {
+                    address1 = addressDetail.getRegion1() + " " + addressDetail.getRegion2();
+                }
+                if (addressDetail.getRegion3() != null) {
+                    address2 = addressDetail.getRegion3();
+                    if (addressDetail.getBuildingName() != null && !addressDetail.getBuildingName().isEmpty()) {
+                        address2 += " " + addressDetail.getBuildingName();
                     }
-                } catch (Exception e) {
-                    log.warn("Failed to extract location details: {}", e.getMessage());
-                    extractedLocation = normalizedLocation;
                 }
+
+                log.info("Address detail found - Road: {}, Postal: {}, Lat: {}, Lng: {}, Address1: {}, Address2: {}",
+                        roadAddress, postalCode, latitude, longitude, address1, address2);
+            } else if (normalizedLocation != null) {
+                // If Kakao API fails, just store the normalized location
+                log.warn("Failed to get address detail from Kakao API");
             }
 
             // Step 4: Use call times from frontend timeline (Korea timezone)
@@ -332,6 +432,7 @@ public class OperatorController {
                 callStartedAt, callEndedAt, totalDurationMs);
 
             // Step 5: Create or update emergency record with all information
+            long persistStart = System.nanoTime();
             String emergencyId;
             if (isUpdate && existingEmergencyId != null && !existingEmergencyId.isEmpty()) {
                 // UPDATE existing emergency record (do not delete)
@@ -405,13 +506,21 @@ public class OperatorController {
                 log.info("Emergency call created: {}", emergencyId);
             }
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "emergencyId", emergencyId,
-                    "callerId", callerId,
-                    "riskLevel", riskLevel,
-                    "riskLevelReason", riskLevelReason
-            ));
+            timings.recordSync("persist", persistStart);
+
+            Map<String, Long> stageTimings = timings.elapsedMs();
+            log.info("complete-emergency stage timings (ms): {}, degraded: {}", stageTimings, timings.degraded());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("emergencyId", emergencyId);
+            response.put("callerId", callerId);
+            response.put("riskLevel", riskLevel);
+            response.put("riskLevelReason", riskLevelReason);
+            response.put("incidentType", incidentType);
+            response.put("timings", stageTimings);
+            response.put("degradedStages", timings.degraded());
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             log.error("Failed to complete emergency: {}", e.getMessage(), e);
@@ -458,6 +567,14 @@ public class OperatorController {
         }
     }
 
+    private CompletableFuture<AddressService.AddressDetail> runAddressStage(
+            String location, String normalizedLocation, StageExecutor.Timings timings) {
+        return stageExecutor.run("address", () -> {
+            log.info("Extracting location from: {} (normalized: {})", location, normalizedLocation);
+            return addressService.searchAddressDetail(normalizedLocation);
+        }, addressStageTimeout, null, timings);
+    }
+
     /**
      * Normalize location text to fix common speech recognition errors
      */
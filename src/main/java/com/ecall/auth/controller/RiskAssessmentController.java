@@ -1,10 +1,16 @@
 package com.ecall.auth.controller;
 
+import com.ecall.auth.service.IncrementalRiskAssessor;
 import com.ecall.auth.service.RiskLevelAssessmentService;
+import com.ecall.auth.service.StreamingRiskAssessmentService;
+import com.ecall.common.instrumentation.OutboundCallLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,13 +22,16 @@ import java.util.Map;
 public class RiskAssessmentController {
 
     private final RiskLevelAssessmentService riskLevelAssessmentService;
+    private final IncrementalRiskAssessor incrementalRiskAssessor;
+    private final StreamingRiskAssessmentService streamingRiskAssessmentService;
 
     /**
      * Assess risk level from emergency call transcript
      *
      * Request body:
      * {
-     *   "transcript": "accumulated conversation text..."
+     *   "transcript": "accumulated conversation text...",
+     *   "callId": "optional; with it, only the text added since the last assessment of this call is sent to the model"
      * }
      *
      * Response:
@@ -35,6 +44,7 @@ public class RiskAssessmentController {
     public ResponseEntity<Map<String, Object>> assessRisk(@RequestBody Map<String, String> request) {
         try {
             String transcript = request.get("transcript");
+            String callId = request.get("callId");
 
             if (transcript == null || transcript.trim().isEmpty()) {
                 log.warn("Empty transcript received for risk assessment");
@@ -46,8 +56,10 @@ public class RiskAssessmentController {
 
             log.info("Assessing risk for transcript length: {}", transcript.length());
 
-            // Call service to get risk assessment
-            Map<String, Object> assessment = riskLevelAssessmentService.assessRiskLevel(transcript);
+            // Call service to get risk assessment (incremental per call when the call is identified)
+            Map<String, Object> assessment = callId != null && !callId.isEmpty()
+                    ? incrementalRiskAssessor.assess(callId, transcript)
+                    : riskLevelAssessmentService.assessRiskLevel(transcript);
 
             // Both backend and frontend use 1-5 scale where 1=Low, 5=Critical
             // No conversion needed
@@ -69,4 +81,41 @@ public class RiskAssessmentController {
             ));
         }
     }
+
+    /**
+     * Assess risk level as it is generated (SSE)
+     *
+     * Request body: { "transcript": "accumulated conversation text..." }
+     *
+     * Events:
+     *   provisional {"level", "keywords"}  keyword-based level, before any remote call (only if a keyword matched)
+     *   level       {"level"}              model level, as soon as it is decoded
+     *   reason      {"text"}               next part of the reason
+     *   done        {"level", "reason", "source": "stream|cache|fallback|local"}
+     */
+    @PostMapping(value = "/assess-risk/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> streamRisk(@RequestBody Map<String, String> request) {
+        String transcript = request.get("transcript");
+        if (transcript == null || transcript.trim().isEmpty()) {
+            log.warn("Empty transcript received for streamed risk assessment");
+            return Flux.just(ServerSentEvent.<Map<String, Object>>builder(Map.of(
+                    "level", 3,
+                    "reason", "No transcript provided",
+                    "source", "none"
+            )).event("done").build());
+        }
+
+        log.info("Streaming risk assessment for transcript length: {}", transcript.length());
+        return streamingRiskAssessmentService.assess(transcript)
+                .contextWrite(OutboundCallLedger.propagate());
+    }
+
+    /**
+     * Drop the incremental assessment state of a finished call
+     */
+    @DeleteMapping("/assess-risk/{callId}")
+    public ResponseEntity<Map<String, Object>> endAssessment(@PathVariable String callId) {
+        incrementalRiskAssessor.forget(callId);
+        return ResponseEntity.ok(Map.of("success", true));
+    }
 }
@@ -1,6 +1,9 @@
 package com.ecall.auth.controller;
 
+import com.ecall.auth.dto.OperatorSummary;
+import com.ecall.auth.dto.RosterMember;
 import com.ecall.auth.service.UnitService;
+import com.ecall.common.resilience.Snapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -24,12 +27,12 @@ public class UnitController {
     @GetMapping("/operators")
     public ResponseEntity<Map<String, Object>> getOperators(@RequestParam(required = false) String role) {
         try {
-            List<Map<String, Object>> operators = unitService.getOperators(role);
+            Snapshot<List<OperatorSummary>> operators = unitService.getOperators(role);
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "data", operators
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", operators.value());
+            return ResponseEntity.ok(operators.describeInto(response));
         } catch (Exception e) {
             log.error("Error fetching operators", e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -45,12 +48,12 @@ public class UnitController {
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllUnits() {
         try {
-            List<Map<String, Object>> units = unitService.getAllUnits();
+            Snapshot<List<Map<String, Object>>> units = unitService.getAllUnits();
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "data", units
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", units.value());
+            return ResponseEntity.ok(units.describeInto(response));
         } catch (Exception e) {
             log.error("Error fetching units", e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -199,11 +202,13 @@ public class UnitController {
                 ));
             }
 
-            unitService.assignOperatorsToUnit(unitId, operatorIds);
+            Map<String, String> results = unitService.assignOperatorsToUnit(unitId, operatorIds);
+            long assigned = results.values().stream().filter("assigned"::equals).count();
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "message", operatorIds.size() + "명의 대원이 배치되었습니다"
+                    "message", assigned + "명의 대원이 배치되었습니다",
+                    "results", results
             ));
         } catch (Exception e) {
             log.error("Error assigning members to unit", e);
@@ -220,14 +225,49 @@ public class UnitController {
     @GetMapping("/{unitId}/members")
     public ResponseEntity<Map<String, Object>> getUnitMembers(@PathVariable String unitId) {
         try {
-            List<Map<String, Object>> members = unitService.getUnitMembers(unitId);
+            Snapshot<List<RosterMember>> members = unitService.getUnitMembers(unitId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", members.value());
+            return ResponseEntity.ok(members.describeInto(response));
+        } catch (Exception e) {
+            log.error("Error fetching unit members", e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Remove multiple members at once
+     */
+    @PostMapping("/{unitId}/remove-members")
+    public ResponseEntity<Map<String, Object>> removeMembers(
+            @PathVariable String unitId,
+            @RequestBody Map<String, Object> request) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> operatorIds = (List<String>) request.get("operatorIds");
+
+            if (operatorIds == null || operatorIds.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "error", "제거할 대원을 선택해주세요"
+                ));
+            }
+
+            Map<String, String> results = unitService.removeMembers(unitId, operatorIds);
+            long removed = results.values().stream().filter("removed"::equals).count();
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "data", members
+                    "message", removed + "명의 부대원이 제거되었습니다",
+                    "results", results
             ));
         } catch (Exception e) {
-            log.error("Error fetching unit members", e);
+            log.error("Error removing members from unit", e);
             return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
                     "error", e.getMessage()
@@ -0,0 +1,18 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Row of the caller table
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CallerRecord(
+        @JsonProperty("id") String id,
+        @JsonProperty("phone_number") String phoneNumber,
+        @JsonProperty("name") String name,
+        @JsonProperty("age") Integer age,
+        @JsonProperty("gender") String gender,
+        @JsonProperty("created_at") String createdAt
+) {
+}
@@ -0,0 +1,23 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Row of the checklist_response table
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ChecklistResponseRecord(
+        @JsonProperty("id") String id,
+        @JsonProperty("emergency_id") String emergencyId,
+        @JsonProperty("caller_id") String callerId,
+        @JsonProperty("operator_id") String operatorId,
+        @JsonProperty("incident_type") String incidentType,
+        @JsonProperty("question") String question,
+        @JsonProperty("answer") String answer,
+        @JsonProperty("question_order") Integer questionOrder,
+        @JsonProperty("response_time") String responseTime,
+        @JsonProperty("is_critical") Boolean isCritical,
+        @JsonProperty("notes") String notes
+) {
+}
@@ -0,0 +1,19 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Row of the dispatch_force table (type "dispatch" = unit, "intake" = intake desk)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DispatchForceRecord(
+        @JsonProperty("id") String id,
+        @JsonProperty("name") String name,
+        @JsonProperty("type") String type,
+        @JsonProperty("operator_leader1_id") String operatorLeader1Id,
+        @JsonProperty("operator_leader2_id") String operatorLeader2Id,
+        @JsonProperty("member_count") Integer memberCount,
+        @JsonProperty("created_at") String createdAt
+) {
+}
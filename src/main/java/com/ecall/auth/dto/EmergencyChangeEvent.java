@@ -0,0 +1,19 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * One change to the emergency table, as pushed to dispatcher consoles.
+ * changes holds only the columns that were written (the full row for "created").
+ * resume_token is also the SSE event id; reconnecting with it replays what was missed.
+ */
+public record EmergencyChangeEvent(
+        @JsonProperty("resume_token") String resumeToken,
+        @JsonProperty("type") String type,
+        @JsonProperty("emergency_id") String emergencyId,
+        @JsonProperty("changes") Map<String, Object> changes,
+        @JsonProperty("at") String at
+) {
+}
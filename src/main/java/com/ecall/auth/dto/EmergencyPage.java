@@ -0,0 +1,16 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * One page of emergency history.
+ * nextCursor is opaque; pass it back as ?cursor= to fetch the following page.
+ */
+public record EmergencyPage(
+        @JsonProperty("items") List<EmergencyRecord> items,
+        @JsonProperty("next_cursor") String nextCursor,
+        @JsonProperty("has_more") boolean hasMore
+) {
+}
@@ -0,0 +1,54 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Row of the emergency table.
+ * caller / operator are only present when joined (omitted from JSON otherwise).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EmergencyRecord(
+        @JsonProperty("id") String id,
+        @JsonProperty("caller_id") String callerId,
+        @JsonProperty("operator_id") String operatorId,
+        @JsonProperty("status") String status,
+        @JsonProperty("call_started_at") String callStartedAt,
+        @JsonProperty("call_ended_at") String callEndedAt,
+        @JsonProperty("stt_engine") String sttEngine,
+        @JsonProperty("language") String language,
+        @JsonProperty("total_duration_ms") Integer totalDurationMs,
+        @JsonProperty("speakers_count") Integer speakersCount,
+        @JsonProperty("utterances_count") Integer utterancesCount,
+        @JsonProperty("risk_level") Integer riskLevel,
+        @JsonProperty("risk_level_reason") String riskLevelReason,
+        @JsonProperty("type") String type,
+        @JsonProperty("incident_type") String incidentType,
+        @JsonProperty("caller_location") String callerLocation,
+        @JsonProperty("location") String location,
+        @JsonProperty("latitude") Double latitude,
+        @JsonProperty("longitude") Double longitude,
+        @JsonProperty("road_address") String roadAddress,
+        @JsonProperty("postal_code") String postalCode,
+        @JsonProperty("address1") String address1,
+        @JsonProperty("address2") String address2,
+        @JsonProperty("audio_id") String audioId,
+        @JsonProperty("transcript") String transcript,
+        @JsonProperty("created_at") String createdAt,
+        @JsonProperty("updated_at") String updatedAt,
+        @JsonProperty("caller") @JsonInclude(JsonInclude.Include.NON_NULL) CallerRecord caller,
+        @JsonProperty("operator") @JsonInclude(JsonInclude.Include.NON_NULL) OperatorRecord operator
+) {
+
+    /**
+     * Copy of this row with caller / operator details attached
+     */
+    public EmergencyRecord withParticipants(CallerRecord caller, OperatorRecord operator) {
+        return new EmergencyRecord(id, callerId, operatorId, status, callStartedAt, callEndedAt,
+                sttEngine, language, totalDurationMs, speakersCount, utterancesCount,
+                riskLevel, riskLevelReason, type, incidentType, callerLocation, location,
+                latitude, longitude, roadAddress, postalCode, address1, address2, audioId,
+                transcript, createdAt, updatedAt, caller, operator);
+    }
+}
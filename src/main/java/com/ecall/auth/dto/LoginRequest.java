@@ -12,4 +12,6 @@ import lombok.NoArgsConstructor;
 public class LoginRequest {
     private String operatorId;
     private String password;
+    // Optional: token from an earlier login, skips the password check while valid
+    private String sessionToken;
 }
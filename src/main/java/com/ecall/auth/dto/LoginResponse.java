@@ -20,4 +20,6 @@ public class LoginResponse {
     private String organizationName;
     private String joinDate;
     private String photoUrl;
+    // Verified-session token for reconnects (null if disabled)
+    private String sessionToken;
 }
@@ -0,0 +1,20 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Row of the media_asset table
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MediaAssetRecord(
+        @JsonProperty("id") String id,
+        @JsonProperty("file_name") String fileName,
+        @JsonProperty("file_path") String filePath,
+        @JsonProperty("file_url") String fileUrl,
+        @JsonProperty("file_type") String fileType,
+        @JsonProperty("file_size") Long fileSize,
+        @JsonProperty("file_extension") String fileExtension,
+        @JsonProperty("upload_at") String uploadAt
+) {
+}
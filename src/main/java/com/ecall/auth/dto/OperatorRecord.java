@@ -0,0 +1,28 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Row of the operator table.
+ * The password hash is deliberately not mapped, so it can never be serialized back to a client.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OperatorRecord(
+        @JsonProperty("id") String id,
+        @JsonProperty("operator_id") String operatorId,
+        @JsonProperty("name") String name,
+        @JsonProperty("role") String role,
+        @JsonProperty("organization_code") String organizationCode,
+        @JsonProperty("organization_name") String organizationName,
+        @JsonProperty("phone_number") String phoneNumber,
+        @JsonProperty("join_date") String joinDate,
+        @JsonProperty("age") Integer age,
+        @JsonProperty("gender") String gender,
+        @JsonProperty("address") String address,
+        @JsonProperty("address_detail") String addressDetail,
+        @JsonProperty("photo_id") String photoId,
+        @JsonProperty("is_active") Boolean isActive,
+        @JsonProperty("created_at") String createdAt
+) {
+}
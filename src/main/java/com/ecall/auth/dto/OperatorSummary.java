@@ -0,0 +1,28 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Operator as shown in console listings: identity, role and organization only. Contact and
+ * personal details of the operator row stay server-side.
+ */
+public record OperatorSummary(
+        @JsonProperty("id") String id,
+        @JsonProperty("operator_id") String operatorId,
+        @JsonProperty("name") String name,
+        @JsonProperty("role") String role,
+        @JsonProperty("organization_code") String organizationCode,
+        @JsonProperty("organization_name") String organizationName
+) {
+
+    public static OperatorSummary of(OperatorRecord operator) {
+        return new OperatorSummary(operator.id(), operator.operatorId(), operator.name(), operator.role(),
+                operator.organizationCode(), operator.organizationName());
+    }
+
+    public static List<OperatorSummary> listOf(List<OperatorRecord> operators) {
+        return operators.stream().map(OperatorSummary::of).toList();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Operator as listed in a unit roster, with the position held in that unit (팀장 / 부팀장 / null).
+ * Besides the {@link OperatorSummary} fields, only the phone number and join date the roster
+ * shows are exposed.
+ */
+public record RosterMember(
+        @JsonUnwrapped OperatorSummary operator,
+        @JsonProperty("phone_number") String phoneNumber,
+        @JsonProperty("join_date") String joinDate,
+        @JsonProperty("position") String position
+) {
+
+    public RosterMember(OperatorRecord operator, String position) {
+        this(OperatorSummary.of(operator), operator.phoneNumber(), operator.joinDate(), position);
+    }
+}
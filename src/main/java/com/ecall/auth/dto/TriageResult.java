@@ -0,0 +1,23 @@
+package com.ecall.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Risk level, incident type and location of one call transcript.
+ * location is the place as mentioned in the call (not yet resolved to an address);
+ * incidentType and location are null when they could not be determined.
+ * source is where the result came from:
+ * "unified" - the single structured-output call (also when served from the result cache),
+ * "fallback" - the individual assessment calls after the unified call failed (or the
+ *              default level 3 for an empty transcript),
+ * "local" - the keyword classifier, while OpenAI is unavailable,
+ * "none" - no triage was run (complete-emergency without a transcript).
+ */
+public record TriageResult(
+        @JsonProperty("level") int riskLevel,
+        @JsonProperty("reason") String reason,
+        @JsonProperty("incident_type") String incidentType,
+        @JsonProperty("location") String location,
+        @JsonProperty("source") String source
+) {
+}
@@ -0,0 +1,60 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.dto.CallerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+
+/**
+ * Typed, non-blocking access to the caller table
+ */
+@Repository
+public class CallerRepository extends ReactiveSupabaseRepository<CallerRecord> {
+
+    public CallerRepository(@Qualifier("webClient") WebClient webClient) {
+        super(webClient, "caller", CallerRecord.class);
+    }
+
+    public Flux<CallerRecord> findAll() {
+        return select("select=*");
+    }
+
+    public Mono<CallerRecord> findById(String id) {
+        return selectOne("id=eq." + id + "&select=*");
+    }
+
+    public Mono<CallerRecord> findByPhoneNumber(String phoneNumber) {
+        return selectOne("phone_number=eq." + phoneNumber + "&select=*");
+    }
+
+    /**
+     * Insert the caller, or update the existing row with the same phone_number, in one request.
+     * The row must not carry an id: new rows get the column default, existing rows keep theirs.
+     */
+    public Mono<CallerRecord> upsertByPhoneNumber(Map<String, Object> row) {
+        return upsert("phone_number", row)
+                .next()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "Caller upsert returned no row for phone " + row.get("phone_number"))));
+    }
+
+    /**
+     * Insert a caller without matching on phone_number (callers without a phone number)
+     */
+    public Mono<CallerRecord> insert(Map<String, Object> row) {
+        return super.insert(row)
+                .next()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Caller insert returned no row")));
+    }
+
+    public Flux<CallerRecord> findByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return select("id=" + SupabaseRepository.inFilter(ids) + "&select=*");
+    }
+}
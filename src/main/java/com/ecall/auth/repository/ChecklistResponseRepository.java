@@ -0,0 +1,42 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.dto.ChecklistResponseRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.*;
+
+/**
+ * Typed, non-blocking access to the checklist_response table
+ */
+@Repository
+public class ChecklistResponseRepository extends ReactiveSupabaseRepository<ChecklistResponseRecord> {
+
+    public ChecklistResponseRepository(@Qualifier("webClient") WebClient webClient) {
+        super(webClient, "checklist_response", ChecklistResponseRecord.class);
+    }
+
+    public Flux<ChecklistResponseRecord> findByEmergencyId(String emergencyId) {
+        return select("emergency_id=eq." + emergencyId + "&order=question_order.asc");
+    }
+
+    /**
+     * Insert or update answers keyed by (emergency_id, question_order) in one request.
+     * Rows carry no id (column default) and must all have the same keys.
+     */
+    public Flux<ChecklistResponseRecord> upsertAll(List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        return upsert("emergency_id,question_order", rows);
+    }
+
+    /**
+     * Delete the answers after the given question, i.e. when a checklist got shorter
+     */
+    public Flux<ChecklistResponseRecord> deleteAfterOrder(String emergencyId, int lastQuestionOrder) {
+        return delete("emergency_id=eq." + emergencyId + "&question_order=gt." + lastQuestionOrder);
+    }
+}
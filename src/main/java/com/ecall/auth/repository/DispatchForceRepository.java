@@ -0,0 +1,29 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.config.SupabaseConfig;
+import com.ecall.auth.dto.DispatchForceRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.*;
+
+/**
+ * Typed access to the dispatch_force table (units and intake desks)
+ */
+@Repository
+public class DispatchForceRepository extends SupabaseRepository<DispatchForceRecord> {
+
+    public DispatchForceRepository(SupabaseConfig supabaseConfig,
+                                   @Qualifier("supabaseRestTemplate") RestTemplate restTemplate) {
+        super(supabaseConfig, restTemplate, "dispatch_force", DispatchForceRecord.class);
+    }
+
+    public List<DispatchForceRecord> findByType(String type, String order) {
+        return select("type=eq." + type + "&select=*" + (order != null ? "&order=" + order : ""));
+    }
+
+    public Optional<DispatchForceRecord> findById(String id) {
+        return selectOne("id=eq." + id + "&select=*");
+    }
+}
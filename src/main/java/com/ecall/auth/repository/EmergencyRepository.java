@@ -0,0 +1,49 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.dto.EmergencyRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Typed, non-blocking access to the emergency table
+ */
+@Repository
+public class EmergencyRepository extends ReactiveSupabaseRepository<EmergencyRecord> {
+
+    public EmergencyRepository(@Qualifier("webClient") WebClient webClient) {
+        super(webClient, "emergency", EmergencyRecord.class);
+    }
+
+    public Flux<EmergencyRecord> findAll() {
+        return select("select=*&order=call_started_at.desc");
+    }
+
+    /**
+     * One keyset page ordered by (created_at, id) descending
+     * @param select select clause, optionally with embedded caller / operator
+     * @param filters PostgREST filters joined with '&' (may be empty)
+     */
+    public Flux<EmergencyRecord> findPage(String select, String filters, int limit) {
+        return select("select=" + select + (filters.isEmpty() ? "" : "&" + filters)
+                + "&order=created_at.desc,id.desc&limit=" + limit);
+    }
+
+    public Mono<EmergencyRecord> findById(String id) {
+        return selectOne("id=eq." + id + "&select=*");
+    }
+
+    public Mono<EmergencyRecord> insert(Map<String, Object> row) {
+        return super.insert(row)
+                .next()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Emergency insert returned no row")));
+    }
+
+    public Mono<Void> deleteById(String id) {
+        return delete("id=eq." + id).then();
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.config.SupabaseConfig;
+import com.ecall.auth.dto.MediaAssetRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.*;
+
+/**
+ * Typed access to the media_asset table
+ */
+@Repository
+public class MediaAssetRepository extends SupabaseRepository<MediaAssetRecord> {
+
+    public MediaAssetRepository(SupabaseConfig supabaseConfig,
+                                @Qualifier("supabaseRestTemplate") RestTemplate restTemplate) {
+        super(supabaseConfig, restTemplate, "media_asset", MediaAssetRecord.class);
+    }
+
+    public Optional<MediaAssetRecord> findById(String id) {
+        return selectOne("id=eq." + id + "&select=*");
+    }
+}
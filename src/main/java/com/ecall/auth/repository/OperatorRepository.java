@@ -0,0 +1,76 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.config.SupabaseConfig;
+import com.ecall.auth.dto.OperatorRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.*;
+
+/**
+ * Typed access to the operator table.
+ * The password column is never mapped (see {@link OperatorRecord}).
+ */
+@Repository
+public class OperatorRepository extends SupabaseRepository<OperatorRecord> {
+
+    public OperatorRepository(SupabaseConfig supabaseConfig,
+                              @Qualifier("supabaseRestTemplate") RestTemplate restTemplate) {
+        super(supabaseConfig, restTemplate, "operator", OperatorRecord.class);
+    }
+
+    public List<OperatorRecord> findAll(String columns) {
+        return select("select=" + columns);
+    }
+
+    public List<OperatorRecord> findByRole(String role, String columns) {
+        return select("role=eq." + role + "&select=" + columns);
+    }
+
+    public Optional<OperatorRecord> findById(String id) {
+        return selectOne("id=eq." + id + "&select=*");
+    }
+
+    public List<OperatorRecord> findByIds(Collection<String> ids, String columns) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return select("id=" + inFilter(ids) + "&select=" + columns);
+    }
+
+    public List<OperatorRecord> findByOrganizationCode(String organizationCode) {
+        return select("organization_code=eq." + organizationCode + "&select=*");
+    }
+
+    public List<OperatorRecord> findByOrganizationName(String organizationName) {
+        return select("organization_name=eq." + organizationName + "&select=*");
+    }
+
+    /**
+     * Operators whose given organization column is one of the keys (projection: id + that column)
+     */
+    public List<OperatorRecord> findByOrganizationIn(String column, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return select(column + "=" + inFilter(keys) + "&select=id," + column);
+    }
+
+    /**
+     * PATCH all given operators in one id=in.(...) request
+     * @param narrowingFilter Extra PostgREST filter (e.g. "organization_code=eq.df-1"), or null
+     * @return Ids of the rows that were actually updated
+     */
+    public Set<String> updateAll(Collection<String> ids, String narrowingFilter, Map<String, Object> changes) {
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String filter = "id=" + inFilter(ids) + (narrowingFilter != null ? "&" + narrowingFilter : "") + "&select=id";
+        Set<String> updated = new HashSet<>();
+        for (OperatorRecord operator : update(filter, changes)) {
+            updated.add(operator.id());
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecall.auth.repository;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Base class for PostgREST table repositories on the non-blocking Supabase WebClient.
+ *
+ * Rows are decoded one by one from the response body as they arrive, and no thread waits
+ * on the socket: a slow database queues requests in the connection pool / event loop
+ * instead of holding servlet threads. Callers that need a value synchronously block on
+ * the returned publisher from their own worker thread.
+ */
+public abstract class ReactiveSupabaseRepository<T> {
+
+    private static final String RETURN_REPRESENTATION = "return=representation";
+
+    private final WebClient webClient;
+    private final String table;
+    private final Class<T> type;
+
+    protected ReactiveSupabaseRepository(WebClient webClient, String table, Class<T> type) {
+        this.webClient = webClient;
+        this.table = table;
+        this.type = type;
+    }
+
+    /**
+     * GET /{table}?{query}
+     */
+    protected Flux<T> select(String query) {
+        return execute(HttpMethod.GET, query, null, null);
+    }
+
+    /**
+     * GET /{table}?{query}&limit=1
+     */
+    protected Mono<T> selectOne(String query) {
+        return select(query + "&limit=1").next();
+    }
+
+    /**
+     * POST /{table}, returning the inserted rows
+     */
+    protected Flux<T> insert(Object body) {
+        return execute(HttpMethod.POST, "", body, RETURN_REPRESENTATION);
+    }
+
+    /**
+     * POST /{table}?on_conflict={columns} as INSERT ... ON CONFLICT DO UPDATE, returning the
+     * inserted or merged rows. Only the columns present in the body are overwritten on conflict.
+     */
+    protected Flux<T> upsert(String onConflict, Object body) {
+        return execute(HttpMethod.POST, "on_conflict=" + onConflict, body,
+                "resolution=merge-duplicates," + RETURN_REPRESENTATION);
+    }
+
+    /**
+     * PATCH /{table}?{filter}, returning the updated rows
+     */
+    protected Flux<T> update(String filter, Object body) {
+        return execute(HttpMethod.PATCH, filter, body, RETURN_REPRESENTATION);
+    }
+
+    /**
+     * DELETE /{table}?{filter}, returning the deleted rows
+     */
+    protected Flux<T> delete(String filter) {
+        return execute(HttpMethod.DELETE, filter, null, RETURN_REPRESENTATION);
+    }
+
+    /**
+     * POST /rpc/{function} with named arguments
+     */
+    protected <R> Mono<R> rpc(String function, Object args, Class<R> resultType) {
+        return webClient.post()
+                .uri("/rpc/" + function)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(args)
+                .retrieve()
+                .bodyToMono(resultType)
+                .onErrorMap(e -> new RuntimeException("Failed to call rpc " + function + ": " + e.getMessage(), e));
+    }
+
+    private Flux<T> execute(HttpMethod method, String query, Object body, String prefer) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri("/" + table + (query.isEmpty() ? "" : "?" + query))
+                .accept(MediaType.APPLICATION_JSON);
+        if (prefer != null) {
+            request = request.header("Prefer", prefer);
+        }
+        WebClient.RequestHeadersSpec<?> spec = body != null
+                ? request.contentType(MediaType.APPLICATION_JSON).bodyValue(body)
+                : request;
+
+        // A JSON array body is decoded element by element; 204 / empty bodies give an empty Flux
+        return spec.retrieve()
+                .bodyToFlux(type)
+                .onErrorMap(e -> new RuntimeException(
+                        "Failed to " + method.name() + " " + table + ": " + e.getMessage(), e));
+    }
+}
@@ -0,0 +1,136 @@
+package com.ecall.auth.repository;
+
+import com.ecall.auth.config.SupabaseConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.*;
+
+/**
+ * Base class for PostgREST table repositories.
+ *
+ * Responses are bound straight from the HTTP input stream into typed records with
+ * Jackson databind, so no String body, JsonNode tree or intermediate HashMap is built.
+ */
+public abstract class SupabaseRepository<T> {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String RETURN_REPRESENTATION = "return=representation";
+
+    private final SupabaseConfig supabaseConfig;
+    private final RestTemplate restTemplate;
+    private final String table;
+    private final ObjectReader listReader;
+
+    protected SupabaseRepository(SupabaseConfig supabaseConfig, RestTemplate restTemplate,
+                                 String table, Class<T> type) {
+        this.supabaseConfig = supabaseConfig;
+        this.restTemplate = restTemplate;
+        this.table = table;
+        this.listReader = MAPPER.readerForListOf(type);
+    }
+
+    /**
+     * GET /{table}?{query}
+     */
+    protected List<T> select(String query) {
+        return execute(HttpMethod.GET, query, null, null);
+    }
+
+    /**
+     * GET /{table}?{query}&limit=1
+     */
+    protected Optional<T> selectOne(String query) {
+        List<T> rows = select(query + "&limit=1");
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * POST /{table}, returning the inserted rows
+     */
+    protected List<T> insert(Object body) {
+        return execute(HttpMethod.POST, "", body, RETURN_REPRESENTATION);
+    }
+
+    /**
+     * POST /{table}?on_conflict={columns} as INSERT ... ON CONFLICT DO UPDATE, returning the
+     * inserted or merged rows. Only the columns present in the body are overwritten on conflict.
+     */
+    protected List<T> upsert(String onConflict, Object body) {
+        return execute(HttpMethod.POST, "on_conflict=" + onConflict, body,
+                "resolution=merge-duplicates," + RETURN_REPRESENTATION);
+    }
+
+    /**
+     * PATCH /{table}?{filter}, returning the updated rows
+     */
+    protected List<T> update(String filter, Object body) {
+        return execute(HttpMethod.PATCH, filter, body, RETURN_REPRESENTATION);
+    }
+
+    /**
+     * DELETE /{table}?{filter}, returning the deleted rows
+     */
+    protected List<T> delete(String filter) {
+        return execute(HttpMethod.DELETE, filter, null, RETURN_REPRESENTATION);
+    }
+
+    private List<T> execute(HttpMethod method, String query, Object body, String prefer) {
+        String url = supabaseConfig.getApiUrl() + "/" + table + (query.isEmpty() ? "" : "?" + query);
+
+        RequestCallback callback = request -> {
+            HttpHeaders headers = request.getHeaders();
+            headers.set("apikey", supabaseConfig.getSupabaseKey());
+            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (prefer != null) {
+                headers.set("Prefer", prefer);
+            }
+            if (body != null) {
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                request.getBody().write(MAPPER.writeValueAsBytes(body));
+            }
+        };
+
+        ResponseExtractor<List<T>> extractor = response -> {
+            try (PushbackInputStream in = new PushbackInputStream(response.getBody())) {
+                // 204 / empty bodies carry no array to bind
+                int first = in.read();
+                if (first == -1) {
+                    return Collections.emptyList();
+                }
+                in.unread(first);
+                return listReader.readValue((InputStream) in);
+            }
+        };
+
+        try {
+            List<T> rows = restTemplate.execute(url, method, callback, extractor);
+            return rows != null ? rows : Collections.emptyList();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to " + method.name() + " " + table + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build a PostgREST in.(...) filter, quoting values so names with commas or spaces survive
+     */
+    public static String inFilter(Collection<String> values) {
+        StringJoiner joiner = new StringJoiner(",", "in.(", ")");
+        for (String value : values) {
+            joiner.add("\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"");
+        }
+        return joiner.toString();
+    }
+}
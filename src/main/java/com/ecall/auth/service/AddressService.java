@@ -39,6 +39,7 @@ public class AddressService {
     }
 
     private final RestTemplate restTemplate;
+    private final GeocodeCache geocodeCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // Kakao REST API Key - .env에서 가져오거나 여기에 직접 입력
@@ -46,13 +47,22 @@ public class AddressService {
     private String kakaoApiKey;
 
     public String searchAddress(String query) {
-        try {
-            // If no API key, return original query
-            if (kakaoApiKey == null || kakaoApiKey.isEmpty()) {
-                log.warn("Kakao API key not configured, returning original query");
-                return query;
-            }
+        // If no API key, return original query
+        if (kakaoApiKey == null || kakaoApiKey.isEmpty()) {
+            log.warn("Kakao API key not configured, returning original query");
+            return query;
+        }
 
+        // Only resolved addresses are cached; a failed search answers with the query itself
+        String resolved = geocodeCache.get("address", query, String.class, () -> {
+            String address = lookupAddress(query);
+            return address == null || address.equals(query) ? null : address;
+        });
+        return resolved != null ? resolved : query;
+    }
+
+    private String lookupAddress(String query) {
+        try {
             // Try Kakao Local API - Keyword search
             String url = UriComponentsBuilder
                     .fromHttpUrl("https://dapi.kakao.com/v2/local/search/keyword.json")
@@ -164,13 +174,17 @@ public class AddressService {
      * Search address and get detailed information including coordinates, postal code, etc.
      */
     public AddressDetail searchAddressDetail(String query) {
-        try {
-            // If no API key, return null
-            if (kakaoApiKey == null || kakaoApiKey.isEmpty()) {
-                log.warn("Kakao API key not configured");
-                return null;
-            }
+        // If no API key, return null
+        if (kakaoApiKey == null || kakaoApiKey.isEmpty()) {
+            log.warn("Kakao API key not configured");
+            return null;
+        }
 
+        return geocodeCache.get("detail", query, AddressDetail.class, () -> lookupAddressDetail(query));
+    }
+
+    private AddressDetail lookupAddressDetail(String query) {
+        try {
             // Try address search first (more accurate for addresses)
             AddressDetail detail = searchDetailByAddress(query);
             if (detail != null) {
@@ -1,26 +1,41 @@
 package com.ecall.auth.service;
 
-import com.ecall.auth.config.SupabaseConfig;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.ecall.auth.dto.CallerRecord;
+import com.ecall.auth.repository.CallerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CallerService {
 
-    private final SupabaseConfig supabaseConfig;
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CallerRepository callerRepository;
+
+    // phone_number -> caller id; a caller's id never changes, so entries only age out by size/idle time
+    private final Cache<String, String> callerIdsByPhone;
+
+    public CallerService(CallerRepository callerRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${caller.cache.max-size:10000}") long maxSize,
+                         @Value("${caller.cache.idle-minutes:1440}") long idleMinutes) {
+        this.callerRepository = callerRepository;
+        this.callerIdsByPhone = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, callerIdsByPhone, "caller.byPhone");
+    }
 
     /**
      * Insert a new caller record into the database
@@ -33,21 +48,18 @@ public class CallerService {
     }
 
     /**
-     * Insert a new caller record into the database with full details
-     * @param phoneNumber Caller's phone number
-     * @param name Caller's name (can be null)
-     * @param age Caller's age (can be null)
-     * @param gender Caller's gender (can be null)
+     * Insert a caller record with full details, or update the existing caller with the same
+     * phone number (single upsert request on phone_number, so concurrent calls cannot create duplicates)
+     * @param phoneNumber Caller's phone number (null or blank: always a new caller)
+     * @param name Caller's name (can be null, existing name is kept)
+     * @param age Caller's age (can be null, existing age is kept)
+     * @param gender Caller's gender (can be null, existing gender is kept)
      * @return caller_id (cl-{uuid})
      */
     public String insertCaller(String phoneNumber, String name, Integer age, String gender) {
         try {
-            // Generate custom ID: cl-{uuid}
-            String callerId = "cl-" + UUID.randomUUID().toString();
-
-            // Create caller data
+            // No id: new rows get the cl-{uuid} column default, existing rows keep their id
             Map<String, Object> callerData = new HashMap<>();
-            callerData.put("id", callerId);
             callerData.put("phone_number", phoneNumber);
             if (name != null && !name.isEmpty()) {
                 callerData.put("name", name);
@@ -59,27 +71,19 @@ public class CallerService {
                 callerData.put("gender", gender);
             }
 
-            // Send request to Supabase
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-            headers.set("Prefer", "return=representation");
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(callerData, headers);
-
-            String url = supabaseConfig.getApiUrl() + "/caller";
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            // Called from worker threads (pipeline stages, upload flow), so waiting here is fine
+            CallerRecord caller;
+            if (hasPhoneNumber(phoneNumber)) {
+                caller = callerRepository.upsertByPhoneNumber(callerData).block();
+                callerIdsByPhone.put(phoneNumber, caller.id());
+            } else {
+                // Nothing to match on: a plain insert, not cached
+                caller = callerRepository.insert(callerData).block();
+            }
 
-            log.info("Caller inserted successfully: {} (phone: {}, name: {}, age: {}, gender: {})",
-                    callerId, phoneNumber, name, age, gender);
-            return callerId;
+            log.info("Caller upserted successfully: {} (phone: {}, name: {}, age: {}, gender: {})",
+                    caller.id(), phoneNumber, name, age, gender);
+            return caller.id();
 
         } catch (Exception e) {
             log.error("Error inserting caller: {}", e.getMessage(), e);
@@ -93,28 +97,20 @@ public class CallerService {
      * @return caller_id if found, null otherwise
      */
     public String getCallerByPhoneNumber(String phoneNumber) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/caller?phone_number=eq." + phoneNumber;
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
+        if (!hasPhoneNumber(phoneNumber)) {
+            return null;
+        }
+        String cachedId = callerIdsByPhone.getIfPresent(phoneNumber);
+        if (cachedId != null) {
+            return cachedId;
+        }
 
-            // Parse response
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
+        try {
+            Optional<CallerRecord> caller = callerRepository.findByPhoneNumber(phoneNumber).blockOptional();
 
-            if (!jsonArray.isEmpty()) {
-                String callerId = jsonArray.get(0).get("id").asText();
+            if (caller.isPresent()) {
+                String callerId = caller.get().id();
+                callerIdsByPhone.put(phoneNumber, callerId);
                 log.info("Found existing caller: {} (phone: {})", callerId, phoneNumber);
                 return callerId;
             }
@@ -130,62 +126,23 @@ public class CallerService {
     /**
      * Get or create a caller record
      * @param phoneNumber Caller's phone number
-     * @param name Caller's name (can be null)
+     * @param name Caller's name (can be null; when given it is written to the caller)
      * @return caller_id
      */
     public String getOrCreateCaller(String phoneNumber, String name) {
-        // Try to find existing caller
-        String callerId = getCallerByPhoneNumber(phoneNumber);
-
-        if (callerId != null) {
-            log.info("Using existing caller: {}", callerId);
-            return callerId;
+        // Repeat caller with nothing to write: no round trip
+        if ((name == null || name.isEmpty()) && hasPhoneNumber(phoneNumber)) {
+            String cachedId = callerIdsByPhone.getIfPresent(phoneNumber);
+            if (cachedId != null) {
+                log.info("Using existing caller: {}", cachedId);
+                return cachedId;
+            }
         }
 
-        // Create new caller
-        log.info("Creating new caller for phone: {}", phoneNumber);
+        // Find-or-create (and set the name) in one upsert request
         return insertCaller(phoneNumber, name);
     }
 
-    /**
-     * Update caller's name
-     * @param callerId Caller ID
-     * @param name Caller's name
-     */
-    public void updateCallerName(String callerId, String name) {
-        try {
-            if (name == null || name.isEmpty()) {
-                log.warn("Cannot update caller name with empty value");
-                return;
-            }
-
-            Map<String, Object> updates = new HashMap<>();
-            updates.put("name", name);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-            headers.set("Prefer", "return=representation");
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(updates, headers);
-
-            String url = supabaseConfig.getApiUrl() + "/caller?id=eq." + callerId;
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.PATCH,
-                    entity,
-                    String.class
-            );
-
-            log.info("Caller name updated successfully: {} -> {}", callerId, name);
-
-        } catch (Exception e) {
-            log.error("Error updating caller name: {}", e.getMessage(), e);
-        }
-    }
-
     /**
      * Extract caller name from transcript using AI
      * @param transcript The conversation transcript
@@ -229,4 +186,8 @@ public class CallerService {
             return null;
         }
     }
+
+    private static boolean hasPhoneNumber(String phoneNumber) {
+        return phoneNumber != null && !phoneNumber.isBlank();
+    }
 }
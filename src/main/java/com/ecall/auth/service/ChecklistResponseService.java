@@ -1,27 +1,50 @@
 package com.ecall.auth.service;
 
-import com.ecall.auth.config.SupabaseConfig;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.ecall.auth.dto.ChecklistResponseRecord;
+import com.ecall.auth.repository.ChecklistResponseRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ChecklistResponseService {
 
-    private final SupabaseConfig supabaseConfig;
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ChecklistResponseRepository checklistResponseRepository;
+
+    // Last state written to / read from the database per emergency: question_order -> answer.
+    // Values are futures so a save can chain onto the save still in flight for the same emergency.
+    private final AsyncCache<String, Map<Integer, StoredAnswer>> knownChecklists;
+
+    public ChecklistResponseService(ChecklistResponseRepository checklistResponseRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${checklist.cache.max-emergencies:1000}") long maxEmergencies,
+                                    @Value("${checklist.cache.idle-minutes:120}") long idleMinutes) {
+        this.checklistResponseRepository = checklistResponseRepository;
+        this.knownChecklists = Caffeine.newBuilder()
+                .maximumSize(maxEmergencies)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, knownChecklists.synchronous(), "checklist.known");
+    }
 
     /**
-     * Save checklist responses for an emergency call
+     * Save checklist responses for an emergency call.
+     * Only answers that differ from the last known state are written (one bulk upsert on
+     * (emergency_id, question_order)); answers past the end of a shorter list are deleted.
      * @param emergencyId Emergency ID (em-{uuid})
      * @param callerId Caller ID (cl-{uuid})
      * @param operatorId Operator ID (op-{uuid})
@@ -29,97 +52,101 @@ public class ChecklistResponseService {
      * @param responses List of checklist responses
      * @return true if successful, false otherwise
      */
-    public boolean saveChecklistResponses(String emergencyId, String callerId, String operatorId,
-                                         String incidentType, List<ChecklistResponse> responses) {
-        try {
-            // Delete existing responses for this emergency call first
-            deleteChecklistResponses(emergencyId);
-
-            // Get current timestamp for response_time
-            LocalDateTime now = LocalDateTime.now();
-
-            // Prepare batch insert data
-            List<Map<String, Object>> batchData = new ArrayList<>();
-
-            for (int i = 0; i < responses.size(); i++) {
-                ChecklistResponse response = responses.get(i);
-                String responseId = "cr-" + UUID.randomUUID().toString();
-
-                Map<String, Object> data = new HashMap<>();
-                data.put("id", responseId);
-                data.put("emergency_id", emergencyId);
-                data.put("caller_id", callerId);
-                data.put("operator_id", operatorId);
-                data.put("incident_type", incidentType);
-                data.put("question", response.getQuestion());
-                data.put("answer", response.getAnswer());
-                data.put("question_order", i + 1);
-                data.put("response_time", now.toString());
-                data.put("is_critical", response.isCritical());
-
-                if (response.getNotes() != null && !response.getNotes().isEmpty()) {
-                    data.put("notes", response.getNotes());
-                }
-
-                batchData.add(data);
-            }
-
-            // Send batch insert request to Supabase
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-            headers.set("Prefer", "return=representation");
-
-            HttpEntity<List<Map<String, Object>>> entity = new HttpEntity<>(batchData, headers);
-
-            String url = supabaseConfig.getApiUrl() + "/checklist_response";
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
-
-            log.info("Checklist responses saved successfully for emergency: {} ({} responses)",
-                    emergencyId, responses.size());
-            return true;
-
-        } catch (Exception e) {
-            log.error("Error saving checklist responses: {}", e.getMessage(), e);
-            return false;
-        }
+    public Mono<Boolean> saveChecklistResponses(String emergencyId, String callerId, String operatorId,
+                                               String incidentType, List<ChecklistResponse> responses) {
+        // Each save is chained onto the previous save of the same emergency, so its diff is taken
+        // against the state that save left behind. A failed save is dropped from the cache by
+        // Caffeine; the next save then re-reads the table.
+        return Mono.deferContextual(context -> {
+                    // Subscribed here rather than by the caller, so hand the caller's context
+                    // (outbound call ledger) over
+                    CompletableFuture<Map<Integer, StoredAnswer>> saved = knownChecklists.asMap().compute(emergencyId,
+                            (id, previous) -> {
+                                CompletableFuture<Map<Integer, StoredAnswer>> known = previous != null
+                                        ? previous.exceptionallyCompose(e -> loadKnownState(id, context))
+                                        : loadKnownState(id, context);
+                                return known.thenCompose(current ->
+                                        writeChanges(id, current, callerId, operatorId, incidentType, responses)
+                                                .contextWrite(context)
+                                                .toFuture());
+                            });
+                    return Mono.fromFuture(saved, true);
+                })
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    log.error("Error saving checklist responses: {}", e.getMessage(), e);
+                    return Mono.just(false);
+                });
     }
 
-    /**
-     * Delete existing checklist responses for an emergency call
-     * @param emergencyId Emergency ID
-     */
-    private void deleteChecklistResponses(String emergencyId) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
+    private Mono<Map<Integer, StoredAnswer>> writeChanges(String emergencyId, Map<Integer, StoredAnswer> current,
+                                                          String callerId, String operatorId, String incidentType,
+                                                          List<ChecklistResponse> responses) {
+        // Get current timestamp for response_time
+        String now = LocalDateTime.now().toString();
+
+        Map<Integer, StoredAnswer> next = new HashMap<>();
+        List<Map<String, Object>> changedRows = new ArrayList<>();
+
+        for (int i = 0; i < responses.size(); i++) {
+            ChecklistResponse response = responses.get(i);
+            int questionOrder = i + 1;
+            String notes = response.getNotes() != null && !response.getNotes().isEmpty()
+                    ? response.getNotes() : null;
+            StoredAnswer answer = new StoredAnswer(callerId, operatorId, incidentType,
+                    response.getQuestion(), response.getAnswer(), response.isCritical(), notes);
+            next.put(questionOrder, answer);
+
+            if (answer.equals(current.get(questionOrder))) {
+                continue;
+            }
 
-            String url = supabaseConfig.getApiUrl() + "/checklist_response?emergency_id=eq." + emergencyId;
+            // Every row has the same keys, as PostgREST bulk upserts require
+            Map<String, Object> data = new HashMap<>();
+            data.put("emergency_id", emergencyId);
+            data.put("caller_id", callerId);
+            data.put("operator_id", operatorId);
+            data.put("incident_type", incidentType);
+            data.put("question", answer.question());
+            data.put("answer", answer.answer());
+            data.put("question_order", questionOrder);
+            data.put("response_time", now);
+            data.put("is_critical", answer.critical());
+            data.put("notes", notes);
+            changedRows.add(data);
+        }
 
-            restTemplate.exchange(
-                    url,
-                    HttpMethod.DELETE,
-                    entity,
-                    String.class
-            );
+        boolean shrunk = current.keySet().stream().anyMatch(order -> order > responses.size());
+
+        return checklistResponseRepository.upsertAll(changedRows)
+                .thenMany(shrunk
+                        ? checklistResponseRepository.deleteAfterOrder(emergencyId, responses.size())
+                        : Flux.empty())
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Checklist responses saved for emergency: {} ({} responses, {} changed{})",
+                            emergencyId, responses.size(), changedRows.size(), shrunk ? ", trailing removed" : "");
+                    return next;
+                }));
+    }
 
-            log.info("Deleted existing checklist responses for emergency: {}", emergencyId);
+    private CompletableFuture<Map<Integer, StoredAnswer>> loadKnownState(String emergencyId, ContextView context) {
+        return checklistResponseRepository.findByEmergencyId(emergencyId)
+                .collectList()
+                .map(ChecklistResponseService::toKnownState)
+                .contextWrite(context)
+                .toFuture();
+    }
 
-        } catch (Exception e) {
-            // Log but don't fail - might be first time saving
-            log.debug("No existing checklist responses to delete for emergency: {}", emergencyId);
+    private static Map<Integer, StoredAnswer> toKnownState(List<ChecklistResponseRecord> records) {
+        Map<Integer, StoredAnswer> state = new HashMap<>();
+        for (ChecklistResponseRecord record : records) {
+            if (record.questionOrder() != null) {
+                state.put(record.questionOrder(), new StoredAnswer(record.callerId(), record.operatorId(),
+                        record.incidentType(), record.question(), record.answer(),
+                        Boolean.TRUE.equals(record.isCritical()), record.notes()));
+            }
         }
+        return state;
     }
 
     /**
@@ -127,44 +154,38 @@ public class ChecklistResponseService {
      * @param emergencyId Emergency ID
      * @return List of checklist responses
      */
-    public List<ChecklistResponse> getChecklistResponses(String emergencyId) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            String url = supabaseConfig.getApiUrl() + "/checklist_response?emergency_id=eq." + emergencyId + "&order=question_order.asc";
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            // Parse response
-            List<Map<String, Object>> jsonArray = objectMapper.readValue(response.getBody(), List.class);
-            List<ChecklistResponse> responses = new ArrayList<>();
-
-            for (Map<String, Object> item : jsonArray) {
-                ChecklistResponse checklistResponse = new ChecklistResponse();
-                checklistResponse.setQuestion((String) item.get("question"));
-                checklistResponse.setAnswer((String) item.get("answer"));
-                checklistResponse.setCritical(item.get("is_critical") != null && (Boolean) item.get("is_critical"));
-                checklistResponse.setNotes((String) item.get("notes"));
-                responses.add(checklistResponse);
-            }
-
-            log.info("Retrieved {} checklist responses for emergency: {}", responses.size(), emergencyId);
-            return responses;
+    public Mono<List<ChecklistResponse>> getChecklistResponses(String emergencyId) {
+        return checklistResponseRepository.findByEmergencyId(emergencyId)
+                .collectList()
+                .map(records -> {
+                    // Seed the diff state unless a save for this emergency is already tracked
+                    knownChecklists.asMap().putIfAbsent(emergencyId,
+                            CompletableFuture.completedFuture(toKnownState(records)));
+
+                    List<ChecklistResponse> responses = new ArrayList<>();
+                    for (ChecklistResponseRecord item : records) {
+                        ChecklistResponse checklistResponse = new ChecklistResponse();
+                        checklistResponse.setQuestion(item.question());
+                        checklistResponse.setAnswer(item.answer());
+                        checklistResponse.setCritical(Boolean.TRUE.equals(item.isCritical()));
+                        checklistResponse.setNotes(item.notes());
+                        responses.add(checklistResponse);
+                    }
+
+                    log.info("Retrieved {} checklist responses for emergency: {}", responses.size(), emergencyId);
+                    return responses;
+                })
+                .onErrorResume(e -> {
+                    log.error("Error getting checklist responses: {}", e.getMessage(), e);
+                    return Mono.just(new ArrayList<>());
+                });
+    }
 
-        } catch (Exception e) {
-            log.error("Error getting checklist responses: {}", e.getMessage(), e);
-            return new ArrayList<>();
-        }
+    /**
+     * Stored content of one answer, compared to decide whether a row needs writing
+     */
+    private record StoredAnswer(String callerId, String operatorId, String incidentType,
+                                String question, String answer, boolean critical, String notes) {
     }
 
     /**
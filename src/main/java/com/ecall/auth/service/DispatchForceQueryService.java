@@ -0,0 +1,191 @@
+package com.ecall.auth.service;
+
+import com.ecall.auth.dto.DispatchForceRecord;
+import com.ecall.auth.dto.OperatorRecord;
+import com.ecall.common.instrumentation.OutboundCallLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Roster listing queries for the dispatch_force table (dispatch units and intake desks).
+ *
+ * Each listing loads the rows, all of their leaders and all member counts with a fixed
+ * number of PostgREST requests (rows + one id=in.(...) leader lookup + one member
+ * projection), no matter how many units or desks exist. Those requests are only made for
+ * what {@link OperatorDirectory} does not already hold.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchForceQueryService {
+
+    private final OperatorDirectory operatorDirectory;
+
+    /**
+     * Get all dispatch units with leader details and member counts
+     */
+    public List<Map<String, Object>> findUnitsWithLeaders() {
+        long requestsBefore = supabaseRequests();
+        List<DispatchForceRecord> unitRows = operatorDirectory.findDispatchForcesByType("dispatch", "created_at.desc");
+
+        List<String> unitIds = new ArrayList<>();
+        Set<String> leaderIds = new LinkedHashSet<>();
+        for (DispatchForceRecord row : unitRows) {
+            unitIds.add(row.id());
+            addIfPresent(leaderIds, row.operatorLeader1Id());
+            addIfPresent(leaderIds, row.operatorLeader2Id());
+        }
+
+        Map<String, OperatorRecord> leaders = findOperatorsByIds(leaderIds);
+        Map<String, Set<String>> membersByUnit = findMemberIds("organization_code", unitIds);
+
+        List<Map<String, Object>> units = new ArrayList<>();
+        for (DispatchForceRecord row : unitRows) {
+            Map<String, Object> unit = new HashMap<>();
+            String unitId = row.id();
+
+            unit.put("id", unitId);
+            unit.put("name", row.name());
+            unit.put("type", row.type() != null ? row.type() : "dispatch");
+
+            String leader1Id = row.operatorLeader1Id();
+            String leader2Id = row.operatorLeader2Id();
+
+            unit.put("operator_leader1_id", leader1Id);
+            unit.put("operator_leader2_id", leader2Id);
+
+            putLeaderDetails(unit, "leader1", leader1Id != null ? leaders.get(leader1Id) : null);
+            putLeaderDetails(unit, "leader2", leader2Id != null ? leaders.get(leader2Id) : null);
+
+            // Members are operators whose organization_code is this unit, plus leaders
+            // that exist but are not (yet) assigned to the unit themselves
+            Set<String> members = new HashSet<>(membersByUnit.getOrDefault(unitId, Collections.emptySet()));
+            if (leader1Id != null && leaders.containsKey(leader1Id)) {
+                members.add(leader1Id);
+            }
+            if (leader2Id != null && leaders.containsKey(leader2Id)) {
+                members.add(leader2Id);
+            }
+            unit.put("member_count", members.size());
+
+            unit.put("created_at", row.createdAt());
+            units.add(unit);
+        }
+
+        logLoad("units", units.size(), leaders.size(), requestsBefore);
+        return units;
+    }
+
+    /**
+     * Get all intake desks with leader names and member counts
+     */
+    public List<Map<String, Object>> findIntakeDesksWithLeaders() {
+        long requestsBefore = supabaseRequests();
+        List<DispatchForceRecord> deskRows = operatorDirectory.findDispatchForcesByType("intake", null);
+
+        List<String> deskNames = new ArrayList<>();
+        Set<String> leaderIds = new LinkedHashSet<>();
+        for (DispatchForceRecord row : deskRows) {
+            deskNames.add(row.name());
+            addIfPresent(leaderIds, row.operatorLeader1Id());
+            addIfPresent(leaderIds, row.operatorLeader2Id());
+        }
+
+        Map<String, OperatorRecord> leaders = findOperatorsByIds(leaderIds);
+        Map<String, Set<String>> membersByDesk = findMemberIds("organization_name", deskNames);
+
+        List<Map<String, Object>> intakeDesks = new ArrayList<>();
+        for (DispatchForceRecord row : deskRows) {
+            Map<String, Object> intakeDesk = new HashMap<>();
+            String deskName = row.name();
+            intakeDesk.put("id", row.id());
+            intakeDesk.put("name", deskName);
+
+            if (row.createdAt() != null) {
+                intakeDesk.put("created_at", row.createdAt());
+            }
+
+            String leader1Id = row.operatorLeader1Id();
+            String leader2Id = row.operatorLeader2Id();
+
+            intakeDesk.put("leader1_id", leader1Id);
+            intakeDesk.put("leader2_id", leader2Id);
+
+            OperatorRecord leader1 = leader1Id != null ? leaders.get(leader1Id) : null;
+            OperatorRecord leader2 = leader2Id != null ? leaders.get(leader2Id) : null;
+            intakeDesk.put("leader1_name", leader1 != null ? leader1.name() : null);
+            intakeDesk.put("leader2_name", leader2 != null ? leader2.name() : null);
+
+            intakeDesk.put("member_count", membersByDesk.getOrDefault(deskName, Collections.emptySet()).size());
+
+            intakeDesks.add(intakeDesk);
+        }
+
+        logLoad("intake desks", intakeDesks.size(), leaders.size(), requestsBefore);
+        return intakeDesks;
+    }
+
+    /**
+     * Fetch all given operators; cache misses are loaded in a single id=in.(...) request
+     */
+    private Map<String, OperatorRecord> findOperatorsByIds(Collection<String> operatorIds) {
+        return operatorDirectory.findOperators(operatorIds);
+    }
+
+    /**
+     * Fetch operator ids grouped by the given organization column in a single request.
+     * Only the id and grouping column are projected, so the payload stays small.
+     */
+    private Map<String, Set<String>> findMemberIds(String column, Collection<String> keys) {
+        Map<String, Set<String>> members = new HashMap<>();
+        for (OperatorRecord operator : operatorDirectory.findOperatorsByOrganizationIn(column, keys)) {
+            String key = "organization_code".equals(column)
+                    ? operator.organizationCode() : operator.organizationName();
+            if (key != null) {
+                members.computeIfAbsent(key, k -> new HashSet<>()).add(operator.id());
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Supabase requests made so far by the current inbound request, -1 outside of one
+     */
+    private static long supabaseRequests() {
+        OutboundCallLedger ledger = OutboundCallLedger.current();
+        if (ledger == null) {
+            return -1;
+        }
+        return ledger.snapshot().entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("supabase/"))
+                .mapToLong(entry -> entry.getValue().count())
+                .sum();
+    }
+
+    private static void logLoad(String listing, int rows, int leaders, long requestsBefore) {
+        long requests = requestsBefore < 0 ? -1 : supabaseRequests() - requestsBefore;
+        if (requests > 0) {
+            log.info("Loaded {} {} with {} leaders in {} requests", rows, listing, leaders, requests);
+        } else if (requests == 0) {
+            log.debug("Served {} {} with {} leaders from the operator directory cache", rows, listing, leaders);
+        } else {
+            log.info("Loaded {} {} with {} leaders", rows, listing, leaders);
+        }
+    }
+
+    private void putLeaderDetails(Map<String, Object> unit, String prefix, OperatorRecord leader) {
+        unit.put(prefix + "_name", leader != null ? leader.name() : null);
+        unit.put(prefix + "_role", leader != null ? leader.role() : null);
+        unit.put(prefix + "_join_date", leader != null ? leader.joinDate() : null);
+        unit.put(prefix + "_phone", leader != null ? leader.phoneNumber() : null);
+    }
+
+    private static void addIfPresent(Set<String> ids, String id) {
+        if (id != null && !id.isEmpty()) {
+            ids.add(id);
+        }
+    }
+}
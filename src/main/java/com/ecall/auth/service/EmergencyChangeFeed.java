@@ -0,0 +1,179 @@
+package com.ecall.auth.service;
+
+import com.ecall.auth.dto.EmergencyChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes emergency inserts / updates / deletes to subscribed dispatcher consoles over SSE,
+ * so consoles no longer poll GET /api/emergencies.
+ *
+ * Every event gets a resume token "{epoch}-{seq}" (also the SSE event id) and the last
+ * buffer-size events are kept in memory. A console that reconnects with its last token
+ * (Last-Event-ID header or ?resumeToken=) gets the missed events replayed; if they are no
+ * longer buffered, or the server restarted, it gets a "reset" event and reloads its list.
+ *
+ * Each console has its own bounded sink, so publishing never waits on a slow console.
+ * A console that falls buffer-size events behind is disconnected and resumes from its
+ * last token like any other reconnect.
+ */
+@Service
+@Slf4j
+public class EmergencyChangeFeed {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Sinks.Many<ServerSentEvent<Object>>> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<EmergencyChangeEvent> buffer = new ArrayDeque<>();
+    private final int bufferSize;
+    private final Duration streamTimeout;
+    private final Duration heartbeatInterval;
+
+    private long sequence;
+
+    public EmergencyChangeFeed(MeterRegistry meterRegistry,
+                               @Value("${emergency.feed.buffer-size:1000}") int bufferSize,
+                               @Value("${emergency.feed.emitter-timeout-minutes:30}") long emitterTimeoutMinutes,
+                               @Value("${emergency.feed.heartbeat-seconds:25}") long heartbeatSeconds) {
+        this.bufferSize = bufferSize;
+        this.streamTimeout = Duration.ofMinutes(emitterTimeoutMinutes);
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+
+        meterRegistry.gauge("emergency.feed.subscribers", subscribers, Set::size);
+        log.info("Emergency change feed initialized - epoch: {}, bufferSize: {}", epoch, bufferSize);
+    }
+
+    /**
+     * Open a stream for one console
+     * @param resumeToken Last token the console received (null for a fresh subscription)
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(String resumeToken) {
+        Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(bufferSize + 1).get());
+
+        // Replay and registration happen under the publish lock, so no event is missed or sent twice
+        synchronized (this) {
+            replay(sink, resumeToken);
+            subscribers.add(sink);
+        }
+        log.info("Console subscribed to emergency feed (resume: {}, subscribers: {})",
+                resumeToken, subscribers.size());
+
+        // Comment lines keep proxies from closing idle streams and reveal disconnected consoles
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+
+        return Flux.merge(sink.asFlux(), heartbeats)
+                .take(streamTimeout)
+                .doFinally(signal -> subscribers.remove(sink));
+    }
+
+    /**
+     * Publish a change made through EmergencyService
+     * @param type created | updated | deleted
+     * @param changes Columns written (copied, callers may keep mutating their map)
+     */
+    public void publish(String type, String emergencyId, Map<String, Object> changes) {
+        Map<String, Object> snapshot = changes != null ? new HashMap<>(changes) : Collections.emptyMap();
+        String at = Instant.now().toString();
+
+        synchronized (this) {
+            EmergencyChangeEvent event = new EmergencyChangeEvent(
+                    epoch + "-" + (++sequence), type, emergencyId, snapshot, at);
+
+            buffer.addLast(event);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+
+            ServerSentEvent<Object> sse = toSseEvent(event);
+            for (Sinks.Many<ServerSentEvent<Object>> sink : subscribers) {
+                Sinks.EmitResult result = sink.tryEmitNext(sse);
+                if (result.isFailure()) {
+                    subscribers.remove(sink);
+                    sink.tryEmitComplete();
+                    log.debug("Dropping console from emergency feed ({}), it resumes on reconnect", result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Send what the console missed, or tell it to reload when that cannot be reconstructed
+     */
+    private void replay(Sinks.Many<ServerSentEvent<Object>> sink, String resumeToken) {
+        long lastSeen = parseSequence(resumeToken);
+        long oldestBuffered = buffer.isEmpty() ? sequence + 1 : sequence - buffer.size() + 1;
+
+        if (resumeToken != null && (lastSeen < 0 || lastSeen + 1 < oldestBuffered || lastSeen > sequence)) {
+            sink.tryEmitNext(ServerSentEvent.builder()
+                    .id(currentToken())
+                    .event("reset")
+                    .data(Map.of("reason", "resume token expired, reload emergencies"))
+                    .build());
+            return;
+        }
+
+        if (resumeToken != null) {
+            for (EmergencyChangeEvent event : buffer) {
+                if (parseSequence(event.resumeToken()) > lastSeen) {
+                    sink.tryEmitNext(toSseEvent(event));
+                }
+            }
+        } else {
+            sink.tryEmitNext(ServerSentEvent.builder()
+                    .id(currentToken())
+                    .event("ready")
+                    .data(Map.of("resume_token", currentToken()))
+                    .build());
+        }
+    }
+
+    private static ServerSentEvent<Object> toSseEvent(EmergencyChangeEvent event) {
+        return ServerSentEvent.builder()
+                .id(event.resumeToken())
+                .event(event.type())
+                .data(event)
+                .build();
+    }
+
+    private String currentToken() {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Sequence number of a token from this server instance, -1 if it is from another epoch or malformed
+     */
+    private long parseSequence(String token) {
+        if (token == null) {
+            return -1;
+        }
+        int separator = token.lastIndexOf('-');
+        if (separator <= 0 || !token.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Sinks.Many::tryEmitComplete);
+        subscribers.clear();
+    }
+}
@@ -1,27 +1,62 @@
 package com.ecall.auth.service;
 
-import com.ecall.auth.config.SupabaseConfig;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecall.auth.dto.CallerRecord;
+import com.ecall.auth.dto.EmergencyPage;
+import com.ecall.auth.dto.EmergencyRecord;
+import com.ecall.auth.dto.OperatorRecord;
+import com.ecall.auth.repository.CallerRepository;
+import com.ecall.auth.repository.EmergencyRepository;
+import com.ecall.common.instrumentation.OutboundCallLedger;
+import com.ecall.common.resilience.LastGoodSnapshots;
+import com.ecall.common.resilience.Snapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmergencyService {
 
-    private final SupabaseConfig supabaseConfig;
-    private final RestTemplate restTemplate;
     private final WebClient webClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EmergencyRepository emergencyRepository;
+    private final CallerRepository callerRepository;
+    private final OperatorDirectory operatorDirectory;
+    private final EmergencyChangeFeed changeFeed;
+    private final RequestCoalescer requestCoalescer;
+    private final LastGoodSnapshots lastGoodSnapshots;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String EMBEDDED_SELECT = "*,caller:caller_id(*),"
+            + "operator:operator_id(id,operator_id,name,role,organization_code,organization_name,phone_number)";
+
+    // Cleared once PostgREST reports that the caller/operator relationships are not declared
+    private final AtomicBoolean embedSupported = new AtomicBoolean(true);
+
+    // Bumped on every write, so a coalesced read never spans a write it should see
+    private final AtomicLong writeGeneration = new AtomicLong();
+
+    /**
+     * Mark a successful write: publish it to the change feed and start a new read generation
+     */
+    private void recordChange(String type, String emergencyId, Map<String, Object> changes) {
+        writeGeneration.incrementAndGet();
+        changeFeed.publish(type, emergencyId, changes);
+    }
 
     /**
      * Insert a new emergency call record
@@ -46,23 +81,9 @@ public class EmergencyService {
             emergencyData.put("language", language);
             emergencyData.put("status", "in_progress"); // Initial status
 
-            // Send request to Supabase
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-            headers.set("Prefer", "return=representation");
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(emergencyData, headers);
-
-            String url = supabaseConfig.getApiUrl() + "/emergency";
+            emergencyRepository.insert(emergencyData).block();
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            recordChange("created", emergencyId, emergencyData);
 
             log.info("Emergency call inserted successfully: {} (caller: {}, operator: {})",
                     emergencyId, callerId, operatorId);
@@ -80,21 +101,9 @@ public class EmergencyService {
      */
     public void deleteEmergency(String emergencyId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            String url = supabaseConfig.getApiUrl() + "/emergency?id=eq." + emergencyId;
+            emergencyRepository.deleteById(emergencyId).block();
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.DELETE,
-                    entity,
-                    String.class
-            );
+            recordChange("deleted", emergencyId, null);
 
             log.info("Emergency call deleted successfully: {}", emergencyId);
 
@@ -123,6 +132,8 @@ public class EmergencyService {
                     .bodyToMono(String.class)
                     .block();
 
+            recordChange("updated", emergencyId, updates);
+
             log.info("Emergency call updated successfully: {}", emergencyId);
 
         } catch (Exception e) {
@@ -239,23 +250,9 @@ public class EmergencyService {
                 emergencyData.put("risk_level_reason", riskLevelReason);
             }
 
-            // Send request to Supabase
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-            headers.set("Prefer", "return=representation");
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(emergencyData, headers);
-
-            String url = supabaseConfig.getApiUrl() + "/emergency";
+            emergencyRepository.insert(emergencyData).block();
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            recordChange("created", emergencyId, emergencyData);
 
             log.info("Emergency call inserted (complete): {} (caller: {}, operator: {})",
                     emergencyId, callerId, operatorId);
@@ -367,23 +364,9 @@ public class EmergencyService {
                 emergencyData.put("audio_id", mediaAssetId);
             }
 
-            // Send request to Supabase
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-            headers.set("Prefer", "return=representation");
+            emergencyRepository.insert(emergencyData).block();
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(emergencyData, headers);
-
-            String url = supabaseConfig.getApiUrl() + "/emergency";
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            recordChange("created", emergencyId, emergencyData);
 
             log.info("Emergency call inserted with details: {} (caller: {}, operator: {}, type: {}, location: {})",
                     emergencyId, callerId, operatorId, incidentType, callerLocation);
@@ -396,269 +379,294 @@ public class EmergencyService {
     }
 
     /**
-     * Get all emergencies with caller and operator details
+     * Get one page of emergency history, newest first, with caller and operator embedded.
+     * Keyset pagination on (created_at, id): every page is an index range scan, so the
+     * cost does not grow with the size of the table.
+     * @param cursor next_cursor of the previous page (null for the first page)
+     * @param limit Page size (1..MAX_PAGE_SIZE)
+     * @param incidentType Filter on emergency.type
+     * @param riskLevel Filter on risk_level
+     * @param operatorId Filter on operator_id
+     * @param from Inclusive lower bound on created_at (ISO-8601)
+     * @param to Exclusive upper bound on created_at (ISO-8601)
      */
-    public List<Map<String, Object>> getAllEmergencies() {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            // Get all emergencies
-            String emergencyUrl = supabaseConfig.getApiUrl() + "/emergency?order=call_started_at.desc";
-            ResponseEntity<String> emergencyResponse = restTemplate.exchange(
-                    emergencyUrl,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            if (emergencyResponse.getStatusCode() == HttpStatus.OK && emergencyResponse.getBody() != null) {
-                List<Map<String, Object>> emergencies = objectMapper.readValue(
-                        emergencyResponse.getBody(),
-                        new TypeReference<List<Map<String, Object>>>() {}
-                );
-
-                // Get all callers and operators
-                Map<String, Map<String, Object>> callersMap = getAllCallers();
-                Map<String, Map<String, Object>> operatorsMap = getAllOperators();
-
-                // Manually join the data
-                for (Map<String, Object> emergency : emergencies) {
-                    String callerId = (String) emergency.get("caller_id");
-                    String operatorId = (String) emergency.get("operator_id");
-
-                    if (callerId != null && callersMap.containsKey(callerId)) {
-                        emergency.put("caller", callersMap.get(callerId));
-                    }
+    public Mono<EmergencyPage> getEmergencyPage(String cursor, int limit, String incidentType, Integer riskLevel,
+                                                String operatorId, String from, String to) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
 
-                    if (operatorId != null && operatorsMap.containsKey(operatorId)) {
-                        emergency.put("operator", operatorsMap.get(operatorId));
-                    }
-                }
+        List<String> filters = new ArrayList<>();
+        if (incidentType != null && !incidentType.isEmpty()) {
+            filters.add("type=eq." + requireSafe(incidentType));
+        }
+        if (riskLevel != null) {
+            filters.add("risk_level=eq." + riskLevel);
+        }
+        if (operatorId != null && !operatorId.isEmpty()) {
+            filters.add("operator_id=eq." + requireSafe(operatorId));
+        }
+        if (from != null && !from.isEmpty()) {
+            filters.add("created_at=gte." + normalizeTimestamp(requireSafe(from)));
+        }
+        if (to != null && !to.isEmpty()) {
+            filters.add("created_at=lt." + normalizeTimestamp(requireSafe(to)));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            filters.add("or=(created_at.lt.\"" + position[0] + "\",and(created_at.eq.\"" + position[0]
+                    + "\",id.lt.\"" + position[1] + "\"))");
+        }
+        String filterQuery = String.join("&", filters);
+
+        // Fetch one extra row to know whether another page exists
+        return fetchPageWithParticipants(filterQuery, pageSize + 1).map(rows -> {
+            boolean hasMore = rows.size() > pageSize;
+            List<EmergencyRecord> items = hasMore ? rows.subList(0, pageSize) : rows;
 
-                log.info("Retrieved {} emergency records", emergencies.size());
-                return emergencies;
+            String nextCursor = null;
+            if (hasMore) {
+                EmergencyRecord last = items.get(items.size() - 1);
+                nextCursor = encodeCursor(last.createdAt(), last.id());
             }
 
-            return new ArrayList<>();
+            log.info("Retrieved emergency page: {} rows, hasMore={}", items.size(), hasMore);
+            return new EmergencyPage(items, nextCursor, hasMore);
+        });
+    }
 
-        } catch (Exception e) {
-            log.error("Error fetching emergencies: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to fetch emergencies: " + e.getMessage(), e);
+    /**
+     * Let PostgREST embed caller / operator through the emergency foreign keys.
+     * If the relationships are not declared (PGRST200), fall back to two id=in.(...)
+     * lookups bounded by the page size and stop trying to embed.
+     */
+    private Mono<List<EmergencyRecord>> fetchPageWithParticipants(String filterQuery, int limit) {
+        Mono<List<EmergencyRecord>> joinedPage = Mono.defer(() -> emergencyRepository.findPage("*", filterQuery, limit)
+                .collectList()
+                .flatMap(this::joinParticipants));
+
+        if (!embedSupported.get()) {
+            return joinedPage;
         }
+        return emergencyRepository.findPage(EMBEDDED_SELECT, filterQuery, limit)
+                .collectList()
+                .onErrorResume(EmergencyService::isMissingRelationship, e -> {
+                    log.warn("emergency -> caller/operator relationships not found, joining pages client-side");
+                    embedSupported.set(false);
+                    return joinedPage;
+                });
     }
 
     /**
-     * Get all callers as a map (id -> caller data)
+     * Attach callers (one id=in.(...) request) and operators (directory) to a page of rows
      */
-    private Map<String, Map<String, Object>> getAllCallers() {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            String url = supabaseConfig.getApiUrl() + "/caller";
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                List<Map<String, Object>> callers = objectMapper.readValue(
-                        response.getBody(),
-                        new TypeReference<List<Map<String, Object>>>() {}
-                );
-
-                Map<String, Map<String, Object>> callersMap = new HashMap<>();
-                for (Map<String, Object> caller : callers) {
-                    callersMap.put((String) caller.get("id"), caller);
-                }
-                return callersMap;
+    private Mono<List<EmergencyRecord>> joinParticipants(List<EmergencyRecord> rows) {
+        Set<String> callerIds = new HashSet<>();
+        Set<String> operatorIds = new HashSet<>();
+        for (EmergencyRecord row : rows) {
+            if (row.callerId() != null) {
+                callerIds.add(row.callerId());
+            }
+            if (row.operatorId() != null) {
+                operatorIds.add(row.operatorId());
             }
-
-            return new HashMap<>();
-        } catch (Exception e) {
-            log.error("Error fetching callers: {}", e.getMessage());
-            return new HashMap<>();
         }
+
+        Mono<Map<String, CallerRecord>> callers = callerRepository.findByIds(callerIds)
+                .collectMap(CallerRecord::id);
+        Mono<Map<String, OperatorRecord>> operators = fromDirectory(() -> operatorDirectory.findOperators(operatorIds));
+
+        return Mono.zip(callers, operators).map(participants -> {
+            List<EmergencyRecord> joined = new ArrayList<>(rows.size());
+            for (EmergencyRecord row : rows) {
+                joined.add(row.withParticipants(
+                        row.callerId() != null ? participants.getT1().get(row.callerId()) : null,
+                        row.operatorId() != null ? participants.getT2().get(row.operatorId()) : null));
+            }
+            return joined;
+        });
     }
 
     /**
-     * Get all operators as a map (id -> operator data)
+     * Directory reads are served from memory but load misses with a blocking call,
+     * so they run on the bounded elastic scheduler rather than the event loop
      */
-    private Map<String, Map<String, Object>> getAllOperators() {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            String url = supabaseConfig.getApiUrl() + "/operator";
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                List<Map<String, Object>> operators = objectMapper.readValue(
-                        response.getBody(),
-                        new TypeReference<List<Map<String, Object>>>() {}
-                );
-
-                Map<String, Map<String, Object>> operatorsMap = new HashMap<>();
-                for (Map<String, Object> operator : operators) {
-                    operatorsMap.put((String) operator.get("id"), operator);
-                }
-                return operatorsMap;
+    private static <V> Mono<V> fromDirectory(Callable<V> read) {
+        return Mono.deferContextual(context -> {
+                    OutboundCallLedger ledger = OutboundCallLedger.from(context);
+                    return Mono.fromCallable(() -> OutboundCallLedger.callWith(ledger, read));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static boolean isMissingRelationship(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof WebClientResponseException http
+                    && http.getResponseBodyAsString().contains("PGRST200")) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            return new HashMap<>();
-        } catch (Exception e) {
-            log.error("Error fetching operators: {}", e.getMessage());
-            return new HashMap<>();
+    private static String encodeCursor(String createdAt, String id) {
+        String raw = normalizeTimestamp(createdAt) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new String[] {
+                    requireSafe(raw.substring(0, separator)), requireSafe(raw.substring(separator + 1))
+            };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
         }
     }
 
     /**
-     * Get emergency by ID with caller and operator details
+     * Rewrite "+hh:mm" offsets to UTC "Z" so the value survives as a query parameter
+     * ('+' would be decoded as a space)
      */
-    public Map<String, Object> getEmergencyById(String emergencyId) {
+    private static String normalizeTimestamp(String timestamp) {
+        if (timestamp == null || timestamp.indexOf('+') < 0) {
+            return timestamp;
+        }
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            // Get emergency by ID
-            String url = supabaseConfig.getApiUrl() + "/emergency?id=eq." + emergencyId;
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                List<Map<String, Object>> emergencies = objectMapper.readValue(
-                        response.getBody(),
-                        new TypeReference<List<Map<String, Object>>>() {}
-                );
-
-                if (!emergencies.isEmpty()) {
-                    Map<String, Object> emergency = emergencies.get(0);
-
-                    // Get caller and operator details
-                    String callerId = (String) emergency.get("caller_id");
-                    String operatorId = (String) emergency.get("operator_id");
-
-                    if (callerId != null) {
-                        emergency.put("caller", getCallerById(callerId));
-                    }
+            return OffsetDateTime.parse(timestamp).withOffsetSameInstant(ZoneOffset.UTC).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid timestamp: " + timestamp, e);
+        }
+    }
+
+    /**
+     * Reject values that would break out of a PostgREST query parameter
+     */
+    private static String requireSafe(String value) {
+        for (char c : value.toCharArray()) {
+            if (c == '&' || c == '#' || c == '"' || c == '\\' || c == '{' || c == '}') {
+                throw new IllegalArgumentException("Invalid filter value: " + value);
+            }
+        }
+        return value;
+    }
 
-                    if (operatorId != null) {
-                        emergency.put("operator", getOperatorById(operatorId));
+    /**
+     * Get all emergencies with caller and operator details, or the last good list while Supabase is unhealthy
+     */
+    public Mono<Snapshot<List<EmergencyRecord>>> getAllEmergencies() {
+        // Consoles refreshing at the same moment share one fan-out
+        return lastGoodSnapshots.readMono("emergencies", "all",
+                () -> requestCoalescer.coalesceMono("emergencies", "emergencies@" + writeGeneration.get(),
+                        this::loadAllEmergencies));
+    }
+
+    private Mono<List<EmergencyRecord>> loadAllEmergencies() {
+        // The three reads are independent and run concurrently
+        return Mono.zip(emergencyRepository.findAll().collectList(), getAllCallers(), getAllOperators())
+                .map(result -> {
+                    Map<String, CallerRecord> callersMap = result.getT2();
+                    Map<String, OperatorRecord> operatorsMap = result.getT3();
+
+                    // Manually join the data
+                    List<EmergencyRecord> joined = new ArrayList<>(result.getT1().size());
+                    for (EmergencyRecord emergency : result.getT1()) {
+                        CallerRecord caller = emergency.callerId() != null ? callersMap.get(emergency.callerId()) : null;
+                        OperatorRecord operator = emergency.operatorId() != null ? operatorsMap.get(emergency.operatorId()) : null;
+                        joined.add(emergency.withParticipants(caller, operator));
                     }
 
-                    log.info("Retrieved emergency record: {}", emergencyId);
-                    return emergency;
-                }
+                    log.info("Retrieved {} emergency records", joined.size());
+                    return joined;
+                })
+                .onErrorMap(e -> {
+                    log.error("Error fetching emergencies: {}", e.getMessage(), e);
+                    return new RuntimeException("Failed to fetch emergencies: " + e.getMessage(), e);
+                });
+    }
+
+    /**
+     * Get all callers as a map (id -> caller)
+     */
+    private Mono<Map<String, CallerRecord>> getAllCallers() {
+        return callerRepository.findAll()
+                .collectMap(CallerRecord::id)
+                .onErrorResume(e -> {
+                    log.error("Error fetching callers: {}", e.getMessage());
+                    return Mono.just(new HashMap<>());
+                });
+    }
+
+    /**
+     * Get all operators as a map (id -> operator)
+     */
+    private Mono<Map<String, OperatorRecord>> getAllOperators() {
+        return fromDirectory(() -> {
+            Map<String, OperatorRecord> operatorsMap = new HashMap<>();
+            for (OperatorRecord operator : operatorDirectory.findAllOperators()) {
+                operatorsMap.put(operator.id(), operator);
             }
+            return operatorsMap;
+        }).onErrorResume(e -> {
+            log.error("Error fetching operators: {}", e.getMessage());
+            return Mono.just(new HashMap<>());
+        });
+    }
 
-            return null;
+    /**
+     * Get emergency by ID with caller and operator details (empty if not found),
+     * or the last good record while Supabase is unhealthy
+     */
+    public Mono<Snapshot<EmergencyRecord>> getEmergencyById(String emergencyId) {
+        return lastGoodSnapshots.readMono("emergency", emergencyId, () -> loadEmergencyById(emergencyId));
+    }
 
-        } catch (Exception e) {
-            log.error("Error fetching emergency by ID: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to fetch emergency: " + e.getMessage(), e);
-        }
+    private Mono<EmergencyRecord> loadEmergencyById(String emergencyId) {
+        return emergencyRepository.findById(emergencyId)
+                .flatMap(emergency -> Mono.zip(
+                                getCallerById(emergency.callerId()),
+                                getOperatorById(emergency.operatorId()))
+                        .map(participants -> {
+                            log.info("Retrieved emergency record: {}", emergencyId);
+                            return emergency.withParticipants(
+                                    participants.getT1().orElse(null), participants.getT2().orElse(null));
+                        }))
+                .onErrorMap(e -> {
+                    log.error("Error fetching emergency by ID: {}", e.getMessage(), e);
+                    return new RuntimeException("Failed to fetch emergency: " + e.getMessage(), e);
+                });
     }
 
     /**
      * Get caller by ID
      */
-    private Map<String, Object> getCallerById(String callerId) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            String url = supabaseConfig.getApiUrl() + "/caller?id=eq." + callerId;
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                List<Map<String, Object>> callers = objectMapper.readValue(
-                        response.getBody(),
-                        new TypeReference<List<Map<String, Object>>>() {}
-                );
-                if (!callers.isEmpty()) {
-                    return callers.get(0);
-                }
-            }
-
-            return null;
-        } catch (Exception e) {
-            log.error("Error fetching caller {}: {}", callerId, e.getMessage());
-            return null;
+    private Mono<Optional<CallerRecord>> getCallerById(String callerId) {
+        if (callerId == null) {
+            return Mono.just(Optional.empty());
         }
+        return callerRepository.findById(callerId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    log.error("Error fetching caller {}: {}", callerId, e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
     }
 
     /**
      * Get operator by ID
      */
-    private Map<String, Object> getOperatorById(String operatorId) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                List<Map<String, Object>> operators = objectMapper.readValue(
-                        response.getBody(),
-                        new TypeReference<List<Map<String, Object>>>() {}
-                );
-                if (!operators.isEmpty()) {
-                    return operators.get(0);
-                }
-            }
-
-            return null;
-        } catch (Exception e) {
-            log.error("Error fetching operator {}: {}", operatorId, e.getMessage());
-            return null;
+    private Mono<Optional<OperatorRecord>> getOperatorById(String operatorId) {
+        if (operatorId == null) {
+            return Mono.just(Optional.empty());
         }
+        return fromDirectory(() -> Optional.ofNullable(operatorDirectory.findOperator(operatorId)))
+                .onErrorResume(e -> {
+                    log.error("Error fetching operator {}: {}", operatorId, e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
     }
 }
@@ -0,0 +1,243 @@
+package com.ecall.auth.service;
+
+import com.ecall.auth.dto.TriageResult;
+import com.ecall.common.resilience.AiCallExecutor;
+import com.ecall.common.resilience.DependencyUnavailableException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Risk level, incident type and location of a transcript in one OpenAI request.
+ *
+ * The transcript and the combined guidelines are sent once, and the answer is constrained
+ * by a strict JSON schema (structured outputs) instead of three free-text prompts. The
+ * system prompt is constant, so it is also eligible for OpenAI prompt caching.
+ * If the request fails or its answer does not validate, the individual risk, incident type
+ * and location calls are made instead. When OpenAI is unavailable altogether (circuit open,
+ * bulkhead full) the keyword-based {@link LocalTriageClassifier} answers instead.
+ * Unified results are cached by {@link LlmResultCache}; a fallback result is not cached
+ * as a whole, only its individual calls are.
+ * Outcomes are counted as openai.triage.calls{outcome=unified|cached|fallback|local};
+ * cached means no request was made (result cache hit, or joined an identical in-flight call).
+ */
+@Service
+@Slf4j
+public class EmergencyTriageService {
+
+    /**
+     * Cache key version of the prompt (the configured model is appended); bump when the
+     * prompt, the schema or the shared guidelines change
+     */
+    static final String PROMPT_VERSION = "triage-v1";
+
+    private static final String SYSTEM_PROMPT =
+            "You are an emergency call triage expert. From one emergency call transcript, determine:\n" +
+            "1. risk_level: the risk level (위험도) on a scale of 1-5, with risk_reason (brief explanation in English, 1-2 sentences)\n" +
+            "2. incident_type: exactly ONE incident category\n" +
+            "3. location: the location of the incident (address, landmark, or area name) exactly as mentioned; " +
+            "if multiple locations are mentioned use the most specific one, or null if no clear location is given\n\n" +
+            RiskLevelAssessmentService.SEVERITY_GUIDELINES + "\n" +
+            IncidentTypeClassificationService.CATEGORY_GUIDELINES;
+
+    private static final Map<String, Object> RESPONSE_FORMAT = Map.of(
+            "type", "json_schema",
+            "json_schema", Map.of(
+                    "name", "emergency_triage",
+                    "strict", true,
+                    "schema", triageSchema()
+            )
+    );
+
+    private final RestTemplate restTemplate;
+    private final RiskLevelAssessmentService riskLevelAssessmentService;
+    private final IncidentTypeClassificationService incidentTypeClassificationService;
+    private final LocationExtractionService locationExtractionService;
+    private final LlmResultCache llmResultCache;
+    private final LocalTriageClassifier localTriageClassifier;
+    private final LlmDispatchScheduler llmDispatchScheduler;
+    private final AiCallExecutor aiCallExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String openaiApiKey;
+    private final String model;
+    private final int maxTokens;
+
+    public EmergencyTriageService(@Qualifier("openAiRestTemplate") RestTemplate restTemplate,
+                                  RiskLevelAssessmentService riskLevelAssessmentService,
+                                  IncidentTypeClassificationService incidentTypeClassificationService,
+                                  @Qualifier("authLocationExtractionService") LocationExtractionService locationExtractionService,
+                                  LlmResultCache llmResultCache,
+                                  LocalTriageClassifier localTriageClassifier,
+                                  LlmDispatchScheduler llmDispatchScheduler,
+                                  AiCallExecutor aiCallExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${openai.api.key:}") String openaiApiKey,
+                                  @Value("${openai.triage.model:gpt-4o-mini}") String model,
+                                  @Value("${openai.triage.max-tokens:300}") int maxTokens) {
+        this.restTemplate = restTemplate;
+        this.riskLevelAssessmentService = riskLevelAssessmentService;
+        this.incidentTypeClassificationService = incidentTypeClassificationService;
+        this.locationExtractionService = locationExtractionService;
+        this.llmResultCache = llmResultCache;
+        this.localTriageClassifier = localTriageClassifier;
+        this.llmDispatchScheduler = llmDispatchScheduler;
+        this.aiCallExecutor = aiCallExecutor;
+        this.meterRegistry = meterRegistry;
+        this.openaiApiKey = openaiApiKey;
+        this.model = model;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * Triage an emergency call transcript
+     * @param transcript Full transcript of the emergency call
+     */
+    public TriageResult triage(String transcript) {
+        if (transcript == null || transcript.trim().isEmpty()) {
+            return new TriageResult(3, "No transcript available for assessment", null, null, "fallback");
+        }
+
+        if (openaiApiKey != null && !openaiApiKey.isEmpty()) {
+            AtomicBoolean requested = new AtomicBoolean();
+            try {
+                TriageResult result = llmResultCache.get("triage", PROMPT_VERSION + "/" + model, transcript,
+                        TriageResult.class, () -> {
+                            requested.set(true);
+                            return triageWithAI(transcript);
+                        });
+                count(requested.get() ? "unified" : "cached");
+                log.info("Triage - Level: {}, Type: {}, Location: {}, Reason: {}",
+                        result.riskLevel(), result.incidentType(), result.location(), result.reason());
+                return result;
+            } catch (Exception e) {
+                if (DependencyUnavailableException.isCause(e)) {
+                    // The individual calls would be refused too
+                    log.warn("OpenAI unavailable ({}), using local keyword triage", e.getMessage());
+                    count("local");
+                    return localTriageClassifier.classify(transcript).toTriageResult();
+                }
+                log.warn("Unified triage failed ({}), falling back to individual calls", e.getMessage());
+            }
+        }
+
+        count("fallback");
+        return triageIndividually(transcript);
+    }
+
+    private TriageResult triageWithAI(String transcript) {
+        try {
+            return requestTriage(transcript);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to triage transcript: " + e.getMessage(), e);
+        }
+    }
+
+    private TriageResult requestTriage(String transcript) throws Exception {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("messages", List.of(
+                Map.of("role", "system", "content", SYSTEM_PROMPT),
+                Map.of("role", "user", "content", "Triage this emergency call transcript:\n\n" + transcript)
+        ));
+        requestBody.put("response_format", RESPONSE_FORMAT);
+        requestBody.put("temperature", 0.2);
+        requestBody.put("max_tokens", maxTokens);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(openaiApiKey);
+
+        ResponseEntity<String> response = aiCallExecutor.hedged("openai", "triage",
+                llmDispatchScheduler.admission(LlmDispatchScheduler.estimateTokens(maxTokens, SYSTEM_PROMPT, transcript)),
+                () -> restTemplate.exchange(
+                        "https://api.openai.com/v1/chat/completions",
+                        HttpMethod.POST,
+                        new HttpEntity<>(requestBody, headers),
+                        String.class
+                ));
+
+        JsonNode choice = objectMapper.readTree(response.getBody()).path("choices").path(0);
+        JsonNode message = choice.path("message");
+        if (!message.path("refusal").isMissingNode() && !message.path("refusal").isNull()) {
+            throw new IllegalStateException("Model refused: " + message.path("refusal").asText());
+        }
+        if (!"stop".equals(choice.path("finish_reason").asText())) {
+            throw new IllegalStateException("Incomplete answer (finish_reason " + choice.path("finish_reason").asText() + ")");
+        }
+        return parseTriage(message.path("content").asText());
+    }
+
+    private TriageResult parseTriage(String content) throws Exception {
+        JsonNode json = objectMapper.readTree(content);
+
+        int level = json.path("risk_level").asInt(0);
+        if (level < 1 || level > 5) {
+            throw new IllegalStateException("Invalid risk level: " + json.path("risk_level"));
+        }
+        String reason = json.path("risk_reason").asText("");
+        if (reason.isBlank()) {
+            throw new IllegalStateException("Missing risk reason");
+        }
+        String incidentType = json.path("incident_type").asText("").toLowerCase();
+        if (!IncidentTypeClassificationService.INCIDENT_TYPES.contains(incidentType)) {
+            throw new IllegalStateException("Invalid incident type: " + incidentType);
+        }
+        JsonNode locationNode = json.path("location");
+        String location = locationNode.isTextual() && !locationNode.asText().isBlank()
+                && !"NONE".equalsIgnoreCase(locationNode.asText().trim())
+                ? locationNode.asText().trim() : null;
+
+        return new TriageResult(level, reason, incidentType, location, "unified");
+    }
+
+    private TriageResult triageIndividually(String transcript) {
+        Map<String, Object> risk = riskLevelAssessmentService.assessRiskLevel(transcript);
+        String incidentType = incidentTypeClassificationService.classifyIncidentType(transcript);
+        if (incidentType == null) {
+            incidentType = localTriageClassifier.classify(transcript).incidentType();
+        }
+        String location = locationExtractionService.extractLocationText(transcript);
+        return new TriageResult((Integer) risk.get("level"), (String) risk.get("reason"),
+                incidentType, location, "fallback");
+    }
+
+    private void count(String outcome) {
+        Counter.builder("openai.triage.calls")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Strict-mode schema: every property required, no extra properties, nullable location
+     */
+    private static Map<String, Object> triageSchema() {
+        // Reason before level so the model states its evidence before committing to a level
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("risk_reason", Map.of("type", "string"));
+        properties.put("risk_level", Map.of("type", "integer", "enum", List.of(1, 2, 3, 4, 5)));
+        properties.put("incident_type", Map.of("type", "string", "enum", IncidentTypeClassificationService.INCIDENT_TYPES));
+        properties.put("location", Map.of("type", List.of("string", "null")));
+
+        return Map.of(
+                "type", "object",
+                "properties", properties,
+                "required", List.of("risk_reason", "risk_level", "incident_type", "location"),
+                "additionalProperties", false
+        );
+    }
+}
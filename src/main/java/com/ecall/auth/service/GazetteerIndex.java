@@ -0,0 +1,270 @@
+package com.ecall.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline gazetteer of 시/도, 시/군/구, 읍/면/동/리 and road names with their administrative
+ * codes, for location candidates without any remote call.
+ *
+ * Loaded at startup from a file in the format of the 법정동코드 전체자료
+ * (code, full name, status; tab separated, abolished entries skipped); road names carry a
+ * 12-digit 도로명코드 or the code of their 시/군/구. All place names (and the short forms of
+ * the provinces, e.g. 서울) are compiled into one {@link KeywordAutomaton}, so a transcript
+ * is scanned in a single pass.
+ *
+ * Candidates are ranked by how specific they are and by how many of their parent areas the
+ * text also names ("강남구 역삼동" beats a bare "역삼동"); a name shared by several places
+ * (중구) only ranks high with its parent. A road or 동 followed by a number keeps it as the
+ * building / lot number.
+ */
+@Service
+@Slf4j
+public class GazetteerIndex {
+
+    public enum Level {
+        SIDO(1), SIGUNGU(2), EUPMYEONDONG(3), RI(3), ROAD(4);
+
+        private final int weight;
+
+        Level(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A place of the gazetteer
+     * @param name Full name, e.g. "서울특별시 강남구 역삼동"
+     */
+    private record Place(String code, String name, Level level) {
+    }
+
+    /**
+     * A place named in a text
+     * @param code Administrative code (법정동코드, or 도로명코드 / 시군구 code for roads)
+     * @param name Full name of the place, e.g. "서울특별시 강남구 역삼동"
+     * @param matched The name as it appears in the text
+     * @param number Building or lot number following a road or 동 name, or null
+     * @param confident Specific enough to use without asking the LLM: a 동 / road named together
+     *                  with its 시/군/구, or a road with a building number
+     */
+    public record Candidate(String code, String name, Level level, String matched, String number,
+                            int score, boolean confident) {
+
+        /**
+         * The candidate as an address for geocoding, e.g. "서울특별시 강남구 테헤란로 152"
+         */
+        public String address() {
+            return number != null ? name + " " + number : name;
+        }
+    }
+
+    private record Mention(int keyword, int start, int end) {
+    }
+
+    private static final Pattern NUMBER = Pattern.compile("^\\s*(\\d+(?:-\\d+)?)(?:번지)?");
+
+    private final List<List<Place>> placesByKeyword;
+    private final Map<String, Place> areasByCode;
+    private final KeywordAutomaton automaton;
+
+    public GazetteerIndex(@Value("${location.gazetteer.path:classpath:gazetteer/korea-gazetteer.tsv}") Resource source,
+                          @Value("${location.gazetteer.charset:UTF-8}") String charset) {
+        Map<String, List<Place>> byName = new LinkedHashMap<>();
+        Map<String, Place> areas = new HashMap<>();
+        int abolished = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(source.getInputStream(), Charset.forName(charset)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t");
+                // Skips the header row
+                if (columns.length < 2 || columns[0].isEmpty() || !Character.isDigit(columns[0].charAt(0))) {
+                    continue;
+                }
+                if (columns.length > 2 && columns[2].trim().equals("폐지")) {
+                    abolished++;
+                    continue;
+                }
+                String code = columns[0].trim();
+                String fullName = columns[1].trim();
+                String name = fullName.substring(fullName.lastIndexOf(' ') + 1);
+                Place place = new Place(code, fullName, level(code, name));
+                if (place.level() != Level.ROAD) {
+                    areas.put(code, place);
+                }
+
+                byName.computeIfAbsent(name, k -> new ArrayList<>()).add(place);
+                if (place.level() == Level.SIDO) {
+                    for (String alias : KoreanAddressNormalizer.provinceNames(name)) {
+                        if (!alias.equals(name)) {
+                            byName.computeIfAbsent(alias, k -> new ArrayList<>()).add(place);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load gazetteer from " + source + ": " + e.getMessage(), e);
+        }
+
+        List<String> keywords = List.copyOf(byName.keySet());
+        this.placesByKeyword = byName.values().stream().map(List::copyOf).toList();
+        this.areasByCode = Map.copyOf(areas);
+        this.automaton = new KeywordAutomaton(keywords);
+
+        log.info("Gazetteer loaded from {} - {} names, {} areas ({} abolished skipped)",
+                source.getDescription(), keywords.size(), areas.size(), abolished);
+    }
+
+    /**
+     * Level from the 10-digit 법정동코드 (시도 2, 시군구 3, 읍면동 3, 리 2 digits); names ending
+     * in 로 / 길 with a 도로명코드 or a 시/군/구 code are roads
+     */
+    private static Level level(String code, String name) {
+        boolean roadName = name.endsWith("로") || name.endsWith("길");
+        if (code.length() != 10) {
+            return roadName ? Level.ROAD : Level.EUPMYEONDONG;
+        }
+        if (code.endsWith("00000000")) {
+            return Level.SIDO;
+        }
+        if (code.endsWith("00000")) {
+            return roadName ? Level.ROAD : Level.SIGUNGU;
+        }
+        return code.endsWith("00") ? Level.EUPMYEONDONG : Level.RI;
+    }
+
+    /**
+     * Places named in a text, best first
+     * @param limit Maximum number of candidates
+     */
+    public List<Candidate> candidates(String text, int limit) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        // Folds romanized names and province spellings (Gangnam-gu → 강남구)
+        String normalized = KoreanAddressNormalizer.normalize(text);
+        List<Mention> mentions = mentions(normalized);
+        if (mentions.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> mentionedAreas = new HashSet<>();
+        for (Mention mention : mentions) {
+            for (Place place : placesByKeyword.get(mention.keyword())) {
+                if (place.level() != Level.ROAD) {
+                    mentionedAreas.add(place.code());
+                }
+            }
+        }
+
+        Map<String, Candidate> best = new LinkedHashMap<>();
+        Set<String> supportedAncestors = new HashSet<>();
+        for (Mention mention : mentions) {
+            List<Place> places = placesByKeyword.get(mention.keyword());
+            String number = null;
+            Matcher numberMatcher = NUMBER.matcher(normalized).region(mention.end(), normalized.length());
+            if (numberMatcher.lookingAt()) {
+                number = numberMatcher.group(1);
+            }
+            for (Place place : places) {
+                List<String> ancestors = ancestors(place);
+                int support = 0;
+                for (String ancestor : ancestors) {
+                    if (mentionedAreas.contains(ancestor)) {
+                        support++;
+                        supportedAncestors.add(ancestor);
+                    }
+                }
+                boolean numbered = number != null && place.level().compareTo(Level.EUPMYEONDONG) >= 0;
+                int score = place.level().weight + 2 * support + (numbered ? 1 : 0)
+                        - (support == 0 && places.size() > 1 ? 2 : 0);
+                boolean withDistrict = ancestors.stream().anyMatch(ancestor ->
+                        mentionedAreas.contains(ancestor) && areasByCode.get(ancestor).level() == Level.SIGUNGU);
+                boolean confident = place.level().compareTo(Level.EUPMYEONDONG) >= 0
+                        && (withDistrict || place.level() == Level.ROAD && numbered && places.size() == 1);
+
+                String key = place.code() + " " + place.name();
+                Candidate candidate = new Candidate(place.code(), place.name(), place.level(),
+                        normalized.substring(mention.start(), mention.end()), numbered ? number : null,
+                        score, confident);
+                best.merge(key, candidate, (a, b) -> b.score() > a.score() ? b : a);
+            }
+        }
+
+        // A named area only matters on its own when nothing more specific inside it was named
+        return best.values().stream()
+                .filter(candidate -> candidate.level() == Level.ROAD || !supportedAncestors.contains(candidate.code()))
+                .sorted(Comparator.comparingInt(Candidate::score).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Codes of the gazetteer areas containing a place (시/도, 시/군/구, 읍/면/동)
+     */
+    private List<String> ancestors(Place place) {
+        String code = place.code();
+        if (code.length() < 10) {
+            return List.of();
+        }
+        List<String> candidates = new ArrayList<>(List.of(code.substring(0, 2) + "00000000", code.substring(0, 5) + "00000"));
+        if (place.level() != Level.ROAD) {
+            // Road numbers are not 읍/면/동 codes
+            candidates.add(code.substring(0, 8) + "00");
+        }
+        List<String> ancestors = new ArrayList<>(3);
+        for (String ancestor : candidates) {
+            Place area = areasByCode.get(ancestor);
+            if (area != null && area.level().compareTo(place.level()) < 0 && !ancestors.contains(ancestor)) {
+                ancestors.add(ancestor);
+            }
+        }
+        return ancestors;
+    }
+
+    /**
+     * Place names in the text that stand on their own: starting a word (or right after another
+     * place name, as in 강남구역삼동) and not part of a longer name (서울 in 서울특별시)
+     */
+    private List<Mention> mentions(String text) {
+        List<Mention> raw = new ArrayList<>();
+        automaton.scan(text, (keyword, start, end) -> raw.add(new Mention(keyword, start, end)));
+        raw.sort(Comparator.comparingInt(Mention::start).thenComparing(Comparator.comparingInt(Mention::end).reversed()));
+
+        Set<Integer> ends = new HashSet<>();
+        List<Mention> mentions = new ArrayList<>();
+        int coveredUntil = -1;
+        for (Mention mention : raw) {
+            if (mention.end() <= coveredUntil) {
+                continue;
+            }
+            int start = mention.start();
+            if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1)) && !ends.contains(start)) {
+                continue;
+            }
+            mentions.add(mention);
+            ends.add(mention.end());
+            coveredUntil = mention.end();
+        }
+        return mentions;
+    }
+}
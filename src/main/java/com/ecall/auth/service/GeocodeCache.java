@@ -0,0 +1,361 @@
+package com.ecall.auth.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Geocoding results (Kakao address / keyword search) by normalized address, so the landmarks
+ * and roads callers name over and over are resolved without a Kakao round trip.
+ *
+ * Keys are {kind}:{address normalized by {@link KoreanAddressNormalizer}}. Entries expire
+ * geocode.cache.ttl-hours after they were written (also across restarts) and the cache is
+ * bounded to geocode.cache.max-size entries. Lookups that found nothing are not cached.
+ * Concurrent misses for the same key share one lookup.
+ *
+ * With geocode.cache.store-path set, every new entry is also appended to a memory-mapped
+ * segment file of geocode.cache.store-capacity-mb, which is read back on startup. Each record
+ * is [length][written at][JSON]; the length is written last, so a record cut short by a crash
+ * ends the log instead of corrupting it, and a record that cannot be read back is cleared and
+ * ends the log as well. When the segment is full the live entries in memory are written to
+ * the next segment ({store-path}.{generation}). The small, never mapped file at store-path
+ * names the current segment and is replaced atomically, so a mapped file is never renamed
+ * or replaced (which Windows refuses).
+ * Lookups are counted as geocode.cache.requests{kind, result=hit|miss}.
+ */
+@Service
+@Slf4j
+public class GeocodeCache {
+
+    private record Entry(String json, long writtenAtMillis) {
+    }
+
+    record StoredEntry(@JsonProperty("key") String key, @JsonProperty("json") String json) {
+    }
+
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final Cache<String, Entry> entries;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final Path storePath;
+    private final int storeCapacityBytes;
+
+    // Guarded by this
+    private long generation;
+    private FileChannel storeChannel;
+    private MappedByteBuffer store;
+
+    public GeocodeCache(MeterRegistry meterRegistry,
+                        RequestCoalescer requestCoalescer,
+                        @Value("${geocode.cache.enabled:true}") boolean enabled,
+                        @Value("${geocode.cache.ttl-hours:168}") long ttlHours,
+                        @Value("${geocode.cache.max-size:20000}") long maxSize,
+                        @Value("${geocode.cache.store-path:}") String storePath,
+                        @Value("${geocode.cache.store-capacity-mb:64}") int storeCapacityMb) {
+        this.meterRegistry = meterRegistry;
+        this.requestCoalescer = requestCoalescer;
+        this.enabled = enabled;
+        this.ttlMillis = Duration.ofHours(ttlHours).toMillis();
+        this.storePath = storePath == null || storePath.isBlank() ? null : Path.of(storePath);
+        this.storeCapacityBytes = storeCapacityMb * 1024 * 1024;
+        this.entries = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "geocode");
+
+        log.info("Geocode cache {} - ttl: {}h, maxSize: {}, store: {} ({}MB)",
+                enabled ? "enabled" : "disabled", ttlHours, maxSize, this.storePath, storeCapacityMb);
+    }
+
+    /**
+     * Cached geocoding result for an address
+     * @param kind Result kind, e.g. "address"; also the metric tag
+     * @param type Result type, serialized as JSON
+     * @param lookup The Kakao lookup, made on a miss; a null result is returned but not cached
+     */
+    public <T> T get(String kind, String address, Class<T> type, Supplier<T> lookup) {
+        String normalized = KoreanAddressNormalizer.normalize(address);
+        if (!enabled || normalized.isEmpty()) {
+            return lookup.get();
+        }
+        String key = kind + ":" + normalized;
+
+        Entry cached = entries.getIfPresent(key);
+        if (cached != null) {
+            try {
+                T value = objectMapper.readValue(cached.json(), type);
+                count(kind, "hit");
+                return value;
+            } catch (IOException e) {
+                log.warn("Dropping unreadable cached {} geocode: {}", kind, e.getMessage());
+                entries.invalidate(key);
+            }
+        }
+
+        count(kind, "miss");
+        return requestCoalescer.coalesce("geocode." + kind, key, () -> {
+            T value = lookup.get();
+            if (value != null) {
+                try {
+                    Entry entry = new Entry(objectMapper.writeValueAsString(value), System.currentTimeMillis());
+                    entries.put(key, entry);
+                    append(key, entry);
+                } catch (IOException e) {
+                    log.warn("Not caching {} geocode: {}", kind, e.getMessage());
+                }
+            }
+            return value;
+        });
+    }
+
+    @PostConstruct
+    synchronized void open() {
+        if (!enabled || storePath == null) {
+            return;
+        }
+        try {
+            Path parent = storePath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            if (Files.exists(storePath)) {
+                generation = Long.parseLong(Files.readString(storePath, StandardCharsets.UTF_8).trim());
+            } else {
+                writePointer(generation);
+            }
+            removeOldSegments();
+            storeChannel = FileChannel.open(segment(generation),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            store = storeChannel.map(FileChannel.MapMode.READ_WRITE, 0, storeCapacityBytes);
+
+            long now = System.currentTimeMillis();
+            int loaded = 0;
+            int expired = 0;
+            while (store.remaining() >= RECORD_HEADER_BYTES) {
+                int start = store.position();
+                int length = store.getInt();
+                if (length <= 0 || length > store.remaining() - Long.BYTES) {
+                    store.position(start);
+                    break;
+                }
+                long writtenAtMillis = store.getLong();
+                byte[] json = new byte[length];
+                store.get(json);
+                if (now - writtenAtMillis >= ttlMillis) {
+                    expired++;
+                    continue;
+                }
+                StoredEntry stored;
+                try {
+                    stored = objectMapper.readValue(json, StoredEntry.class);
+                } catch (IOException e) {
+                    // Torn by a crash: later appends overwrite it
+                    log.warn("Geocode store {} has an unreadable record at {}, truncating: {}",
+                            storePath, start, e.getMessage());
+                    store.putInt(start, 0);
+                    store.position(start);
+                    break;
+                }
+                entries.put(stored.key(), new Entry(stored.json(), writtenAtMillis));
+                loaded++;
+            }
+            log.info("Loaded {} geocodes from {} ({} expired, {}KB used)",
+                    loaded, segment(generation), expired, store.position() / 1024);
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Geocode store {} unavailable, caching in memory only: {}", storePath, e.getMessage());
+            closeStore();
+        }
+    }
+
+    /**
+     * Append an entry to the store, compacting it first if it is full
+     */
+    private synchronized void append(String key, Entry entry) throws IOException {
+        if (store == null) {
+            return;
+        }
+        byte[] json = objectMapper.writeValueAsBytes(new StoredEntry(key, entry.json()));
+        if (store.remaining() < RECORD_HEADER_BYTES + json.length + Integer.BYTES) {
+            compact();
+            if (store == null) {
+                return;
+            }
+            if (store.remaining() < RECORD_HEADER_BYTES + json.length + Integer.BYTES) {
+                log.warn("Geocode store {} full, not persisting {}", storePath, key);
+                return;
+            }
+        }
+        write(store, json, entry.writtenAtMillis());
+    }
+
+    /**
+     * Continue in a new segment holding only the live in-memory entries. The segment is
+     * complete on disk before the pointer is switched to it, so a crash mid-compaction leaves
+     * the previous segment in use. On failure the store is closed and entries stay in memory only.
+     */
+    private void compact() {
+        int before = store.position();
+        Path previous = segment(generation);
+        Path next = segment(generation + 1);
+        FileChannel channel = null;
+        try {
+            Files.deleteIfExists(next);
+            channel = FileChannel.open(next, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer compacted = channel.map(FileChannel.MapMode.READ_WRITE, 0, storeCapacityBytes);
+            for (var cached : entries.asMap().entrySet()) {
+                byte[] json = objectMapper.writeValueAsBytes(new StoredEntry(cached.getKey(), cached.getValue().json()));
+                if (compacted.remaining() < RECORD_HEADER_BYTES + json.length + Integer.BYTES) {
+                    break;
+                }
+                write(compacted, json, cached.getValue().writtenAtMillis());
+            }
+            compacted.force();
+            writePointer(generation + 1);
+
+            closeStore();
+            generation++;
+            storeChannel = channel;
+            store = compacted;
+            deleteSegment(previous);
+            log.info("Compacted geocode store {} from {}KB to {}KB", next, before / 1024, store.position() / 1024);
+        } catch (IOException e) {
+            log.warn("Failed to compact geocode store {}, caching in memory only: {}", storePath, e.getMessage());
+            closeStore();
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException cleanup) {
+                log.warn("Failed to close geocode store segment {}: {}", next, cleanup.getMessage());
+            }
+            deleteSegment(next);
+        }
+    }
+
+    private Path segment(long segmentGeneration) {
+        return storePath.resolveSibling(storePath.getFileName() + "." + segmentGeneration);
+    }
+
+    /**
+     * Point store-path at a segment: written aside and renamed, the pointer file is never mapped
+     */
+    private void writePointer(long segmentGeneration) throws IOException {
+        Path temp = Files.createTempFile(storePath.toAbsolutePath().getParent(), "geocode-cache", ".tmp");
+        try {
+            Files.writeString(temp, Long.toString(segmentGeneration), StandardCharsets.UTF_8);
+            Files.move(temp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Remove segments left behind by earlier compactions (deleting a segment that is still
+     * mapped fails on Windows until the mapping is garbage collected)
+     */
+    private void removeOldSegments() throws IOException {
+        String prefix = storePath.getFileName() + ".";
+        Path current = segment(generation);
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(storePath.toAbsolutePath().getParent(), prefix + "*")) {
+            for (Path sibling : siblings) {
+                String suffix = sibling.getFileName().toString().substring(prefix.length());
+                if (!sibling.getFileName().equals(current.getFileName())
+                        && !suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    deleteSegment(sibling);
+                }
+            }
+        }
+    }
+
+    private void deleteSegment(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            log.debug("Geocode store segment {} not removed yet, retrying on next start: {}", segment, e.getMessage());
+        }
+    }
+
+    private static void write(MappedByteBuffer target, byte[] json, long writtenAtMillis) {
+        int start = target.position();
+        target.position(start + Integer.BYTES);
+        target.putLong(writtenAtMillis);
+        target.put(json);
+        // End marker, then the length that makes the record visible
+        target.putInt(target.position(), 0);
+        target.putInt(start, json.length);
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (store != null) {
+            store.force();
+        }
+        closeStore();
+    }
+
+    private void closeStore() {
+        store = null;
+        if (storeChannel != null) {
+            try {
+                storeChannel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close geocode store {}: {}", storePath, e.getMessage());
+            }
+            storeChannel = null;
+        }
+    }
+
+    private long remainingNanos(Entry entry) {
+        long remainingMillis = ttlMillis - (System.currentTimeMillis() - entry.writtenAtMillis());
+        return Duration.ofMillis(Math.max(0, remainingMillis)).toNanos();
+    }
+
+    private void count(String kind, String result) {
+        Counter.builder("geocode.cache.requests")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,318 @@
+package com.ecall.auth.service;
+
+import com.ecall.common.resilience.AiCallExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-call risk re-assessment of a growing transcript.
+ *
+ * Each call keeps its last assessment and a rolling summary of the conversation. A new
+ * OpenAI request is only made when at least risk.incremental.min-new-chars characters have
+ * been added since the last assessment (and risk.incremental.min-interval-ms has passed), or
+ * right away when keywords in the new text imply a higher level than the current one
+ * ({@link LocalTriageClassifier}). The request carries only the
+ * previous assessment, the summary and the new text, so its size stays constant however long
+ * the call gets; new text that piled up while assessments failed or were busy is cut to its
+ * last 2 × risk.incremental.summary-max-chars characters (plus the keywords of the omitted
+ * part). While a re-assessment of a call is in flight, further requests for that call
+ * return the previous assessment instead of queueing. Before the first assessment succeeds
+ * (OpenAI slow or down), the keyword-based provisional level is returned. A request with a
+ * shorter transcript than the one already assessed is out of date and gets the current
+ * assessment; a transcript that was rewritten (no longer extends the assessed text) is
+ * re-assessed from scratch.
+ * Outcomes are counted as risk.incremental.assessments{outcome=assessed|skipped|busy|stale|failed}.
+ */
+@Service
+@Slf4j
+public class IncrementalRiskAssessor {
+
+    private static final String SYSTEM_PROMPT =
+            "You are an emergency call risk assessment expert re-assessing an ongoing emergency call. " +
+            "You are given the current assessment, a summary of the call so far and only the NEW part of the conversation. " +
+            "Update the risk level (위험도, 1-5; it may go up or down) with a brief reason in English (1-2 sentences), " +
+            "and rewrite the summary so it covers the whole call including the new part. " +
+            "Keep every fact that matters for risk (injuries, weapons, fire, people involved, location) and drop small talk.\n\n" +
+            RiskLevelAssessmentService.SEVERITY_GUIDELINES;
+
+    /**
+     * Running state of one call
+     */
+    private static final class CallState {
+        final AtomicBoolean inFlight = new AtomicBoolean();
+        int level;
+        String reason;
+        String summary = "";
+        // Transcript length covered by the summary, and its last characters to detect a rewritten transcript
+        int assessedLength;
+        String assessedTail = "";
+        long assessedAtMillis;
+    }
+
+    private final RestTemplate restTemplate;
+    private final LocalTriageClassifier localTriageClassifier;
+    private final LlmDispatchScheduler llmDispatchScheduler;
+    private final AiCallExecutor aiCallExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<String, CallState> calls;
+    private final String openaiApiKey;
+    private final int minNewChars;
+    private final long minIntervalMillis;
+    private final int summaryMaxChars;
+
+    public IncrementalRiskAssessor(@Qualifier("openAiRestTemplate") RestTemplate restTemplate,
+                                   LocalTriageClassifier localTriageClassifier,
+                                   LlmDispatchScheduler llmDispatchScheduler,
+                                   AiCallExecutor aiCallExecutor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${openai.api.key:}") String openaiApiKey,
+                                   @Value("${risk.incremental.min-new-chars:120}") int minNewChars,
+                                   @Value("${risk.incremental.min-interval-ms:5000}") long minIntervalMillis,
+                                   @Value("${risk.incremental.summary-max-chars:800}") int summaryMaxChars,
+                                   @Value("${risk.incremental.idle-minutes:120}") long idleMinutes,
+                                   @Value("${risk.incremental.max-calls:1000}") long maxCalls) {
+        this.restTemplate = restTemplate;
+        this.localTriageClassifier = localTriageClassifier;
+        this.llmDispatchScheduler = llmDispatchScheduler;
+        this.aiCallExecutor = aiCallExecutor;
+        this.meterRegistry = meterRegistry;
+        this.openaiApiKey = openaiApiKey;
+        this.minNewChars = minNewChars;
+        this.minIntervalMillis = minIntervalMillis;
+        this.summaryMaxChars = summaryMaxChars;
+        this.calls = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .maximumSize(maxCalls)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, calls, "risk.incremental.calls");
+
+        log.info("Incremental risk assessor initialized - minNewChars: {}, minInterval: {}ms, summaryMaxChars: {}",
+                minNewChars, minIntervalMillis, summaryMaxChars);
+    }
+
+    /**
+     * Current risk assessment of a call, re-assessed if enough has changed
+     * @param callId Identifies the call across requests
+     * @param transcript Full transcript so far
+     * @return Map containing "level" (Integer 1-5) and "reason" (String)
+     */
+    public Map<String, Object> assess(String callId, String transcript) {
+        CallState state = calls.get(callId, id -> new CallState());
+
+        synchronized (state) {
+            if (transcript.length() < state.assessedLength) {
+                return stale(callId, state, transcript);
+            }
+            if (state.level > 0 && extendsAssessed(state, transcript)
+                    && !isDue(state, transcript.substring(state.assessedLength))) {
+                count("skipped");
+                return result(state);
+            }
+        }
+
+        if (!state.inFlight.compareAndSet(false, true)) {
+            // Debounce: the running re-assessment will be followed by one covering this text
+            count("busy");
+            synchronized (state) {
+                return state.level > 0 ? result(state) : provisional(transcript);
+            }
+        }
+
+        try {
+            // Taken only now: an assessment that finished since the check above has moved the state on
+            String delta;
+            int previousLevel;
+            String previousReason;
+            String previousSummary;
+            synchronized (state) {
+                if (transcript.length() < state.assessedLength) {
+                    return stale(callId, state, transcript);
+                }
+                if (!extendsAssessed(state, transcript)) {
+                    // Transcript was replaced rather than extended: start over from the full text
+                    log.info("Transcript of call {} no longer extends the assessed text, re-assessing from scratch", callId);
+                    state.level = 0;
+                    state.summary = "";
+                    state.assessedLength = 0;
+                    state.assessedTail = "";
+                }
+                delta = transcript.substring(state.assessedLength);
+                if (state.level > 0 && !isDue(state, delta)) {
+                    count("skipped");
+                    return result(state);
+                }
+                previousLevel = state.level;
+                previousReason = state.reason;
+                previousSummary = state.summary;
+            }
+
+            JsonNode assessment = requestAssessment(previousLevel, previousReason, previousSummary, delta);
+            int level = Math.max(1, Math.min(5, assessment.path("risk_level").asInt(3)));
+            String reason = assessment.path("risk_reason").asText("");
+            String summary = assessment.path("summary").asText("");
+
+            synchronized (state) {
+                state.level = level;
+                state.reason = reason;
+                state.summary = summary.length() > summaryMaxChars ? summary.substring(0, summaryMaxChars) : summary;
+                state.assessedLength = transcript.length();
+                state.assessedTail = transcript.substring(Math.max(0, transcript.length() - 64));
+                state.assessedAtMillis = System.currentTimeMillis();
+                count("assessed");
+                log.info("Call {} re-assessed from {} new chars: level {} -> {} ({})",
+                        callId, delta.length(), previousLevel, level, reason);
+                return result(state);
+            }
+        } catch (Exception e) {
+            count("failed");
+            log.error("Error re-assessing risk for call {}: {}", callId, e.getMessage());
+            synchronized (state) {
+                return state.level > 0 ? result(state) : provisional(transcript);
+            }
+        } finally {
+            state.inFlight.set(false);
+        }
+    }
+
+    /**
+     * A request carrying an older, shorter transcript than the one already assessed
+     * (requests overtaking each other): answer with the current assessment, keep the state
+     */
+    private Map<String, Object> stale(String callId, CallState state, String transcript) {
+        count("stale");
+        log.debug("Ignoring stale transcript of call {} ({} chars, {} assessed)",
+                callId, transcript.length(), state.assessedLength);
+        return state.level > 0 ? result(state) : provisional(transcript);
+    }
+
+    private static boolean extendsAssessed(CallState state, String transcript) {
+        return transcript.startsWith(state.assessedTail, state.assessedLength - state.assessedTail.length());
+    }
+
+    /**
+     * Drop the state of a finished call
+     */
+    public void forget(String callId) {
+        calls.invalidate(callId);
+    }
+
+    private boolean isDue(CallState state, String delta) {
+        if (localTriageClassifier.classify(delta).riskLevel() > state.level) {
+            // Escalation keywords: do not wait for more text
+            return true;
+        }
+        return delta.length() >= minNewChars
+                && System.currentTimeMillis() - state.assessedAtMillis >= minIntervalMillis;
+    }
+
+    /**
+     * Keyword-based level while no model assessment is available (3 if no keyword matched)
+     */
+    private Map<String, Object> provisional(String transcript) {
+        LocalTriageClassifier.Classification local = localTriageClassifier.classify(transcript);
+        return Map.of("level", local.riskLevel() > 0 ? local.riskLevel() : 3,
+                "reason", local.toTriageResult().reason());
+    }
+
+    private JsonNode requestAssessment(int level, String reason, String summary, String delta) throws Exception {
+        String userPrompt = "Current risk level: " + (level > 0 ? level + " - " + reason : "(not assessed yet)") + "\n\n" +
+                "Summary of the call so far (at most " + summaryMaxChars + " characters):\n" +
+                (summary.isEmpty() ? "(none yet)" : summary) + "\n\n" +
+                "New conversation since the last assessment:\n" + bounded(delta);
+
+        int maxTokens = 200 + summaryMaxChars / 2;
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", "gpt-4o-mini");
+        requestBody.put("messages", List.of(
+                Map.of("role", "system", "content", SYSTEM_PROMPT),
+                Map.of("role", "user", "content", userPrompt)
+        ));
+        requestBody.put("response_format", Map.of(
+                "type", "json_schema",
+                "json_schema", Map.of("name", "risk_reassessment", "strict", true, "schema", reassessmentSchema())
+        ));
+        requestBody.put("temperature", 0.3);
+        requestBody.put("max_tokens", maxTokens);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(openaiApiKey);
+
+        // Not hedged: a re-assessment is larger and already debounced per call
+        ResponseEntity<String> response = aiCallExecutor.call("openai",
+                llmDispatchScheduler.admission(LlmDispatchScheduler.estimateTokens(maxTokens, SYSTEM_PROMPT, userPrompt)),
+                () -> restTemplate.exchange(
+                        "https://api.openai.com/v1/chat/completions",
+                        HttpMethod.POST,
+                        new HttpEntity<>(requestBody, headers),
+                        String.class
+                ));
+
+        JsonNode choice = objectMapper.readTree(response.getBody()).path("choices").path(0);
+        if (!"stop".equals(choice.path("finish_reason").asText())) {
+            throw new IllegalStateException("Incomplete answer (finish_reason " + choice.path("finish_reason").asText() + ")");
+        }
+        return objectMapper.readTree(choice.path("message").path("content").asText());
+    }
+
+    /**
+     * The new text, or its last 2 × summaryMaxChars characters with a note (and the keywords)
+     * of what was left out, so the request stays bounded after failed or skipped assessments
+     */
+    private String bounded(String delta) {
+        int maxChars = summaryMaxChars * 2;
+        if (delta.length() <= maxChars) {
+            return delta;
+        }
+        String omitted = delta.substring(0, delta.length() - maxChars);
+        List<String> keywords = localTriageClassifier.classify(omitted).matchedKeywords();
+        return "(" + omitted.length() + " earlier characters omitted"
+                + (keywords.isEmpty() ? "" : "; they mentioned: " + String.join(", ", keywords)) + ")\n"
+                + delta.substring(omitted.length());
+    }
+
+    private static Map<String, Object> reassessmentSchema() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("summary", Map.of("type", "string"));
+        properties.put("risk_reason", Map.of("type", "string"));
+        properties.put("risk_level", Map.of("type", "integer", "enum", List.of(1, 2, 3, 4, 5)));
+
+        return Map.of(
+                "type", "object",
+                "properties", properties,
+                "required", List.of("summary", "risk_reason", "risk_level"),
+                "additionalProperties", false
+        );
+    }
+
+    private static Map<String, Object> result(CallState state) {
+        return Map.of("level", state.level, "reason", state.reason != null ? state.reason : "");
+    }
+
+    private void count(String outcome) {
+        Counter.builder("risk.incremental.assessments")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,20 +1,20 @@
 package com.ecall.auth.service;
 
 import com.ecall.auth.config.SupabaseConfig;
+import com.ecall.auth.dto.DispatchForceRecord;
+import com.ecall.auth.dto.OperatorRecord;
+import com.ecall.auth.dto.OperatorSummary;
+import com.ecall.auth.repository.OperatorRepository;
+import com.ecall.common.resilience.LastGoodSnapshots;
+import com.ecall.common.resilience.Snapshot;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPatch;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import jakarta.annotation.PostConstruct;
 import java.util.*;
 
 @Slf4j
@@ -22,7 +22,12 @@ import java.util.*;
 public class IntakeDeskService {
 
     private final SupabaseConfig supabaseConfig;
-    private RestTemplate restTemplate;
+    private final DispatchForceQueryService dispatchForceQueryService;
+    private final OperatorDirectory operatorDirectory;
+    private final RequestCoalescer requestCoalescer;
+    private final LastGoodSnapshots lastGoodSnapshots;
+    private final OperatorRepository operatorRepository;
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
     {
@@ -30,95 +35,52 @@ public class IntakeDeskService {
         objectMapper.setSerializationInclusion(com.fasterxml.jackson.annotation.JsonInclude.Include.ALWAYS);
     }
 
-    public IntakeDeskService(SupabaseConfig supabaseConfig) {
+    public IntakeDeskService(SupabaseConfig supabaseConfig,
+                             @Qualifier("supabaseRestTemplate") RestTemplate restTemplate,
+                             DispatchForceQueryService dispatchForceQueryService,
+                             OperatorDirectory operatorDirectory,
+                             RequestCoalescer requestCoalescer,
+                             LastGoodSnapshots lastGoodSnapshots,
+                             OperatorRepository operatorRepository) {
         this.supabaseConfig = supabaseConfig;
-    }
-
-    @PostConstruct
-    public void init() {
-        this.restTemplate = new RestTemplate();
-        log.info("RestTemplate initialized for IntakeDeskService");
+        this.restTemplate = restTemplate;
+        this.dispatchForceQueryService = dispatchForceQueryService;
+        this.operatorDirectory = operatorDirectory;
+        this.requestCoalescer = requestCoalescer;
+        this.lastGoodSnapshots = lastGoodSnapshots;
+        this.operatorRepository = operatorRepository;
     }
 
     /**
-     * Helper method to make PATCH requests using Apache HttpClient
+     * Helper method to make PATCH requests through the shared Supabase transport
      */
     private String executePatchRequest(String url, Map<String, Object> data, HttpHeaders headers) throws Exception {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPatch httpPatch = new HttpPatch(url);
-
-            // Set headers
-            headers.forEach((key, values) -> {
-                for (String value : values) {
-                    httpPatch.setHeader(key, value);
-                }
-            });
-
-            // Set request body
-            String jsonData = objectMapper.writeValueAsString(data);
-            log.debug("PATCH request to {}: {}", url, jsonData);
-
-            if (jsonData != null && !jsonData.isEmpty()) {
-                StringEntity entity = new StringEntity(jsonData, "UTF-8");
-                entity.setContentType("application/json");
-                httpPatch.setEntity(entity);
-            }
+        // Serialize ourselves so explicit nulls (e.g. clearing organization_name) are kept
+        String jsonData = objectMapper.writeValueAsString(data);
+        log.debug("PATCH request to {}: {}", url, jsonData);
 
-            // Execute request
-            try (CloseableHttpResponse response = httpClient.execute(httpPatch)) {
-                int statusCode = response.getStatusLine().getStatusCode();
+        HttpEntity<String> entity = new HttpEntity<>(jsonData, headers);
 
-                String responseBody = "";
-                if (response.getEntity() != null) {
-                    responseBody = EntityUtils.toString(response.getEntity(), "UTF-8");
-                }
+        ResponseEntity<String> response = restTemplate.exchange(
+                url,
+                HttpMethod.PATCH,
+                entity,
+                String.class
+        );
 
-                log.debug("PATCH response from {}: status={}, body={}", url, statusCode, responseBody);
+        String responseBody = response.getBody() != null ? response.getBody() : "";
+        log.debug("PATCH response from {}: status={}, body={}", url, response.getStatusCode().value(), responseBody);
 
-                if (statusCode >= 200 && statusCode < 300) {
-                    return responseBody;
-                } else {
-                    throw new RuntimeException("PATCH request failed with status " + statusCode + ": " + responseBody);
-                }
-            }
-        }
+        return responseBody;
     }
 
     /**
-     * Get all operators with role "Operator"
+     * Get all operators with role "Operator", or the last good list while Supabase is unhealthy
      */
-    public List<Map<String, Object>> getOperators() {
+    public Snapshot<List<OperatorSummary>> getOperators() {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/operator?role=eq.Operator&select=id,name,operator_id,role";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            List<Map<String, Object>> operators = new ArrayList<>();
-
-            for (JsonNode node : jsonArray) {
-                Map<String, Object> operator = new HashMap<>();
-                operator.put("id", node.get("id").asText());
-                operator.put("name", node.get("name").asText());
-                operator.put("operator_id", node.get("operator_id").asText());
-                operator.put("role", node.has("role") && !node.get("role").isNull() ? node.get("role").asText() : null);
-
-                operators.add(operator);
-            }
-
-            return operators;
+            return lastGoodSnapshots.read("operators", "Operator",
+                    () -> OperatorSummary.listOf(operatorDirectory.findOperatorsByRole("Operator")));
 
         } catch (Exception e) {
             log.error("Error fetching operators", e);
@@ -127,72 +89,16 @@ public class IntakeDeskService {
     }
 
     /**
-     * Get all intake desks (from dispatch_force table with type='intake')
+     * Get all intake desks (from dispatch_force table with type='intake'), or the last good list
+     * while Supabase is unhealthy
+     * Leader names and member counts are resolved in bulk by DispatchForceQueryService
      */
-    public List<Map<String, Object>> getAllIntakeDesks() {
+    public Snapshot<List<Map<String, Object>>> getAllIntakeDesks() {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/dispatch_force?type=eq.intake&select=*";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            List<Map<String, Object>> intakeDesks = new ArrayList<>();
-
-            for (JsonNode node : jsonArray) {
-                Map<String, Object> intakeDesk = new HashMap<>();
-                String intakeDeskId = node.get("id").asText();
-                intakeDesk.put("id", intakeDeskId);
-                intakeDesk.put("name", node.get("name").asText());
-
-                // Get created_at
-                if (node.has("created_at") && !node.get("created_at").isNull()) {
-                    intakeDesk.put("created_at", node.get("created_at").asText());
-                }
-
-                // Get leader IDs
-                String leader1Id = node.has("operator_leader1_id") && !node.get("operator_leader1_id").isNull()
-                        ? node.get("operator_leader1_id").asText() : null;
-                String leader2Id = node.has("operator_leader2_id") && !node.get("operator_leader2_id").isNull()
-                        ? node.get("operator_leader2_id").asText() : null;
-
-                intakeDesk.put("leader1_id", leader1Id);
-                intakeDesk.put("leader2_id", leader2Id);
-
-                // Get leader names
-                if (leader1Id != null && !leader1Id.isEmpty()) {
-                    Map<String, Object> leader1 = getOperatorById(leader1Id);
-                    intakeDesk.put("leader1_name", leader1 != null ? leader1.get("name") : null);
-                } else {
-                    intakeDesk.put("leader1_name", null);
-                }
-
-                if (leader2Id != null && !leader2Id.isEmpty()) {
-                    Map<String, Object> leader2 = getOperatorById(leader2Id);
-                    intakeDesk.put("leader2_name", leader2 != null ? leader2.get("name") : null);
-                } else {
-                    intakeDesk.put("leader2_name", null);
-                }
-
-                // Count actual members
-                int memberCount = countIntakeDeskMembers(intakeDeskId);
-                intakeDesk.put("member_count", memberCount);
-
-                intakeDesks.add(intakeDesk);
-            }
-
-            return intakeDesks;
+            // Consoles refreshing at the same moment share one fan-out
+            return lastGoodSnapshots.read("intakeDesks", "all",
+                    () -> requestCoalescer.coalesce("intakeDesks", "intakeDesks@" + operatorDirectory.generation(),
+                            dispatchForceQueryService::findIntakeDesksWithLeaders));
 
         } catch (Exception e) {
             log.error("Error fetching intake desks", e);
@@ -205,43 +111,14 @@ public class IntakeDeskService {
      */
     private int countIntakeDeskMembers(String intakeDeskId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            // Get the dispatch_force record to get organization_code
-            String intakeDeskUrl = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + intakeDeskId + "&select=id,name";
-            HttpEntity<String> intakeDeskEntity = new HttpEntity<>(headers);
-            ResponseEntity<String> intakeDeskResponse = restTemplate.exchange(
-                    intakeDeskUrl,
-                    HttpMethod.GET,
-                    intakeDeskEntity,
-                    String.class
-            );
-
-            JsonNode intakeDeskArray = objectMapper.readTree(intakeDeskResponse.getBody());
-            if (intakeDeskArray.isEmpty()) {
+            // Get the dispatch_force record to get the intake desk name
+            Optional<DispatchForceRecord> intakeDesk = operatorDirectory.findDispatchForce(intakeDeskId);
+            if (intakeDesk.isEmpty()) {
                 return 0;
             }
 
-            JsonNode intakeDeskNode = intakeDeskArray.get(0);
-            String intakeDeskName = intakeDeskNode.get("name").asText();
-
             // Count operators with matching organization_name
-            String url = supabaseConfig.getApiUrl() + "/operator?organization_name=eq." + intakeDeskName + "&select=id";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            return jsonArray.size();
+            return operatorDirectory.findOperatorsByOrganizationName(intakeDesk.get().name()).size();
 
         } catch (Exception e) {
             log.error("Error counting intake desk members", e);
@@ -252,37 +129,9 @@ public class IntakeDeskService {
     /**
      * Get operator by ID
      */
-    private Map<String, Object> getOperatorById(String operatorId) {
+    private OperatorRecord getOperatorById(String operatorId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId + "&select=id,name,operator_id,role";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            if (jsonArray.isEmpty()) {
-                return null;
-            }
-
-            JsonNode node = jsonArray.get(0);
-            Map<String, Object> operator = new HashMap<>();
-            operator.put("id", node.get("id").asText());
-            operator.put("name", node.get("name").asText());
-            operator.put("operator_id", node.get("operator_id").asText());
-            operator.put("role", node.has("role") && !node.get("role").isNull() ? node.get("role").asText() : null);
-
-            return operator;
+            return operatorDirectory.findOperator(operatorId);
 
         } catch (Exception e) {
             log.error("Error fetching operator by ID: {}", operatorId, e);
@@ -332,6 +181,8 @@ public class IntakeDeskService {
             newIntakeDesk.put("leader2_name", null);
             newIntakeDesk.put("member_count", 0);
 
+            operatorDirectory.invalidateDispatchForce(newIntakeDesk.get("id").toString());
+
             log.info("Created intake desk: {}", name);
             return newIntakeDesk;
 
@@ -358,6 +209,7 @@ public class IntakeDeskService {
             String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + intakeDeskId;
 
             String responseBody = executePatchRequest(url, updateData, headers);
+            operatorDirectory.invalidateDispatchForce(intakeDeskId);
 
             JsonNode result = objectMapper.readTree(responseBody);
             JsonNode intakeDeskNode = result.isArray() ? result.get(0) : result;
@@ -376,15 +228,15 @@ public class IntakeDeskService {
             updatedIntakeDesk.put("leader2_id", leader2Id);
 
             if (leader1Id != null && !leader1Id.isEmpty()) {
-                Map<String, Object> leader1 = getOperatorById(leader1Id);
-                updatedIntakeDesk.put("leader1_name", leader1 != null ? leader1.get("name") : null);
+                OperatorRecord leader1 = getOperatorById(leader1Id);
+                updatedIntakeDesk.put("leader1_name", leader1 != null ? leader1.name() : null);
             } else {
                 updatedIntakeDesk.put("leader1_name", null);
             }
 
             if (leader2Id != null && !leader2Id.isEmpty()) {
-                Map<String, Object> leader2 = getOperatorById(leader2Id);
-                updatedIntakeDesk.put("leader2_name", leader2 != null ? leader2.get("name") : null);
+                OperatorRecord leader2 = getOperatorById(leader2Id);
+                updatedIntakeDesk.put("leader2_name", leader2 != null ? leader2.name() : null);
             } else {
                 updatedIntakeDesk.put("leader2_name", null);
             }
@@ -422,6 +274,8 @@ public class IntakeDeskService {
                     String.class
             );
 
+            operatorDirectory.invalidateDispatchForce(intakeDeskId);
+
             log.info("Deleted intake desk: {}", intakeDeskId);
 
         } catch (Exception e) {
@@ -431,49 +285,49 @@ public class IntakeDeskService {
     }
 
     /**
-     * Assign operators to intake desk
+     * Assign operators to intake desk in a single id=in.(...) PATCH
+     * @return operatorId -> "assigned" / "not_found"
      */
-    public void assignOperatorsToIntakeDesk(String intakeDeskId, List<String> operatorIds) {
+    public Map<String, String> assignOperatorsToIntakeDesk(String intakeDeskId, List<String> operatorIds) {
         try {
             // Get intake desk name
-            Map<String, Object> intakeDesk = getIntakeDeskById(intakeDeskId);
-            String intakeDeskName = (String) intakeDesk.get("name");
+            DispatchForceRecord intakeDesk = getIntakeDeskById(intakeDeskId);
+            String intakeDeskName = intakeDesk.name();
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+            Map<String, Object> operatorUpdate = new HashMap<>();
+            operatorUpdate.put("organization_code", intakeDeskId);
+            operatorUpdate.put("organization_name", intakeDeskName);
+
+            Set<String> assigned = operatorRepository.updateAll(operatorIds, null, operatorUpdate);
 
-            int successCount = 0;
+            Map<String, String> results = new LinkedHashMap<>();
             for (String operatorId : operatorIds) {
-                try {
-                    Map<String, Object> updateData = new HashMap<>();
-                    updateData.put("organization_code", intakeDeskId);
-                    updateData.put("organization_name", intakeDeskName);
-
-                    String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
-                    executePatchRequest(url, updateData, headers);
-                    successCount++;
-                    log.info("Operator {} assigned to intake desk {} ({})", operatorId, intakeDeskId, intakeDeskName);
-                } catch (Exception e) {
-                    log.error("Failed to assign operator {} to intake desk {}", operatorId, intakeDeskId, e);
-                }
+                results.put(operatorId, assigned.contains(operatorId) ? "assigned" : "not_found");
             }
 
             // Update intake desk's member_count
-            if (successCount > 0) {
+            if (!assigned.isEmpty()) {
+                operatorDirectory.invalidateOperators(operatorIds);
                 int actualMemberCount = countIntakeDeskMembers(intakeDeskId);
 
                 Map<String, Object> updateData = new HashMap<>();
                 updateData.put("member_count", actualMemberCount);
 
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.set("apikey", supabaseConfig.getSupabaseKey());
+                headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+
                 String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + intakeDeskId;
                 executePatchRequest(url, updateData, headers);
+                operatorDirectory.invalidateDispatchForce(intakeDeskId);
 
-                log.info("Successfully assigned {} operators to intake desk {}. Total member count: {}",
-                        successCount, intakeDeskId, actualMemberCount);
+                log.info("Successfully assigned {}/{} operators to intake desk {} ({}). Total member count: {}",
+                        assigned.size(), operatorIds.size(), intakeDeskId, intakeDeskName, actualMemberCount);
             }
 
+            return results;
+
         } catch (Exception e) {
             log.error("Error assigning operators to intake desk", e);
             throw new RuntimeException("Failed to assign operators: " + e.getMessage(), e);
@@ -483,45 +337,12 @@ public class IntakeDeskService {
     /**
      * Get intake desk members
      */
-    public List<Map<String, Object>> getIntakeDeskMembers(String intakeDeskId) {
+    public List<OperatorSummary> getIntakeDeskMembers(String intakeDeskId) {
         try {
             // Get intake desk name
-            Map<String, Object> intakeDesk = getIntakeDeskById(intakeDeskId);
-            String intakeDeskName = (String) intakeDesk.get("name");
+            DispatchForceRecord intakeDesk = getIntakeDeskById(intakeDeskId);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/operator?organization_name=eq." + intakeDeskName +
-                    "&select=id,name,operator_id,role,organization_name";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            List<Map<String, Object>> members = new ArrayList<>();
-
-            for (JsonNode node : jsonArray) {
-                Map<String, Object> member = new HashMap<>();
-                member.put("id", node.get("id").asText());
-                member.put("name", node.get("name").asText());
-                member.put("operator_id", node.get("operator_id").asText());
-                member.put("role", node.has("role") && !node.get("role").isNull() ? node.get("role").asText() : null);
-                member.put("organization_name", node.has("organization_name") && !node.get("organization_name").isNull()
-                        ? node.get("organization_name").asText() : null);
-
-                members.add(member);
-            }
-
-            return members;
+            return OperatorSummary.listOf(operatorDirectory.findOperatorsByOrganizationName(intakeDesk.name()));
 
         } catch (Exception e) {
             log.error("Error fetching intake desk members", e);
@@ -533,32 +354,50 @@ public class IntakeDeskService {
      * Remove member from intake desk
      */
     public void removeMember(String intakeDeskId, String operatorId) {
+        removeMembers(intakeDeskId, List.of(operatorId));
+    }
+
+    /**
+     * Remove several members from an intake desk with one id=in.(...) PATCH
+     * @return operatorId -> "removed" / "not_member"
+     */
+    public Map<String, String> removeMembers(String intakeDeskId, List<String> operatorIds) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+            DispatchForceRecord intakeDesk = getIntakeDeskById(intakeDeskId);
 
-            // Remove organization_name from operator
+            // Remove organization_name from operators of this desk
             Map<String, Object> operatorUpdate = new HashMap<>();
             operatorUpdate.put("organization_name", null);
 
-            String operatorUrl = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
-            executePatchRequest(operatorUrl, operatorUpdate, headers);
+            Set<String> removed = operatorRepository.updateAll(
+                    operatorIds, "organization_name=eq." + intakeDesk.name(), operatorUpdate);
+            operatorDirectory.invalidateOperators(operatorIds);
 
             // Update intake desk's member_count
             int actualMemberCount = countIntakeDeskMembers(intakeDeskId);
             Map<String, Object> intakeDeskUpdate = new HashMap<>();
             intakeDeskUpdate.put("member_count", actualMemberCount);
 
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("apikey", supabaseConfig.getSupabaseKey());
+            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+
             String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + intakeDeskId;
             executePatchRequest(url, intakeDeskUpdate, headers);
+            operatorDirectory.invalidateDispatchForce(intakeDeskId);
+
+            Map<String, String> results = new LinkedHashMap<>();
+            for (String operatorId : operatorIds) {
+                results.put(operatorId, removed.contains(operatorId) ? "removed" : "not_member");
+            }
 
-            log.info("Member removed from intake desk {}: operator {}. New member count: {}",
-                    intakeDeskId, operatorId, actualMemberCount);
+            log.info("Removed {}/{} members from intake desk {}. New member count: {}",
+                    removed.size(), operatorIds.size(), intakeDeskId, actualMemberCount);
+            return results;
 
         } catch (Exception e) {
-            log.error("Error removing member from intake desk", e);
+            log.error("Error removing members from intake desk", e);
             throw new RuntimeException("Failed to remove member: " + e.getMessage(), e);
         }
     }
@@ -566,36 +405,11 @@ public class IntakeDeskService {
     /**
      * Get intake desk by ID
      */
-    private Map<String, Object> getIntakeDeskById(String intakeDeskId) {
+    private DispatchForceRecord getIntakeDeskById(String intakeDeskId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + intakeDeskId + "&type=eq.intake";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            if (jsonArray.isEmpty()) {
-                throw new RuntimeException("Intake desk not found: " + intakeDeskId);
-            }
-
-            JsonNode intakeDeskNode = jsonArray.get(0);
-            Map<String, Object> intakeDesk = new HashMap<>();
-            intakeDesk.put("id", intakeDeskNode.get("id").asText());
-            intakeDesk.put("name", intakeDeskNode.get("name").asText());
-            intakeDesk.put("member_count", intakeDeskNode.has("member_count") ? intakeDeskNode.get("member_count").asInt() : 0);
-
-            return intakeDesk;
+            return operatorDirectory.findDispatchForce(intakeDeskId)
+                    .filter(intakeDesk -> "intake".equals(intakeDesk.type()))
+                    .orElseThrow(() -> new RuntimeException("Intake desk not found: " + intakeDeskId));
 
         } catch (Exception e) {
             log.error("Error fetching intake desk by ID", e);
@@ -609,8 +423,8 @@ public class IntakeDeskService {
     public Map<String, Object> assignLeader(String intakeDeskId, String operatorId, String leaderType) {
         try {
             // Get intake desk info
-            Map<String, Object> intakeDesk = getIntakeDeskById(intakeDeskId);
-            String intakeDeskName = (String) intakeDesk.get("name");
+            DispatchForceRecord intakeDesk = getIntakeDeskById(intakeDeskId);
+            String intakeDeskName = intakeDesk.name();
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -638,6 +452,8 @@ public class IntakeDeskService {
 
             String operatorUrl = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
             executePatchRequest(operatorUrl, operatorUpdate, headers);
+            operatorDirectory.invalidateOperators(List.of(operatorId));
+            operatorDirectory.invalidateDispatchForce(intakeDeskId);
             log.info("Updated operator {} with organization_code={}, organization_name={}",
                     operatorId, intakeDeskId, intakeDeskName);
 
@@ -657,15 +473,15 @@ public class IntakeDeskService {
             updatedIntakeDesk.put("leader2_id", leader2Id);
 
             if (leader1Id != null && !leader1Id.isEmpty()) {
-                Map<String, Object> leader1 = getOperatorById(leader1Id);
-                updatedIntakeDesk.put("leader1_name", leader1 != null ? leader1.get("name") : null);
+                OperatorRecord leader1 = getOperatorById(leader1Id);
+                updatedIntakeDesk.put("leader1_name", leader1 != null ? leader1.name() : null);
             } else {
                 updatedIntakeDesk.put("leader1_name", null);
             }
 
             if (leader2Id != null && !leader2Id.isEmpty()) {
-                Map<String, Object> leader2 = getOperatorById(leader2Id);
-                updatedIntakeDesk.put("leader2_name", leader2 != null ? leader2.get("name") : null);
+                OperatorRecord leader2 = getOperatorById(leader2Id);
+                updatedIntakeDesk.put("leader2_name", leader2 != null ? leader2.name() : null);
             } else {
                 updatedIntakeDesk.put("leader2_name", null);
             }
@@ -704,6 +520,7 @@ public class IntakeDeskService {
 
             String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + intakeDeskId;
             String responseBody = executePatchRequest(url, updateData, headers);
+            operatorDirectory.invalidateDispatchForce(intakeDeskId);
 
             JsonNode result = objectMapper.readTree(responseBody);
             JsonNode intakeDeskNode = result.isArray() ? result.get(0) : result;
@@ -721,15 +538,15 @@ public class IntakeDeskService {
             updatedIntakeDesk.put("leader2_id", leader2Id);
 
             if (leader1Id != null && !leader1Id.isEmpty()) {
-                Map<String, Object> leader1 = getOperatorById(leader1Id);
-                updatedIntakeDesk.put("leader1_name", leader1 != null ? leader1.get("name") : null);
+                OperatorRecord leader1 = getOperatorById(leader1Id);
+                updatedIntakeDesk.put("leader1_name", leader1 != null ? leader1.name() : null);
             } else {
                 updatedIntakeDesk.put("leader1_name", null);
             }
 
             if (leader2Id != null && !leader2Id.isEmpty()) {
-                Map<String, Object> leader2 = getOperatorById(leader2Id);
-                updatedIntakeDesk.put("leader2_name", leader2 != null ? leader2.get("name") : null);
+                OperatorRecord leader2 = getOperatorById(leader2Id);
+                updatedIntakeDesk.put("leader2_name", leader2 != null ? leader2.name() : null);
             } else {
                 updatedIntakeDesk.put("leader2_name", null);
             }
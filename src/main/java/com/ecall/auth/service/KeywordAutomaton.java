@@ -0,0 +1,127 @@
+package com.ecall.auth.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed keyword list: finds every occurrence of every keyword
+ * in one pass over the text, in time linear in the text length regardless of how many
+ * keywords there are.
+ *
+ * Built once; immutable and thread-safe afterwards. Transitions are stored as sorted char
+ * arrays per state (binary search), which keeps the Hangul alphabet compact.
+ */
+final class KeywordAutomaton {
+
+    interface MatchListener {
+        /**
+         * @param keyword Index into the keyword list the automaton was built from
+         * @param start Offset of the first matched char in the text
+         * @param end Offset after the last matched char
+         */
+        void onMatch(int keyword, int start, int end);
+    }
+
+    private final int[] keywordLengths;
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[][] outputs;
+
+    KeywordAutomaton(List<String> keywords) {
+        keywordLengths = new int[keywords.size()];
+
+        // 1. Trie
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        children.add(new TreeMap<>());
+        out.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            keywordLengths[k] = keyword.length();
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer next = children.get(state).get(keyword.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    out.add(new ArrayList<>());
+                    children.get(state).put(keyword.charAt(i), next);
+                }
+                state = next;
+            }
+            out.get(state).add(k);
+        }
+
+        int states = children.size();
+        edgeChars = new char[states][];
+        edgeTargets = new int[states][];
+        for (int s = 0; s < states; s++) {
+            TreeMap<Character, Integer> edges = children.get(s);
+            edgeChars[s] = new char[edges.size()];
+            edgeTargets[s] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[s][i] = edge.getKey();
+                edgeTargets[s][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // 2. Failure links (breadth first), merging the outputs of each state's failure chain
+        fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int target = edgeTargets[state][i];
+                int f = fail[state];
+                while (f > 0 && next(f, c) < 0) {
+                    f = fail[f];
+                }
+                int fallback = next(f, c);
+                fail[target] = fallback >= 0 && fallback != target ? fallback : 0;
+                // The failure state is shallower, so its outputs are already complete
+                out.get(target).addAll(out.get(fail[target]));
+                queue.add(target);
+            }
+        }
+
+        outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = out.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Report every keyword occurrence in the text (overlapping matches included)
+     */
+    void scan(CharSequence text, MatchListener listener) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int target;
+            while ((target = next(state, c)) < 0 && state > 0) {
+                state = fail[state];
+            }
+            state = Math.max(target, 0);
+            for (int keyword : outputs[state]) {
+                listener.onMatch(keyword, i + 1 - keywordLengths[keyword], i + 1);
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        int i = Arrays.binarySearch(edgeChars[state], c);
+        return i >= 0 ? edgeTargets[state][i] : -1;
+    }
+}
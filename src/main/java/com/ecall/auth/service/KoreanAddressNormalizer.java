@@ -0,0 +1,195 @@
+package com.ecall.auth.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of a spoken or typed Korean address, so that spellings of the same place
+ * share one geocoding cache entry:
+ * whitespace is collapsed, the province / metropolitan city is reduced to its short name
+ * (서울특별시, 서울시 → 서울; 부산광역시 → 부산; 경기도 → 경기), and romanized district
+ * and city names are folded to Hangul (Gangnam-gu, gangnam gu → 강남구; Seoul → 서울).
+ */
+final class KoreanAddressNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRIM_PUNCTUATION = Pattern.compile("^[\\s,.·]+|[\\s,.·]+$");
+    private static final Pattern ROMANIZED_DISTRICT = Pattern.compile("\\b([a-z]+(?:-[a-z]+)?)[- ]?(gu|gun|si)\\b");
+    private static final Pattern ROMANIZED_WORD = Pattern.compile("\\b[a-z]+\\b");
+
+    /**
+     * Short names of the provinces and metropolitan cities, by every long form in use
+     */
+    private static final Map<String, String> PROVINCES = new HashMap<>();
+
+    /**
+     * Hangul names of romanized districts and cities (without their -gu / -si suffix)
+     */
+    private static final Map<String, String> ROMANIZED = new HashMap<>();
+
+    static {
+        province("서울", "서울특별시", "서울시");
+        province("부산", "부산광역시", "부산시");
+        province("대구", "대구광역시", "대구시");
+        province("인천", "인천광역시", "인천시");
+        province("광주", "광주광역시");
+        province("대전", "대전광역시", "대전시");
+        province("울산", "울산광역시", "울산시");
+        province("세종", "세종특별자치시", "세종시");
+        province("경기", "경기도");
+        province("강원", "강원도", "강원특별자치도");
+        province("충북", "충청북도");
+        province("충남", "충청남도");
+        province("전북", "전라북도", "전북특별자치도");
+        province("전남", "전라남도");
+        province("경북", "경상북도");
+        province("경남", "경상남도");
+        province("제주", "제주특별자치도", "제주도");
+
+        romanized("seoul", "서울");
+        romanized("busan", "부산");
+        romanized("daegu", "대구");
+        romanized("incheon", "인천");
+        romanized("gwangju", "광주");
+        romanized("daejeon", "대전");
+        romanized("ulsan", "울산");
+        romanized("sejong", "세종");
+        romanized("gyeonggi", "경기");
+        romanized("jeju", "제주");
+        // Seoul districts
+        romanized("gangnam", "강남");
+        romanized("gangdong", "강동");
+        romanized("gangbuk", "강북");
+        romanized("gangseo", "강서");
+        romanized("gwanak", "관악");
+        romanized("gwangjin", "광진");
+        romanized("guro", "구로");
+        romanized("geumcheon", "금천");
+        romanized("nowon", "노원");
+        romanized("dobong", "도봉");
+        romanized("dongdaemun", "동대문");
+        romanized("dongjak", "동작");
+        romanized("mapo", "마포");
+        romanized("seodaemun", "서대문");
+        romanized("seocho", "서초");
+        romanized("seongdong", "성동");
+        romanized("seongbuk", "성북");
+        romanized("songpa", "송파");
+        romanized("yangcheon", "양천");
+        romanized("yeongdeungpo", "영등포");
+        romanized("yongsan", "용산");
+        romanized("eunpyeong", "은평");
+        romanized("jongno", "종로");
+        romanized("jung", "중");
+        romanized("jungnang", "중랑");
+        // Districts of the other metropolitan cities that are not Seoul names as well
+        romanized("haeundae", "해운대");
+        romanized("suyeong", "수영");
+        romanized("busanjin", "부산진");
+        romanized("saha", "사하");
+        romanized("yeonje", "연제");
+        romanized("suseong", "수성");
+        romanized("dalseo", "달서");
+        romanized("bupyeong", "부평");
+        romanized("namdong", "남동");
+        romanized("yeonsu", "연수");
+        romanized("yuseong", "유성");
+        // Large cities of Gyeonggi
+        romanized("suwon", "수원");
+        romanized("seongnam", "성남");
+        romanized("goyang", "고양");
+        romanized("yongin", "용인");
+        romanized("bucheon", "부천");
+        romanized("ansan", "안산");
+        romanized("anyang", "안양");
+        romanized("hwaseong", "화성");
+    }
+
+    private KoreanAddressNormalizer() {
+    }
+
+    private static void province(String shortName, String... longNames) {
+        PROVINCES.put(shortName, shortName);
+        for (String longName : longNames) {
+            PROVINCES.put(longName, shortName);
+        }
+    }
+
+    private static void romanized(String roman, String hangul) {
+        ROMANIZED.put(roman, hangul);
+    }
+
+    /**
+     * Every name in use for the province / metropolitan city with this official name
+     * (서울특별시 → 서울특별시, 서울시, 서울), or none if it is not one
+     */
+    static List<String> provinceNames(String name) {
+        String shortName = PROVINCES.get(name);
+        if (shortName == null) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        PROVINCES.forEach((longName, province) -> {
+            if (province.equals(shortName)) {
+                names.add(longName);
+            }
+        });
+        return names;
+    }
+
+    /**
+     * Canonical form of an address, or "" for null / blank input
+     */
+    static String normalize(String address) {
+        if (address == null) {
+            return "";
+        }
+        String text = TRIM_PUNCTUATION.matcher(WHITESPACE.matcher(address).replaceAll(" ")).replaceAll("");
+        if (text.isEmpty()) {
+            return "";
+        }
+        text = foldRomanized(text.toLowerCase());
+
+        // The province only ever comes first ("광주시" elsewhere is the Gyeonggi city)
+        int firstSpace = text.indexOf(' ');
+        String first = firstSpace < 0 ? text : text.substring(0, firstSpace);
+        String province = PROVINCES.get(first);
+        if (province != null) {
+            text = firstSpace < 0 ? province : province + text.substring(firstSpace);
+        }
+        return text;
+    }
+
+    private static String foldRomanized(String text) {
+        Matcher district = ROMANIZED_DISTRICT.matcher(text);
+        StringBuilder folded = new StringBuilder();
+        while (district.find()) {
+            String hangul = ROMANIZED.get(district.group(1).replace("-", ""));
+            String replacement = hangul != null ? hangul + suffix(district.group(2)) : district.group();
+            district.appendReplacement(folded, Matcher.quoteReplacement(replacement));
+        }
+        district.appendTail(folded);
+
+        Matcher word = ROMANIZED_WORD.matcher(folded.toString());
+        StringBuilder result = new StringBuilder();
+        while (word.find()) {
+            // Bare city names only ("Seoul"); bare district names are too ambiguous ("jung")
+            String hangul = PROVINCES.containsKey(ROMANIZED.getOrDefault(word.group(), "")) ? ROMANIZED.get(word.group()) : null;
+            word.appendReplacement(result, Matcher.quoteReplacement(hangul != null ? hangul : word.group()));
+        }
+        word.appendTail(result);
+        return result.toString();
+    }
+
+    private static String suffix(String romanized) {
+        return switch (romanized) {
+            case "gu" -> "구";
+            case "gun" -> "군";
+            default -> "시";
+        };
+    }
+}
@@ -0,0 +1,362 @@
+package com.ecall.auth.service;
+
+import com.ecall.common.resilience.AiCallExecutor;
+import com.ecall.common.resilience.DependencyUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission of OpenAI calls against the account's rate limits, live calls first.
+ *
+ * Every call waits in one queue, ordered by {@link Priority} and then arrival, until a
+ * concurrency slot is free and both token buckets can pay for it: one request out of
+ * openai.dispatch.requests-per-minute and its estimated tokens out of
+ * openai.dispatch.tokens-per-minute (both refilled continuously). Back-office work is
+ * additionally capped at openai.dispatch.background-max-concurrent slots, so a burst of
+ * re-classification never holds all slots when a live call needs one.
+ * A call that is not admitted within its priority's max wait is refused with
+ * {@link DependencyUnavailableException}, which the callers already answer with their
+ * local fallbacks. Hedge attempts ({@link #tryAcquire}) never wait or jump the queue: they
+ * are only sent when a slot and the budgets are free at once, and pay for their request
+ * and tokens like any other call.
+ *
+ * The priority is bound to the calling thread (LIVE unless marked with {@link #inBackground}).
+ * Exported as llm.dispatch.queue.wait{priority}, llm.dispatch.queued{priority},
+ * llm.dispatch.running and llm.dispatch.rejected{priority}.
+ */
+@Service
+@Slf4j
+public class LlmDispatchScheduler {
+
+    public enum Priority {
+        /**
+         * Work for a call in progress (console assessments, completing a call)
+         */
+        LIVE,
+        /**
+         * Back-office work that may wait (re-classification, re-saving a finished call)
+         */
+        BACKGROUND
+    }
+
+    private static final ThreadLocal<Priority> CURRENT = new ThreadLocal<>();
+
+    private static final class Ticket implements Comparable<Ticket> {
+        final Priority priority;
+        final long sequence;
+        final int tokens;
+        final CompletableFuture<Void> admitted = new CompletableFuture<>();
+
+        Ticket(Priority priority, long sequence, int tokens) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.tokens = tokens;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService refillTimer;
+    private final MeterRegistry meterRegistry;
+    private final Map<Priority, Timer> queueWait = new EnumMap<>(Priority.class);
+    private final Map<Priority, Long> maxWaitMillis = new EnumMap<>(Priority.class);
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final int maxConcurrent;
+    private final int backgroundMaxConcurrent;
+
+    // Guarded by this
+    private double requestBudget;
+    private double tokenBudget;
+    private long refilledAtNanos;
+    private int running;
+    private int backgroundRunning;
+    private boolean refillScheduled;
+
+    public LlmDispatchScheduler(MeterRegistry meterRegistry,
+                                @Value("${openai.dispatch.requests-per-minute:500}") double requestsPerMinute,
+                                @Value("${openai.dispatch.tokens-per-minute:200000}") double tokensPerMinute,
+                                @Value("${openai.dispatch.max-concurrent:12}") int maxConcurrent,
+                                @Value("${openai.dispatch.background-max-concurrent:4}") int backgroundMaxConcurrent,
+                                @Value("${openai.dispatch.live-max-wait-ms:5000}") long liveMaxWaitMillis,
+                                @Value("${openai.dispatch.background-max-wait-ms:30000}") long backgroundMaxWaitMillis) {
+        this.meterRegistry = meterRegistry;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.maxConcurrent = maxConcurrent;
+        this.backgroundMaxConcurrent = backgroundMaxConcurrent;
+        this.requestBudget = requestsPerMinute;
+        this.tokenBudget = tokensPerMinute;
+        this.refilledAtNanos = System.nanoTime();
+        this.maxWaitMillis.put(Priority.LIVE, liveMaxWaitMillis);
+        this.maxWaitMillis.put(Priority.BACKGROUND, backgroundMaxWaitMillis);
+        this.refillTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "llm-dispatch-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            queueWait.put(priority, Timer.builder("llm.dispatch.queue.wait")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            Gauge.builder("llm.dispatch.queued", this, scheduler -> scheduler.queued(priority))
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("llm.dispatch.running", this, LlmDispatchScheduler::running).register(meterRegistry);
+
+        log.info("LLM dispatch scheduler initialized - rpm: {}, tpm: {}, maxConcurrent: {} (background {}), maxWait: {}ms live / {}ms background",
+                requestsPerMinute, tokensPerMinute, maxConcurrent, backgroundMaxConcurrent,
+                liveMaxWaitMillis, backgroundMaxWaitMillis);
+    }
+
+    /**
+     * Priority of LLM calls made by the current thread
+     */
+    public static Priority currentPriority() {
+        Priority priority = CURRENT.get();
+        return priority != null ? priority : Priority.LIVE;
+    }
+
+    /**
+     * Run work whose LLM calls are back-office work
+     */
+    public static <T> T inBackground(Supplier<T> work) {
+        Priority previous = CURRENT.get();
+        CURRENT.set(Priority.BACKGROUND);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Rough token count of a request: prompt characters / 2 (Korean text takes about one
+     * token per character or two) plus the completion limit
+     */
+    public static int estimateTokens(int maxTokens, String... prompts) {
+        int characters = 0;
+        for (String prompt : prompts) {
+            characters += prompt != null ? prompt.length() : 0;
+        }
+        return characters / 2 + maxTokens;
+    }
+
+    /**
+     * Admission of the attempts of one {@link AiCallExecutor} call, at the current thread's
+     * priority; each attempt holds its slot until it has finished
+     * @param estimatedTokens Estimated prompt plus completion tokens ({@link #estimateTokens})
+     */
+    public AiCallExecutor.Admission admission(int estimatedTokens) {
+        Priority priority = currentPriority();
+        return new AiCallExecutor.Admission() {
+            @Override
+            public Runnable acquire() {
+                return LlmDispatchScheduler.this.acquire(priority, estimatedTokens)::release;
+            }
+
+            @Override
+            public Runnable tryAcquire() {
+                Permit permit = LlmDispatchScheduler.this.tryAcquire(priority, estimatedTokens);
+                return permit != null ? permit::release : null;
+            }
+        };
+    }
+
+    /**
+     * Admission without waiting, for hedge attempts: only when nothing is queued and a slot and
+     * both budgets are free now
+     * @return The permit, or null if the call would have to wait
+     */
+    public synchronized Permit tryAcquire(Priority priority, int estimatedTokens) {
+        refill();
+        double cost = Math.min(estimatedTokens, tokensPerMinute);
+        if (!queue.isEmpty() || running >= maxConcurrent
+                || priority == Priority.BACKGROUND && backgroundRunning >= backgroundMaxConcurrent
+                || requestBudget < 1 || tokenBudget < cost) {
+            return null;
+        }
+        requestBudget -= 1;
+        tokenBudget -= cost;
+        running++;
+        if (priority == Priority.BACKGROUND) {
+            backgroundRunning++;
+        }
+        return new Permit(priority);
+    }
+
+    /**
+     * Wait for admission; release the permit when the call has finished (for callers whose
+     * call outlives the method, e.g. streams)
+     * @throws DependencyUnavailableException if the call is not admitted in time
+     */
+    public Permit acquire(Priority priority, int estimatedTokens) {
+        long enqueued = System.nanoTime();
+        Ticket ticket = new Ticket(priority, sequence.incrementAndGet(), estimatedTokens);
+        synchronized (this) {
+            queue.add(ticket);
+            pump();
+        }
+
+        try {
+            ticket.admitted.get(maxWaitMillis.get(priority), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                if (queue.remove(ticket)) {
+                    queueWait.get(priority).record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                    rejected(priority);
+                    log.warn("OpenAI call ({}, ~{} tokens) not admitted within {}ms - {} queued, {} running",
+                            priority, estimatedTokens, maxWaitMillis.get(priority), queue.size(), running);
+                    throw new DependencyUnavailableException("openai", "rate limit queue wait exceeded");
+                }
+            }
+            // Admitted just as the wait ended
+            if (e instanceof InterruptedException) {
+                new Permit(priority).release();
+                throw new DependencyUnavailableException("openai", "interrupted while queued");
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Admission failed", e);
+        }
+
+        queueWait.get(priority).record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+        return new Permit(priority);
+    }
+
+    /**
+     * Admit queued calls in order while slots and budgets allow. Caller holds the lock.
+     */
+    private void pump() {
+        refill();
+        while (!queue.isEmpty()) {
+            Ticket head = queue.peek();
+            if (running >= maxConcurrent) {
+                return; // A release pumps again
+            }
+            if (head.priority == Priority.BACKGROUND && backgroundRunning >= backgroundMaxConcurrent) {
+                return; // Head is background, so no live call is waiting behind it
+            }
+            // A request larger than the whole minute budget still goes once the bucket is full
+            double cost = Math.min(head.tokens, tokensPerMinute);
+            if (requestBudget < 1 || tokenBudget < cost) {
+                scheduleRefill(cost);
+                return;
+            }
+            requestBudget -= 1;
+            tokenBudget -= cost;
+            running++;
+            if (head.priority == Priority.BACKGROUND) {
+                backgroundRunning++;
+            }
+            queue.poll();
+            head.admitted.complete(null);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double minutes = (now - refilledAtNanos) / 60_000_000_000.0;
+        refilledAtNanos = now;
+        requestBudget = Math.min(requestsPerMinute, requestBudget + minutes * requestsPerMinute);
+        tokenBudget = Math.min(tokensPerMinute, tokenBudget + minutes * tokensPerMinute);
+    }
+
+    /**
+     * Pump again once both buckets will have refilled enough for the head of the queue
+     */
+    private void scheduleRefill(double cost) {
+        if (refillScheduled) {
+            return;
+        }
+        double requestMinutes = Math.max(0, 1 - requestBudget) / requestsPerMinute;
+        double tokenMinutes = Math.max(0, cost - tokenBudget) / tokensPerMinute;
+        long delayNanos = (long) (Math.max(requestMinutes, tokenMinutes) * 60_000_000_000.0) + 1;
+        refillScheduled = true;
+        refillTimer.schedule(() -> {
+            synchronized (this) {
+                refillScheduled = false;
+                pump();
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized int queued(Priority priority) {
+        return (int) queue.stream().filter(ticket -> ticket.priority == priority).count();
+    }
+
+    private synchronized int running() {
+        return running;
+    }
+
+    private void rejected(Priority priority) {
+        Counter.builder("llm.dispatch.rejected")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refillTimer.shutdownNow();
+    }
+
+    /**
+     * An admitted call's concurrency slot; release it exactly once when the call is done
+     * (idempotent). The budgets it used are not returned.
+     */
+    public final class Permit {
+        private final Priority priority;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Priority priority) {
+            this.priority = priority;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                synchronized (LlmDispatchScheduler.this) {
+                    running--;
+                    if (priority == Priority.BACKGROUND) {
+                        backgroundRunning--;
+                    }
+                    pump();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.ecall.auth.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache of LLM results, so a transcript that was already assessed is not
+ * sent to OpenAI again (console retries, page reloads, update-then-complete).
+ *
+ * Keys are {name}:{prompt version}:{SHA-256 of the transcript}: bumping a prompt version
+ * orphans its old entries. Entries expire openai.cache.ttl-minutes after they were written
+ * (also across restarts) and the cache is bounded to openai.cache.max-size entries.
+ * Failed calls (null result or exception) are not cached. Concurrent misses for the same
+ * key share one call. With openai.cache.persist-path set, entries are written there on
+ * shutdown and loaded again on startup.
+ * Lookups are counted as llm.cache.requests{name, result=hit|miss}.
+ */
+@Service
+@Slf4j
+public class LlmResultCache {
+
+    private record Entry(String json, long writtenAtMillis) {
+    }
+
+    record PersistedEntry(
+            @JsonProperty("key") String key,
+            @JsonProperty("json") String json,
+            @JsonProperty("written_at") long writtenAtMillis
+    ) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final Cache<String, Entry> results;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final Path persistPath;
+
+    public LlmResultCache(MeterRegistry meterRegistry,
+                          RequestCoalescer requestCoalescer,
+                          @Value("${openai.cache.enabled:true}") boolean enabled,
+                          @Value("${openai.cache.ttl-minutes:360}") long ttlMinutes,
+                          @Value("${openai.cache.max-size:5000}") long maxSize,
+                          @Value("${openai.cache.persist-path:}") String persistPath) {
+        this.meterRegistry = meterRegistry;
+        this.requestCoalescer = requestCoalescer;
+        this.enabled = enabled;
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.persistPath = persistPath == null || persistPath.isBlank() ? null : Path.of(persistPath);
+        this.results = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "llm.result");
+
+        log.info("LLM result cache {} - ttl: {}min, maxSize: {}, persist: {}",
+                enabled ? "enabled" : "disabled", ttlMinutes, maxSize, this.persistPath);
+    }
+
+    /**
+     * Cached result of an LLM call on a transcript
+     * @param name Result kind, e.g. "risk"; also the metric tag
+     * @param promptVersion Version of the prompt (and model) that produced the result
+     * @param type Result type, serialized as JSON
+     * @param call The LLM call, made on a miss; a null result is returned but not cached
+     */
+    public <T> T get(String name, String promptVersion, String transcript, Class<T> type, Supplier<T> call) {
+        if (!enabled || transcript == null || transcript.isEmpty()) {
+            return call.get();
+        }
+        String key = key(name, promptVersion, transcript);
+
+        T cached = read(name, key, type);
+        if (cached != null) {
+            return cached;
+        }
+        return requestCoalescer.coalesce("llm." + name, key, () -> {
+            T value = call.get();
+            write(name, key, value);
+            return value;
+        });
+    }
+
+    /**
+     * Cached result without making the call on a miss (for callers that make it themselves,
+     * e.g. streamed), or null
+     */
+    public <T> T peek(String name, String promptVersion, String transcript, Class<T> type) {
+        if (!enabled || transcript == null || transcript.isEmpty()) {
+            return null;
+        }
+        return read(name, key(name, promptVersion, transcript), type);
+    }
+
+    /**
+     * Store a result obtained outside {@link #get}
+     */
+    public void put(String name, String promptVersion, String transcript, Object value) {
+        if (enabled && transcript != null && !transcript.isEmpty()) {
+            write(name, key(name, promptVersion, transcript), value);
+        }
+    }
+
+    private <T> T read(String name, String key, Class<T> type) {
+        Entry cached = results.getIfPresent(key);
+        if (cached != null) {
+            try {
+                T value = objectMapper.readValue(cached.json(), type);
+                count(name, "hit");
+                return value;
+            } catch (IOException e) {
+                log.warn("Dropping unreadable cached {} result: {}", name, e.getMessage());
+                results.invalidate(key);
+            }
+        }
+        count(name, "miss");
+        return null;
+    }
+
+    private void write(String name, String key, Object value) {
+        if (value == null) {
+            return;
+        }
+        try {
+            results.put(key, new Entry(objectMapper.writeValueAsString(value), System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.warn("Not caching {} result: {}", name, e.getMessage());
+        }
+    }
+
+    private static String key(String name, String promptVersion, String transcript) {
+        return name + ":" + promptVersion + ":" + sha256(transcript);
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled || persistPath == null || !Files.exists(persistPath)) {
+            return;
+        }
+        try {
+            List<PersistedEntry> entries = objectMapper.readValue(persistPath.toFile(),
+                    new TypeReference<List<PersistedEntry>>() {
+                    });
+            long now = System.currentTimeMillis();
+            int loaded = 0;
+            for (PersistedEntry entry : entries) {
+                if (now - entry.writtenAtMillis() < ttlMillis) {
+                    results.put(entry.key(), new Entry(entry.json(), entry.writtenAtMillis()));
+                    loaded++;
+                }
+            }
+            log.info("Loaded {} of {} persisted LLM results from {}", loaded, entries.size(), persistPath);
+        } catch (IOException e) {
+            log.warn("Failed to load persisted LLM results from {}: {}", persistPath, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void save() {
+        if (!enabled || persistPath == null) {
+            return;
+        }
+        List<PersistedEntry> entries = new ArrayList<>();
+        results.asMap().forEach((key, entry) ->
+                entries.add(new PersistedEntry(key, entry.json(), entry.writtenAtMillis())));
+        try {
+            Path parent = persistPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // Write aside and rename, so a crash mid-write never leaves a truncated file
+            Path temp = Files.createTempFile(parent, "llm-results", ".tmp");
+            objectMapper.writeValue(temp.toFile(), entries);
+            Files.move(temp, persistPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Persisted {} LLM results to {}", entries.size(), persistPath);
+        } catch (IOException e) {
+            log.warn("Failed to persist LLM results to {}: {}", persistPath, e.getMessage());
+        }
+    }
+
+    private long remainingNanos(Entry entry) {
+        long remainingMillis = ttlMillis - (System.currentTimeMillis() - entry.writtenAtMillis());
+        return Duration.ofMillis(Math.max(0, remainingMillis)).toNanos();
+    }
+
+    private void count(String name, String result) {
+        Counter.builder("llm.cache.requests")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
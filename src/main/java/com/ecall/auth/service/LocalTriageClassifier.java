@@ -0,0 +1,164 @@
+package com.ecall.auth.service;
+
+import com.ecall.auth.dto.TriageResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provisional incident type and risk level from keyword matching, without any remote call.
+ *
+ * The keyword tables follow the Keywords lists of the classification and risk prompts
+ * ({@link IncidentTypeClassificationService#CATEGORY_GUIDELINES},
+ * {@link RiskLevelAssessmentService#SEVERITY_GUIDELINES}), with the Korean words in the
+ * forms they take in speech (e.g. 찔렸, 갇혔). All keywords are compiled into one
+ * {@link KeywordAutomaton}, so a transcript is classified in a single pass.
+ *
+ * Used for an immediate answer that the LLM later refines, and as the answer when OpenAI
+ * is slow or unavailable.
+ */
+@Service
+@Slf4j
+public class LocalTriageClassifier {
+
+    /**
+     * Tie-break order when several incident types score the same, following the critical
+     * classification rules (fire → disaster, weapons → crime, elevator / drowning → rescue)
+     */
+    private static final List<String> TYPE_PRIORITY = List.of("disaster", "crime", "rescue", "medical", "traffic", "other");
+
+    private static final Map<String, List<String>> TYPE_KEYWORDS = Map.of(
+            "disaster", List.of("화재", "불이", "불났", "불길", "불꽃", "연기", "폭발", "터졌", "지진", "붕괴", "무너",
+                    "홍수", "침수", "가스", "산사태",
+                    "fire", "smoke", "explosion", "earthquake", "collapse", "flood", "gas leak"),
+            "medical", List.of("심장마비", "심정지", "의식없", "의식이 없", "의식을 잃", "쓰러", "출혈", "피가", "호흡곤란",
+                    "숨을 못", "숨을 안", "숨이", "가슴통증", "가슴이 아", "경련", "발작", "구급차",
+                    "heart attack", "cardiac arrest", "unconscious", "bleeding", "breathing", "chest pain",
+                    "seizure", "ambulance"),
+            // Not a bare 칼, which also matches 칼국수
+            "crime", List.of("칼로", "칼을", "칼에", "칼 들", "흉기", "총을", "총기", "총소리", "폭행", "때려", "때렸",
+                    "강도", "납치", "찔렸", "찔러", "무기", "협박", "위협", "도둑", "침입", "쫓아", "스토킹",
+                    "knife", "gun", "assault", "robbery", "kidnap", "kidnapped", "stabbed", "weapon", "threat", "burglar",
+                    "burglary"),
+            "traffic", List.of("교통사고", "충돌", "차에 치", "치였", "뺑소니", "추돌", "오토바이",
+                    "car accident", "collision", "hit by a car", "crash"),
+            "rescue", List.of("갇혔", "갇혀", "갇힘", "끼였", "끼임", "엘리베이터", "승강기", "익수", "물에 빠", "매몰",
+                    "고립", "추락",
+                    "trapped", "stuck", "elevator", "drowning", "buried", "isolated", "locked in"),
+            "other", List.of("문의", "질문", "잘못 걸", "소음", "주차",
+                    "inquiry", "question", "wrong number", "noise complaint")
+    );
+
+    private static final Map<Integer, List<String>> RISK_KEYWORDS = Map.of(
+            5, List.of("심정지", "숨을 안", "호흡없", "호흡이 없", "의식없", "의식이 없", "대량출혈", "피가 많이", "칼에 찔",
+                    "찔렸", "총에 맞", "총을 쐈", "폭발", "불길이", "물에 빠", "익수", "매몰",
+                    "not breathing", "cardiac arrest", "unconscious", "severe bleeding", "shooting", "explosion",
+                    "drowning", "buried"),
+            4, List.of("칼로", "칼을", "칼에", "칼 들", "흉기", "총을", "총기", "무기", "쫓아", "따라오", "중상", "화재",
+                    "불이", "불났", "연기", "폭행", "때려", "위협", "협박", "피가", "추락", "살려",
+                    "weapon", "knife", "gun", "chase", "following", "serious injury", "fire", "smoke", "assault", "threat"),
+            3, List.of("경상", "다쳤", "부상", "사고", "넘어", "통증", "아파", "출혈", "갇혔", "갇혀", "끼였",
+                    "minor injury", "accident", "fell down", "pain", "bleeding", "trapped", "stuck"),
+            2, List.of("소음", "주차", "민원", "분쟁", "재산 피해", "시끄",
+                    "noise", "parking", "complaint", "dispute", "property damage"),
+            1, List.of("문의", "질문", "정보", "잘못 걸", "궁금",
+                    "inquiry", "question", "information", "wrong number")
+    );
+
+    /**
+     * What one keyword contributes: the incident types it indicates and the risk level it implies
+     */
+    private record KeywordRule(String keyword, Set<String> types, int riskLevel, boolean ascii) {
+    }
+
+    /**
+     * Provisional classification of a text
+     * @param incidentType Best matching incident type, or null if no type keyword matched
+     * @param riskLevel Highest risk level among the matches (1-5), or 0 if nothing matched
+     * @param matchedKeywords Distinct matched keywords in order of appearance
+     */
+    public record Classification(String incidentType, int riskLevel, List<String> matchedKeywords) {
+
+        /**
+         * As a triage result; with no risk keyword the level is the default 3, like the other fallbacks
+         */
+        public TriageResult toTriageResult() {
+            String reason = matchedKeywords.isEmpty()
+                    ? "No risk keywords found"
+                    : "Provisional keyword match: " + String.join(", ", matchedKeywords);
+            return new TriageResult(riskLevel > 0 ? riskLevel : 3, reason, incidentType, null, "local");
+        }
+    }
+
+    private final List<KeywordRule> rules;
+    private final KeywordAutomaton automaton;
+
+    public LocalTriageClassifier() {
+        Map<String, Set<String>> typesByKeyword = new HashMap<>();
+        TYPE_KEYWORDS.forEach((type, keywords) -> keywords.forEach(keyword ->
+                typesByKeyword.computeIfAbsent(keyword, k -> new LinkedHashSet<>()).add(type)));
+        Map<String, Integer> levelByKeyword = new HashMap<>();
+        RISK_KEYWORDS.forEach((level, keywords) -> keywords.forEach(keyword ->
+                levelByKeyword.merge(keyword, level, Math::max)));
+
+        Set<String> keywords = new LinkedHashSet<>(typesByKeyword.keySet());
+        keywords.addAll(levelByKeyword.keySet());
+
+        List<KeywordRule> built = new ArrayList<>();
+        for (String keyword : keywords) {
+            built.add(new KeywordRule(keyword,
+                    typesByKeyword.getOrDefault(keyword, Set.of()),
+                    levelByKeyword.getOrDefault(keyword, 0),
+                    keyword.chars().allMatch(c -> c < 128)));
+        }
+        this.rules = List.copyOf(built);
+        this.automaton = new KeywordAutomaton(rules.stream().map(KeywordRule::keyword).toList());
+
+        log.info("Local triage classifier compiled - {} keywords", rules.size());
+    }
+
+    /**
+     * Classify a transcript (or part of one)
+     */
+    public Classification classify(String text) {
+        if (text == null || text.isEmpty()) {
+            return new Classification(null, 0, List.of());
+        }
+        String lower = text.toLowerCase();
+
+        Map<String, Integer> typeScores = new HashMap<>();
+        Set<String> matched = new LinkedHashSet<>();
+        int[] riskLevel = {0};
+        automaton.scan(lower, (index, start, end) -> {
+            KeywordRule rule = rules.get(index);
+            // English keywords only count as whole words ("gun" must not match "begun")
+            if (rule.ascii() && !(isWordBoundary(lower, start - 1) && isWordBoundary(lower, end))) {
+                return;
+            }
+            matched.add(rule.keyword());
+            rule.types().forEach(type -> typeScores.merge(type, 1, Integer::sum));
+            riskLevel[0] = Math.max(riskLevel[0], rule.riskLevel());
+        });
+
+        String incidentType = null;
+        int best = 0;
+        for (String type : TYPE_PRIORITY) {
+            int score = typeScores.getOrDefault(type, 0);
+            if (score > best) {
+                best = score;
+                incidentType = type;
+            }
+        }
+        return new Classification(incidentType, riskLevel[0], List.copyOf(matched));
+    }
+
+    private static boolean isWordBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+}
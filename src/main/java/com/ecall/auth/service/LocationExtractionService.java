@@ -1,15 +1,19 @@
 package com.ecall.auth.service;
 
+import com.ecall.common.resilience.AiCallExecutor;
+import com.ecall.common.resilience.DependencyUnavailableException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service("authLocationExtractionService")
@@ -17,13 +21,26 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class LocationExtractionService {
 
+    /**
+     * Cache key version of the prompt; bump when the prompt or model changes
+     */
+    static final String PROMPT_VERSION = "location-v1";
+
+    @Qualifier("openAiRestTemplate")
     private final RestTemplate restTemplate;
     private final AddressService addressService;
+    private final LlmResultCache llmResultCache;
+    private final LlmDispatchScheduler llmDispatchScheduler;
+    private final AiCallExecutor aiCallExecutor;
+    private final GazetteerIndex gazetteerIndex;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${openai.api.key:}")
     private String openaiApiKey;
 
+    @Value("${location.gazetteer.skip-llm-when-confident:true}")
+    private boolean skipLlmWhenConfident;
+
     public String extractLocationFromTranscript(String transcript) {
         try {
             // If no OpenAI API key, fall back to simple extraction
@@ -32,8 +49,9 @@ public class LocationExtractionService {
                 return extractSimpleLocation(transcript);
             }
 
-            // Use OpenAI to extract location information
-            String extractedLocation = extractWithAI(transcript);
+            // Use OpenAI to extract location information, unless the gazetteer already knows it
+            String localLocation = confidentLocalLocation(transcript);
+            String extractedLocation = localLocation != null ? localLocation : extractWithAI(transcript);
 
             if (extractedLocation != null && !extractedLocation.isEmpty()) {
                 // Verify with Kakao Map API
@@ -49,7 +67,55 @@ public class LocationExtractionService {
         }
     }
 
+    /**
+     * Location as mentioned in the transcript, without resolving it to a formal address
+     */
+    public String extractLocationText(String transcript) {
+        if (openaiApiKey == null || openaiApiKey.isEmpty()) {
+            return extractSimpleLocation(transcript);
+        }
+        String localLocation = confidentLocalLocation(transcript);
+        if (localLocation != null) {
+            return localLocation;
+        }
+        try {
+            return extractWithAI(transcript);
+        } catch (DependencyUnavailableException e) {
+            log.warn("Location extraction unavailable ({}), using pattern matching", e.getMessage());
+            return extractSimpleLocation(transcript);
+        }
+    }
+
+    /**
+     * Gazetteer location specific enough to skip the AI (a 동 or road with its 구, or a road
+     * with its building number), or null
+     */
+    private String confidentLocalLocation(String transcript) {
+        if (!skipLlmWhenConfident) {
+            return null;
+        }
+        List<GazetteerIndex.Candidate> candidates = gazetteerIndex.candidates(transcript, 1);
+        if (candidates.isEmpty() || !candidates.get(0).confident()) {
+            return null;
+        }
+        log.info("Gazetteer location, skipping AI extraction: {} ({})",
+                candidates.get(0).address(), candidates.get(0).code());
+        return candidates.get(0).address();
+    }
+
+    /**
+     * AI extraction, answered from the cache for identical transcripts
+     */
     private String extractWithAI(String transcript) {
+        String location = llmResultCache.get("location", PROMPT_VERSION, transcript, String.class,
+                () -> requestLocation(transcript));
+        return location != null && !location.isEmpty() ? location : null;
+    }
+
+    /**
+     * @return The extracted location, "" if the transcript names none, null if the call failed
+     */
+    private String requestLocation(String transcript) {
         try {
             String url = "https://api.openai.com/v1/chat/completions";
 
@@ -76,12 +142,9 @@ public class LocationExtractionService {
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            ResponseEntity<String> response = aiCallExecutor.hedged("openai", "location",
+                    llmDispatchScheduler.admission(LlmDispatchScheduler.estimateTokens(100, systemPrompt, userPrompt)),
+                    () -> restTemplate.exchange(url, HttpMethod.POST, entity, String.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 JsonNode root = objectMapper.readTree(response.getBody());
@@ -94,11 +157,16 @@ public class LocationExtractionService {
                         log.info("AI extracted location: {}", content);
                         return content;
                     }
+                    // A definite "no location" answer is cached too
+                    return "";
                 }
             }
 
             return null;
 
+        } catch (DependencyUnavailableException e) {
+            // Not cached; the caller falls back to pattern matching
+            throw e;
         } catch (Exception e) {
             log.error("Error calling OpenAI API: {}", e.getMessage());
             return null;
@@ -106,7 +174,14 @@ public class LocationExtractionService {
     }
 
     private String extractSimpleLocation(String text) {
-        // Fallback: simple pattern matching for explicit addresses
+        // Fallback: gazetteer lookup, down to the 시/군/구
+        for (GazetteerIndex.Candidate candidate : gazetteerIndex.candidates(text, 1)) {
+            if (candidate.level() != GazetteerIndex.Level.SIDO) {
+                return candidate.address();
+            }
+        }
+
+        // Then simple pattern matching for explicit addresses outside the gazetteer
         // Pattern for Korean address
         java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
                 "([가-힣]+(?:시|도)\\s*[가-힣]+(?:구|군)\\s*[가-힣]+(?:동|읍|면)\\s*\\d+[-\\d]*)"
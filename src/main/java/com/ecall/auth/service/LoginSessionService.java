@@ -0,0 +1,75 @@
+package com.ecall.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived verified-session tokens, so console reconnects can log in again without
+ * another BCrypt verification.
+ *
+ * A token is issued after a successful password check and is bound to the operator and to
+ * the stored password hash it was verified against: changing the password invalidates it.
+ * Tokens live in memory only (lost on restart, then the password is checked again).
+ */
+@Service
+@Slf4j
+public class LoginSessionService {
+
+    private record Session(String operatorId, String passwordHash) {
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Session> sessions;
+    private final boolean enabled;
+
+    public LoginSessionService(MeterRegistry meterRegistry,
+                               @Value("${auth.session.enabled:true}") boolean enabled,
+                               @Value("${auth.session.ttl-minutes:15}") long ttlMinutes,
+                               @Value("${auth.session.max-size:2000}") long maxSize) {
+        this.enabled = enabled;
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "auth.session");
+
+        log.info("Login session tokens {} - ttl: {}min", enabled ? "enabled" : "disabled", ttlMinutes);
+    }
+
+    /**
+     * Issue a token for an operator whose password was just verified (null if disabled)
+     */
+    public String issue(String operatorId, String passwordHash) {
+        if (!enabled) {
+            return null;
+        }
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(operatorId, passwordHash));
+        return token;
+    }
+
+    /**
+     * Whether the token was issued to this operator for this (still current) password hash
+     */
+    public boolean isValid(String token, String operatorId, String passwordHash) {
+        if (!enabled || token == null || token.isEmpty()) {
+            return false;
+        }
+        Session session = sessions.getIfPresent(token);
+        return session != null
+                && session.operatorId().equals(operatorId)
+                && session.passwordHash().equals(passwordHash);
+    }
+}
@@ -1,21 +1,22 @@
 package com.ecall.auth.service;
 
 import com.ecall.auth.config.SupabaseConfig;
+import com.ecall.auth.dto.MediaAssetRecord;
 import com.ecall.auth.dto.MediaAssetResponse;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecall.auth.repository.MediaAssetRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.lang.reflect.Field;
-import java.net.HttpURLConnection;
-import java.util.Base64;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -25,32 +26,23 @@ public class MediaAssetService {
 
     private final SupabaseConfig supabaseConfig;
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    public MediaAssetService(SupabaseConfig supabaseConfig) {
+    private final MediaAssetRepository mediaAssetRepository;
+    private final OperatorDirectory operatorDirectory;
+    private final SupabaseStorageService supabaseStorageService;
+
+    private static final String PHOTO_BUCKET = "operator-photos";
+    private static final String AUDIO_BUCKET = "emergency-audio";
+
+    public MediaAssetService(SupabaseConfig supabaseConfig,
+                             @Qualifier("supabaseRestTemplate") RestTemplate restTemplate,
+                             MediaAssetRepository mediaAssetRepository,
+                             OperatorDirectory operatorDirectory,
+                             SupabaseStorageService supabaseStorageService) {
         this.supabaseConfig = supabaseConfig;
-
-        // Create RestTemplate with PATCH support
-        this.restTemplate = new RestTemplate();
-        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
-        // Note: setBufferRequestBody is deprecated in newer Spring versions
-        // For small files (photos, audio), buffering is acceptable
-
-        // Enable PATCH method via reflection
-        try {
-            Field methodsField = HttpURLConnection.class.getDeclaredField("methods");
-            methodsField.setAccessible(true);
-            String[] methods = (String[]) methodsField.get(null);
-            String[] newMethods = new String[methods.length + 1];
-            System.arraycopy(methods, 0, newMethods, 0, methods.length);
-            newMethods[methods.length] = "PATCH";
-            methodsField.set(null, newMethods);
-            log.info("PATCH method enabled for HttpURLConnection");
-        } catch (Exception e) {
-            log.warn("Failed to enable PATCH method: {}", e.getMessage());
-        }
-
-        this.restTemplate.setRequestFactory(requestFactory);
+        this.restTemplate = restTemplate;
+        this.mediaAssetRepository = mediaAssetRepository;
+        this.operatorDirectory = operatorDirectory;
+        this.supabaseStorageService = supabaseStorageService;
     }
 
     public MediaAssetResponse uploadPhoto(MultipartFile file, String operatorId) {
@@ -76,33 +68,12 @@ public class MediaAssetService {
             }
             String filename = "operator_photos/" + UUID.randomUUID() + extension;
 
-            // Upload to Supabase Storage
-            String storageUrl = supabaseConfig.getSupabaseUrl() + "/storage/v1/object/operator-photos/" + filename;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<byte[]> entity = new HttpEntity<>(file.getBytes(), headers);
-
-            ResponseEntity<String> uploadResponse = restTemplate.exchange(
-                    storageUrl,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
-
-            if (!uploadResponse.getStatusCode().is2xxSuccessful()) {
-                log.error("Failed to upload file to storage: {}", uploadResponse.getBody());
-                return MediaAssetResponse.builder()
-                        .success(false)
-                        .message("Failed to upload file to storage")
-                        .build();
-            }
+            // Upload to Supabase Storage (streamed from the multipart part)
+            supabaseStorageService.upload(PHOTO_BUCKET, filename, file.getResource(), file.getSize(),
+                    MediaType.APPLICATION_OCTET_STREAM_VALUE);
 
             // Get public URL
-            String publicUrl = supabaseConfig.getSupabaseUrl() + "/storage/v1/object/public/operator-photos/" + filename;
+            String publicUrl = supabaseStorageService.publicUrl(PHOTO_BUCKET, filename);
 
             // Create media_asset record
             String assetId = "asset-" + UUID.randomUUID().toString();
@@ -171,52 +142,31 @@ public class MediaAssetService {
         try {
             log.info("Attempting to update operator photo_id - operatorId: {}, photoId: {}", operatorId, photoId);
 
-            String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
-            java.net.URL urlObj = new java.net.URL(url);
-            HttpURLConnection conn = (HttpURLConnection) urlObj.openConnection();
-
-            // Set PATCH method using reflection workaround
-            try {
-                conn.setRequestMethod("PATCH");
-            } catch (java.net.ProtocolException e) {
-                // If PATCH is not supported, use X-HTTP-Method-Override
-                conn.setRequestMethod("POST");
-                conn.setRequestProperty("X-HTTP-Method-Override", "PATCH");
-            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("apikey", supabaseConfig.getSupabaseKey());
+            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+            headers.set("Prefer", "return=representation");
 
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("apikey", supabaseConfig.getSupabaseKey());
-            conn.setRequestProperty("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-            conn.setRequestProperty("Prefer", "return=representation");
-            conn.setDoOutput(true);
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("photo_id", photoId);
 
-            // Create JSON body
-            String jsonBody = "{\"photo_id\":\"" + photoId + "\"}";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(updates, headers);
 
-            try (java.io.OutputStream os = conn.getOutputStream()) {
-                byte[] input = jsonBody.getBytes("utf-8");
-                os.write(input, 0, input.length);
-            }
+            String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
+
+            ResponseEntity<String> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.PATCH,
+                    entity,
+                    String.class
+            );
 
-            int responseCode = conn.getResponseCode();
-            log.info("Updated operator photo_id - Response code: {}", responseCode);
+            operatorDirectory.invalidateOperators(List.of(operatorId));
 
-            if (responseCode >= 200 && responseCode < 300) {
-                log.info("Successfully updated operator photo_id for operator: {}", operatorId);
-            } else {
-                // Read error response
-                try (java.io.BufferedReader br = new java.io.BufferedReader(
-                        new java.io.InputStreamReader(conn.getErrorStream(), "utf-8"))) {
-                    StringBuilder response = new StringBuilder();
-                    String responseLine;
-                    while ((responseLine = br.readLine()) != null) {
-                        response.append(responseLine.trim());
-                    }
-                    log.error("Failed to update operator photo_id: {}", response.toString());
-                }
-            }
+            log.info("Updated operator photo_id - Response code: {}", response.getStatusCode().value());
+            log.info("Successfully updated operator photo_id for operator: {}", operatorId);
 
-            conn.disconnect();
         } catch (Exception e) {
             log.error("Error updating operator photo_id - operatorId: {}, photoId: {}, Error: {}",
                 operatorId, photoId, e.getMessage(), e);
@@ -225,8 +175,9 @@ public class MediaAssetService {
 
     /**
      * Save audio/media file to storage and create media_asset record
+     * @param file Local file, streamed to storage (resumable upload if large)
      */
-    public String saveMediaAsset(String filename, String contentType, byte[] fileBytes, String uploadedBy) {
+    public String saveMediaAsset(String filename, String contentType, Path file, String uploadedBy) {
         try {
             // Generate unique filename
             String extension = "";
@@ -241,29 +192,12 @@ public class MediaAssetService {
             String storagePath = "audio/" + UUID.randomUUID() + extension;
 
             // Upload to Supabase Storage
-            String storageUrl = supabaseConfig.getSupabaseUrl() + "/storage/v1/object/emergency-audio/" + storagePath;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<byte[]> entity = new HttpEntity<>(fileBytes, headers);
-
-            ResponseEntity<String> uploadResponse = restTemplate.exchange(
-                    storageUrl,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
-
-            if (!uploadResponse.getStatusCode().is2xxSuccessful()) {
-                log.error("Failed to upload file to storage: {}", uploadResponse.getBody());
-                return null;
-            }
+            long fileSize = Files.size(file);
+            supabaseStorageService.upload(AUDIO_BUCKET, storagePath, new FileSystemResource(file), fileSize,
+                    MediaType.APPLICATION_OCTET_STREAM_VALUE);
 
             // Get public URL
-            String publicUrl = supabaseConfig.getSupabaseUrl() + "/storage/v1/object/public/emergency-audio/" + storagePath;
+            String publicUrl = supabaseStorageService.publicUrl(AUDIO_BUCKET, storagePath);
 
             // Create media_asset record
             String assetId = "asset-" + UUID.randomUUID().toString();
@@ -286,7 +220,7 @@ public class MediaAssetService {
             assetData.put("file_path", storagePath);
             assetData.put("file_url", publicUrl);
             assetData.put("file_type", fileType);
-            assetData.put("file_size", fileBytes.length);
+            assetData.put("file_size", fileSize);
             assetData.put("file_extension", fileExtension);
             assetData.put("upload_at", java.time.Instant.now().toString());
 
@@ -321,26 +255,9 @@ public class MediaAssetService {
                 return null;
             }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            String url = supabaseConfig.getApiUrl() + "/media_asset?id=eq." + photoId;
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            if (!jsonArray.isEmpty()) {
-                return jsonArray.get(0).get("file_url").asText();
-            }
-
-            return null;
+            return mediaAssetRepository.findById(photoId)
+                    .map(MediaAssetRecord::fileUrl)
+                    .orElse(null);
         } catch (Exception e) {
             log.error("Error getting photo URL", e);
             return null;
@@ -0,0 +1,178 @@
+package com.ecall.auth.service;
+
+import com.ecall.auth.dto.DispatchForceRecord;
+import com.ecall.auth.dto.OperatorRecord;
+import com.ecall.auth.repository.DispatchForceRepository;
+import com.ecall.auth.repository.OperatorRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through, in-process cache of the operator and dispatch_force tables.
+ *
+ * Rows are cached by id (size bounded, expire after write) and list queries are cached
+ * by their filter. Services that write either table must call the matching invalidate*
+ * method right after the write, so counts computed afterwards see fresh data.
+ * Hit/miss counts are published as cache.gets{cache=...} metrics.
+ */
+@Service
+@Slf4j
+public class OperatorDirectory {
+
+    private final OperatorRepository operatorRepository;
+    private final DispatchForceRepository dispatchForceRepository;
+
+    private final Cache<String, OperatorRecord> operatorsById;
+    private final Cache<String, List<OperatorRecord>> operatorQueries;
+    private final Cache<String, DispatchForceRecord> dispatchForcesById;
+    private final Cache<String, List<DispatchForceRecord>> dispatchForceQueries;
+
+    // Bumped by every invalidation; readers derived from the directory key coalesced reads on it
+    private final AtomicLong generation = new AtomicLong();
+
+    public OperatorDirectory(OperatorRepository operatorRepository,
+                             DispatchForceRepository dispatchForceRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${directory.cache.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${directory.cache.max-rows:5000}") long maxRows,
+                             @Value("${directory.cache.max-queries:256}") long maxQueries) {
+        this.operatorRepository = operatorRepository;
+        this.dispatchForceRepository = dispatchForceRepository;
+
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.operatorsById = build(ttl, maxRows);
+        this.operatorQueries = build(ttl, maxQueries);
+        this.dispatchForcesById = build(ttl, maxRows);
+        this.dispatchForceQueries = build(ttl, maxQueries);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, operatorsById, "directory.operator.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, operatorQueries, "directory.operator.queries");
+        CaffeineCacheMetrics.monitor(meterRegistry, dispatchForcesById, "directory.dispatchForce.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, dispatchForceQueries, "directory.dispatchForce.queries");
+
+        log.info("Operator directory cache initialized - ttl: {}s, maxRows: {}, maxQueries: {}",
+                ttlSeconds, maxRows, maxQueries);
+    }
+
+    private static <V> Cache<String, V> build(Duration ttl, long maximumSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Changes whenever operators or dispatch forces were written through this application
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    // ===== operator =====
+
+    public OperatorRecord findOperator(String operatorId) {
+        // A null mapping result is not stored, so unknown ids are retried next time
+        return operatorsById.get(operatorId, id -> operatorRepository.findById(id).orElse(null));
+    }
+
+    /**
+     * Operators by id; ids missing from the cache are loaded in one id=in.(...) request
+     */
+    public Map<String, OperatorRecord> findOperators(Collection<String> operatorIds) {
+        if (operatorIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return operatorsById.getAll(operatorIds, missing -> {
+            Map<String, OperatorRecord> loaded = new HashMap<>();
+            for (OperatorRecord operator : operatorRepository.findByIds(new ArrayList<>(missing), "*")) {
+                loaded.put(operator.id(), operator);
+            }
+            return loaded;
+        });
+    }
+
+    public List<OperatorRecord> findAllOperators() {
+        return queryOperators("*", () -> operatorRepository.findAll("*"));
+    }
+
+    public List<OperatorRecord> findOperatorsByRole(String role) {
+        return queryOperators("role=" + role, () -> operatorRepository.findByRole(role, "*"));
+    }
+
+    public List<OperatorRecord> findOperatorsByOrganizationCode(String organizationCode) {
+        return queryOperators("organization_code=" + organizationCode,
+                () -> operatorRepository.findByOrganizationCode(organizationCode));
+    }
+
+    public List<OperatorRecord> findOperatorsByOrganizationName(String organizationName) {
+        return queryOperators("organization_name=" + organizationName,
+                () -> operatorRepository.findByOrganizationName(organizationName));
+    }
+
+    /**
+     * Operators whose organization column is one of the keys (projection: id + that column)
+     */
+    public List<OperatorRecord> findOperatorsByOrganizationIn(String column, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> sortedKeys = new ArrayList<>(keys);
+        Collections.sort(sortedKeys);
+        return queryOperators(column + "_in=" + String.join("\u0000", sortedKeys),
+                () -> operatorRepository.findByOrganizationIn(column, keys));
+    }
+
+    private List<OperatorRecord> queryOperators(String key, Supplier<List<OperatorRecord>> loader) {
+        return operatorQueries.get(key, k -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Drop the given operators and every cached operator list (memberships may have changed)
+     */
+    public void invalidateOperators(Collection<String> operatorIds) {
+        generation.incrementAndGet();
+        operatorsById.invalidateAll(operatorIds);
+        operatorQueries.invalidateAll();
+        log.debug("Invalidated {} operators and all operator queries", operatorIds.size());
+    }
+
+    /**
+     * Drop every cached operator list, e.g. after a new operator was registered
+     */
+    public void invalidateOperatorQueries() {
+        generation.incrementAndGet();
+        operatorQueries.invalidateAll();
+    }
+
+    // ===== dispatch_force =====
+
+    public Optional<DispatchForceRecord> findDispatchForce(String dispatchForceId) {
+        return Optional.ofNullable(dispatchForcesById.get(dispatchForceId,
+                id -> dispatchForceRepository.findById(id).orElse(null)));
+    }
+
+    public List<DispatchForceRecord> findDispatchForcesByType(String type, String order) {
+        return dispatchForceQueries.get(type + "|" + order,
+                k -> List.copyOf(dispatchForceRepository.findByType(type, order)));
+    }
+
+    /**
+     * Drop one unit / intake desk and every cached dispatch_force list
+     */
+    public void invalidateDispatchForce(String dispatchForceId) {
+        generation.incrementAndGet();
+        dispatchForcesById.invalidate(dispatchForceId);
+        dispatchForceQueries.invalidateAll();
+    }
+}
@@ -5,18 +5,23 @@ import com.ecall.auth.dto.LoginRequest;
 import com.ecall.auth.dto.LoginResponse;
 import com.ecall.auth.dto.OperatorRegistrationRequest;
 import com.ecall.auth.dto.OperatorRegistrationResponse;
+import com.ecall.common.instrumentation.OutboundCallLedger;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -24,9 +29,12 @@ import java.util.UUID;
 public class OperatorService {
 
     private final SupabaseConfig supabaseConfig;
+    @Qualifier("supabaseRestTemplate")
     private final RestTemplate restTemplate;
     private final MediaAssetService mediaAssetService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final OperatorDirectory operatorDirectory;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final LoginSessionService loginSessionService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public OperatorRegistrationResponse registerOperator(OperatorRegistrationRequest request) {
@@ -39,8 +47,8 @@ public class OperatorService {
                         .build();
             }
 
-            // Hash password
-            String hashedPassword = passwordEncoder.encode(request.getPassword());
+            // Hash password (on the bounded hash pool, like login)
+            String hashedPassword = passwordHashExecutor.encode(request.getPassword()).join();
 
             // Generate custom ID: op-{uuid}
             String customId = "op-" + UUID.randomUUID().toString();
@@ -81,6 +89,9 @@ public class OperatorService {
                     String.class
             );
 
+            // New operator shows up in role / organization listings
+            operatorDirectory.invalidateOperatorQueries();
+
             log.info("Operator registered successfully: {} with id: {}", request.getName(), customId);
 
             return OperatorRegistrationResponse.builder()
@@ -99,97 +110,129 @@ public class OperatorService {
         }
     }
 
-    public LoginResponse login(LoginRequest request) {
-        try {
-            // Query Supabase to find operator by operator_id
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/operator?operator_id=eq." + request.getOperatorId();
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
+    /**
+     * Log an operator in. The operator lookup runs on a worker thread and the BCrypt check on
+     * the {@link PasswordHashExecutor}, so no request thread is held meanwhile. A session token
+     * from an earlier login of the same operator skips the BCrypt check.
+     * Fails with RejectedExecutionException when the password hash pool refuses the check.
+     */
+    public Mono<LoginResponse> login(LoginRequest request) {
+        return Mono.deferContextual(context -> {
+                    OutboundCallLedger ledger = OutboundCallLedger.from(context);
+                    return blocking(ledger, () -> findOperatorForLogin(request.getOperatorId()))
+                            .flatMap(operatorData -> verifyLogin(request, operatorData, ledger))
+                            .switchIfEmpty(Mono.fromSupplier(() -> {
+                                log.warn("Login failed: Operator ID not found: {}", request.getOperatorId());
+                                return loginFailed("Invalid operator ID or password");
+                            }));
+                })
+                .onErrorResume(e -> !(e instanceof RejectedExecutionException), e -> {
+                    log.error("Error during login", e);
+                    return Mono.just(loginFailed("Login failed: " + e.getMessage()));
+                });
+    }
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
+    /**
+     * Query Supabase to find operator by operator_id (null if not found)
+     */
+    private JsonNode findOperatorForLogin(String operatorId) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("apikey", supabaseConfig.getSupabaseKey());
+        headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+
+        String url = supabaseConfig.getApiUrl() + "/operator?operator_id=eq." + operatorId;
+
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Parse response
+        JsonNode jsonArray = objectMapper.readTree(response.getBody());
+        return jsonArray.isEmpty() ? null : jsonArray.get(0);
+    }
 
-            // Parse response
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
+    private Mono<LoginResponse> verifyLogin(LoginRequest request, JsonNode operatorData, OutboundCallLedger ledger) {
+        String storedPassword = operatorData.get("password").asText();
+        boolean isActive = operatorData.get("is_active").asBoolean();
 
-            if (jsonArray.isEmpty()) {
-                log.warn("Login failed: Operator ID not found: {}", request.getOperatorId());
-                return LoginResponse.builder()
-                        .success(false)
-                        .message("Invalid operator ID or password")
-                        .build();
-            }
+        // Check if operator is active
+        if (!isActive) {
+            log.warn("Login failed: Operator is inactive: {}", request.getOperatorId());
+            return Mono.just(loginFailed("Account is inactive"));
+        }
 
-            JsonNode operatorData = jsonArray.get(0);
-            String storedPassword = operatorData.get("password").asText();
-            boolean isActive = operatorData.get("is_active").asBoolean();
+        // Reconnect with a token from an earlier login: no need to hash again
+        if (loginSessionService.isValid(request.getSessionToken(), request.getOperatorId(), storedPassword)) {
+            log.info("Login via session token: {}", request.getOperatorId());
+            return blocking(ledger, () -> loginSucceeded(request, operatorData, request.getSessionToken()));
+        }
 
-            // Check if operator is active
-            if (!isActive) {
-                log.warn("Login failed: Operator is inactive: {}", request.getOperatorId());
-                return LoginResponse.builder()
-                        .success(false)
-                        .message("Account is inactive")
-                        .build();
-            }
+        // Verify password
+        return Mono.fromFuture(passwordHashExecutor.matches(request.getPassword(), storedPassword))
+                .flatMap(matches -> {
+                    if (!matches) {
+                        log.warn("Login failed: Invalid password for operator: {}", request.getOperatorId());
+                        return Mono.just(loginFailed("Invalid operator ID or password"));
+                    }
+                    String sessionToken = loginSessionService.issue(request.getOperatorId(), storedPassword);
+                    // Back off the hash pool for the photo lookup
+                    return blocking(ledger, () -> loginSucceeded(request, operatorData, sessionToken));
+                });
+    }
 
-            // Verify password
-            if (!passwordEncoder.matches(request.getPassword(), storedPassword)) {
-                log.warn("Login failed: Invalid password for operator: {}", request.getOperatorId());
-                return LoginResponse.builder()
-                        .success(false)
-                        .message("Invalid operator ID or password")
-                        .build();
-            }
+    private LoginResponse loginSucceeded(LoginRequest request, JsonNode operatorData, String sessionToken) {
+        String name = operatorData.get("name").asText();
+        String id = operatorData.get("id").asText();
+        String role = operatorData.has("role") && !operatorData.get("role").isNull()
+                ? operatorData.get("role").asText() : null;
+        String organizationCode = operatorData.has("organization_code") && !operatorData.get("organization_code").isNull()
+                ? operatorData.get("organization_code").asText() : null;
+        String organizationName = operatorData.has("organization_name") && !operatorData.get("organization_name").isNull()
+                ? operatorData.get("organization_name").asText() : null;
+        String joinDate = operatorData.has("join_date") && !operatorData.get("join_date").isNull()
+                ? operatorData.get("join_date").asText() : null;
+        String photoId = operatorData.has("photo_id") && !operatorData.get("photo_id").isNull()
+                ? operatorData.get("photo_id").asText() : null;
+
+        // Get photo URL if photo_id exists
+        String photoUrl = photoId != null ? mediaAssetService.getPhotoUrl(photoId) : null;
+
+        log.info("Login successful: {} (ID: {})", request.getOperatorId(), id);
+
+        return LoginResponse.builder()
+                .success(true)
+                .message("Login successful")
+                .operatorId(request.getOperatorId())
+                .name(name)
+                .id(id)
+                .role(role)
+                .organizationCode(organizationCode)
+                .organizationName(organizationName)
+                .joinDate(joinDate)
+                .photoUrl(photoUrl)
+                .sessionToken(sessionToken)
+                .build();
+    }
 
-            // Login successful
-            String name = operatorData.get("name").asText();
-            String id = operatorData.get("id").asText();
-            String role = operatorData.has("role") && !operatorData.get("role").isNull()
-                    ? operatorData.get("role").asText() : null;
-            String organizationCode = operatorData.has("organization_code") && !operatorData.get("organization_code").isNull()
-                    ? operatorData.get("organization_code").asText() : null;
-            String organizationName = operatorData.has("organization_name") && !operatorData.get("organization_name").isNull()
-                    ? operatorData.get("organization_name").asText() : null;
-            String joinDate = operatorData.has("join_date") && !operatorData.get("join_date").isNull()
-                    ? operatorData.get("join_date").asText() : null;
-            String photoId = operatorData.has("photo_id") && !operatorData.get("photo_id").isNull()
-                    ? operatorData.get("photo_id").asText() : null;
-
-            // Get photo URL if photo_id exists
-            String photoUrl = photoId != null ? mediaAssetService.getPhotoUrl(photoId) : null;
-
-            log.info("Login successful: {} (ID: {})", request.getOperatorId(), id);
-
-            return LoginResponse.builder()
-                    .success(true)
-                    .message("Login successful")
-                    .operatorId(request.getOperatorId())
-                    .name(name)
-                    .id(id)
-                    .role(role)
-                    .organizationCode(organizationCode)
-                    .organizationName(organizationName)
-                    .joinDate(joinDate)
-                    .photoUrl(photoUrl)
-                    .build();
+    private static LoginResponse loginFailed(String message) {
+        return LoginResponse.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
 
-        } catch (Exception e) {
-            log.error("Error during login", e);
-            return LoginResponse.builder()
-                    .success(false)
-                    .message("Login failed: " + e.getMessage())
-                    .build();
-        }
+    /**
+     * Run a blocking Supabase call on a worker thread, counted towards the caller's request
+     */
+    private static <V> Mono<V> blocking(OutboundCallLedger ledger, Callable<V> work) {
+        return Mono.fromCallable(() -> OutboundCallLedger.callWith(ledger, work))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 
 }
@@ -0,0 +1,109 @@
+package com.ecall.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded CPU pool for BCrypt hashing, so a burst of logins (e.g. at shift change) is hashed
+ * at most one per core instead of on request threads.
+ *
+ * Admission control: a hash is refused with {@link RejectedExecutionException} when the queue
+ * is full, or dropped when it waited longer than auth.password.max-queue-wait-ms (the client
+ * has most likely given up by then). Queue depth and activity are exported as
+ * executor.*{name=auth.password}, queue wait as auth.password.queue.wait and refusals as
+ * auth.password.rejected{reason}.
+ */
+@Service
+@Slf4j
+public class PasswordHashExecutor {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final long maxQueueWaitNanos;
+
+    public PasswordHashExecutor(MeterRegistry meterRegistry,
+                                @Value("${auth.password.pool-size:0}") int poolSize,
+                                @Value("${auth.password.queue-capacity:256}") int queueCapacity,
+                                @Value("${auth.password.max-queue-wait-ms:5000}") long maxQueueWaitMs) {
+        // 0 = one thread per core
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "auth.password");
+        this.meterRegistry = meterRegistry;
+        this.queueWait = Timer.builder("auth.password.queue.wait").register(meterRegistry);
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+
+        log.info("Password hash executor initialized - poolSize: {}, queueCapacity: {}, maxQueueWait: {}ms",
+                threads, queueCapacity, maxQueueWaitMs);
+    }
+
+    /**
+     * Check a raw password against a stored BCrypt hash
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash a new password
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> hash) {
+        long enqueued = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long waited = System.nanoTime() - enqueued;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    rejected("expired");
+                    throw new RejectedExecutionException("Password hash expired in queue after "
+                            + TimeUnit.NANOSECONDS.toMillis(waited) + "ms");
+                }
+                return hash.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected("queue-full");
+            log.warn("Password hash rejected - {} queued", pool.getQueue().size());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void rejected(String reason) {
+        Counter.builder("auth.password.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
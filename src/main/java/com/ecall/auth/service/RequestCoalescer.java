@@ -0,0 +1,107 @@
+package com.ecall.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical concurrent reads.
+ *
+ * The first caller for a key runs the computation; callers arriving while it is in flight
+ * wait for and share its result (or its exception) instead of repeating the upstream
+ * fan-out. Nothing is cached: once the computation completes the key is free again.
+ * Callers put a write generation into the key, so a read that starts after a write never
+ * joins a computation that started before it.
+ * Calls are counted as coalescer.calls{key, role=leader|follower}.
+ */
+@Service
+@Slf4j
+public class RequestCoalescer {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run (or join) a blocking computation
+     * @param name Metric name of the read, e.g. "units"
+     * @param key Identity of the read; calls with the same key share one computation
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String name, String key, Supplier<T> work) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+
+        if (running != null) {
+            counter(name, "follower").increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+
+        counter(name, "leader").increment();
+        try {
+            T result = work.get();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors too: followers must never be left waiting on an incomplete future
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Run (or join) a reactive computation. The shared computation is not cancelled when
+     * one subscriber goes away, since other callers may still be waiting on it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesceMono(String name, String key, Supplier<Mono<T>> work) {
+        return Mono.deferContextual(context -> {
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+
+            if (running != null) {
+                counter(name, "follower").increment();
+                return Mono.fromFuture((CompletableFuture<T>) (CompletableFuture<?>) running, true);
+            }
+
+            counter(name, "leader").increment();
+            // Subscribed here rather than by the caller, so hand the caller's context over
+            Mono.defer(work).contextWrite(context).toFuture().whenComplete((result, error) -> {
+                inFlight.remove(key, mine);
+                if (error != null) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(result);
+                }
+            });
+            return Mono.fromFuture((CompletableFuture<T>) (CompletableFuture<?>) mine, true);
+        });
+    }
+
+    private Counter counter(String name, String role) {
+        return Counter.builder("coalescer.calls")
+                .tag("key", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -1,9 +1,13 @@
 package com.ecall.auth.service;
 
+import com.ecall.common.resilience.AiCallExecutor;
+import com.ecall.common.resilience.DependencyUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -18,7 +22,58 @@ import java.util.Map;
 @Slf4j
 public class RiskLevelAssessmentService {
 
+    /**
+     * Severity scale and assessment rules, shared with the unified triage prompt
+     */
+    static final String SEVERITY_GUIDELINES = """
+        **Severity Level Guidelines (위험도 5단계 기준):**
+
+        **Level 5 (최고): Immediate Life Threat (즉시 생명 위협)**
+        - Examples: Cardiac arrest (심정지), Active stabbing/shooting (칼부림/총격 현행범), Severe building fire (건물 전소)
+        - Keywords: not breathing(호흡없음), cardiac arrest(심정지), unconscious(의식없음), severe bleeding(대량출혈),
+                    active weapon use(무기 사용 중), building on fire(건물 화재), explosion(폭발)
+
+        **Level 4 (높음): Severe/Urgent - Can worsen if delayed (중증/긴급 - 지체 시 악화 가능)**
+        - Examples: Serious injuries(중상), assault in progress(폭행 진행 중), weapon threats(무기 위협),
+                    someone being chased(추격당함), fire with smoke(연기가 있는 화재)
+        - Keywords: weapon(무기), knife(칼), gun(총), chase(쫓음), following(뒤따름), serious injury(중상),
+                    fire(불), smoke(연기), assault(폭행), threat(위협)
+        - Context: Danger is present and active
+
+        **Level 3 (보통): Moderate Accident/Patient (보통 사고/환자 - 급격 악화 징후 적음)**
+        - Examples: Minor injuries(경상), minor car accident(경미한 교통사고), mild pain(가벼운 통증)
+        - Keywords: minor injury(경미한 부상), small accident(작은 사고), fell down(넘어짐), minor bleeding(가벼운 출혈)
+        - Context: Stable situation, no immediate threat
+
+        **Level 2 (낮음): Minor/Confirmation Request (경미/확인 요청 - 현재 위험 거의 없음)**
+        - Examples: Property damage(재산 피해), noise complaint(소음 민원), minor dispute(사소한 분쟁)
+        - Keywords: noise(소음), parking(주차), complaint(민원), check(확인), information(정보)
+
+        **Level 1 (최저): No Dispatch Needed (출동 불필요 - 기록/이관할 민원성 신고)**
+        - Examples: General inquiry(일반 문의), information request(정보 요청), wrong number(오인 신고)
+        - Keywords: inquiry(문의), question(질문), information(정보), wrong call(잘못 건 전화)
+
+        **Assessment Rules:**
+        1. Look for ACTUAL danger indicators, not just keywords
+        2. Consider CONTEXT - Is the threat active or past?
+        3. Assess SEVERITY - How immediate is the danger?
+        4. If weapon is mentioned + someone is in danger NOW → Level 4-5
+        5. If fire/explosion is ACTIVE → Level 4-5
+        6. If it's just an inquiry or past event → Level 1-2
+        7. BE AGGRESSIVE with weapon/violence/fire scenarios - err on the side of HIGHER levels
+        """;
+
+    /**
+     * Cache key version of the prompt; bump when the prompt or model changes
+     */
+    static final String PROMPT_VERSION = "risk-v1";
+
+    @Qualifier("openAiRestTemplate")
     private final RestTemplate restTemplate;
+    private final LlmResultCache llmResultCache;
+    private final LlmDispatchScheduler llmDispatchScheduler;
+    private final AiCallExecutor aiCallExecutor;
+    private final LocalTriageClassifier localTriageClassifier;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${openai.api.key}")
@@ -29,6 +84,7 @@ public class RiskLevelAssessmentService {
      * @param transcript Full transcript of the emergency call
      * @return Map containing "level" (Integer 1-5) and "reason" (String)
      */
+    @SuppressWarnings("unchecked")
     public Map<String, Object> assessRiskLevel(String transcript) {
         try {
             log.info("Assessing risk level for transcript length: {}", transcript != null ? transcript.length() : 0);
@@ -41,6 +97,33 @@ public class RiskLevelAssessmentService {
                 );
             }
 
+            // Identical transcripts are answered from the cache
+            return llmResultCache.get("risk", PROMPT_VERSION, transcript, Map.class,
+                    () -> requestRiskAssessment(transcript));
+
+        } catch (UnparsableAnswerException e) {
+            // Salvaged outside the cache, so the next assessment asks the model again
+            return salvageRiskAssessment(e.content);
+        } catch (Exception e) {
+            if (DependencyUnavailableException.isCause(e)) {
+                // Deadline missed or OpenAI refused: answer from the keyword rules
+                log.warn("Risk assessment unavailable ({}), using keyword rules", e.getMessage());
+                LocalTriageClassifier.Classification local = localTriageClassifier.classify(transcript);
+                return Map.of(
+                    "level", local.riskLevel() > 0 ? local.riskLevel() : 3,
+                    "reason", local.toTriageResult().reason()
+                );
+            }
+            log.error("Error assessing risk level: {}", e.getMessage(), e);
+            return Map.of(
+                "level", 3,
+                "reason", "Error during risk assessment: " + e.getMessage()
+            );
+        }
+    }
+
+    private Map<String, Object> requestRiskAssessment(String transcript) {
+        try {
             // Prepare OpenAI API request
             String prompt = buildRiskAssessmentPrompt(transcript);
 
@@ -59,11 +142,9 @@ public class RiskLevelAssessmentService {
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                "https://api.openai.com/v1/chat/completions",
-                HttpMethod.POST,
-                entity,
-                String.class
+            ResponseEntity<String> response = aiCallExecutor.hedged("openai", "risk",
+                llmDispatchScheduler.admission(LlmDispatchScheduler.estimateTokens(200, prompt)),
+                () -> restTemplate.exchange("https://api.openai.com/v1/chat/completions", HttpMethod.POST, entity, String.class)
             );
 
             // Parse response
@@ -75,12 +156,8 @@ public class RiskLevelAssessmentService {
             // Parse the response to extract level and reason
             return parseRiskAssessmentResponse(content);
 
-        } catch (Exception e) {
-            log.error("Error assessing risk level: {}", e.getMessage(), e);
-            return Map.of(
-                "level", 3,
-                "reason", "Error during risk assessment: " + e.getMessage()
-            );
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read risk assessment response: " + e.getMessage(), e);
         }
     }
 
@@ -88,41 +165,7 @@ public class RiskLevelAssessmentService {
         return """
             You are an emergency risk assessment expert. Analyze this emergency call transcript and assess the risk level (위험도) on a scale of 1-5.
 
-            **Severity Level Guidelines (위험도 5단계 기준):**
-
-            **Level 5 (최고): Immediate Life Threat (즉시 생명 위협)**
-            - Examples: Cardiac arrest (심정지), Active stabbing/shooting (칼부림/총격 현행범), Severe building fire (건물 전소)
-            - Keywords: not breathing(호흡없음), cardiac arrest(심정지), unconscious(의식없음), severe bleeding(대량출혈),
-                        active weapon use(무기 사용 중), building on fire(건물 화재), explosion(폭발)
-
-            **Level 4 (높음): Severe/Urgent - Can worsen if delayed (중증/긴급 - 지체 시 악화 가능)**
-            - Examples: Serious injuries(중상), assault in progress(폭행 진행 중), weapon threats(무기 위협),
-                        someone being chased(추격당함), fire with smoke(연기가 있는 화재)
-            - Keywords: weapon(무기), knife(칼), gun(총), chase(쫓음), following(뒤따름), serious injury(중상),
-                        fire(불), smoke(연기), assault(폭행), threat(위협)
-            - Context: Danger is present and active
-
-            **Level 3 (보통): Moderate Accident/Patient (보통 사고/환자 - 급격 악화 징후 적음)**
-            - Examples: Minor injuries(경상), minor car accident(경미한 교통사고), mild pain(가벼운 통증)
-            - Keywords: minor injury(경미한 부상), small accident(작은 사고), fell down(넘어짐), minor bleeding(가벼운 출혈)
-            - Context: Stable situation, no immediate threat
-
-            **Level 2 (낮음): Minor/Confirmation Request (경미/확인 요청 - 현재 위험 거의 없음)**
-            - Examples: Property damage(재산 피해), noise complaint(소음 민원), minor dispute(사소한 분쟁)
-            - Keywords: noise(소음), parking(주차), complaint(민원), check(확인), information(정보)
-
-            **Level 1 (최저): No Dispatch Needed (출동 불필요 - 기록/이관할 민원성 신고)**
-            - Examples: General inquiry(일반 문의), information request(정보 요청), wrong number(오인 신고)
-            - Keywords: inquiry(문의), question(질문), information(정보), wrong call(잘못 건 전화)
-
-            **Assessment Rules:**
-            1. Look for ACTUAL danger indicators, not just keywords
-            2. Consider CONTEXT - Is the threat active or past?
-            3. Assess SEVERITY - How immediate is the danger?
-            4. If weapon is mentioned + someone is in danger NOW → Level 4-5
-            5. If fire/explosion is ACTIVE → Level 4-5
-            6. If it's just an inquiry or past event → Level 1-2
-            7. BE AGGRESSIVE with weapon/violence/fire scenarios - err on the side of HIGHER levels
+            """ + SEVERITY_GUIDELINES + """
 
             Transcript:
             """ + transcript + """
@@ -137,58 +180,83 @@ public class RiskLevelAssessmentService {
             """;
     }
 
+    /**
+     * The model's answer as level and reason
+     * @throws UnparsableAnswerException if the answer is not the requested JSON
+     */
     private Map<String, Object> parseRiskAssessmentResponse(String content) {
+        JsonNode json;
         try {
-            // Try to parse as JSON directly
-            JsonNode json = objectMapper.readTree(content);
-            int level = json.path("level").asInt(3);
-            String reason = json.path("reason").asText("Unable to determine risk level");
-
-            // Ensure level is within 1-5 range
-            level = Math.max(1, Math.min(5, level));
+            json = objectMapper.readTree(content);
+        } catch (Exception e) {
+            log.error("Failed to parse risk assessment response: {}", content, e);
+            throw new UnparsableAnswerException(content);
+        }
+        if (!json.path("level").isNumber()) {
+            log.error("Risk assessment response has no level: {}", content);
+            throw new UnparsableAnswerException(content);
+        }
+        int level = json.path("level").asInt();
+        String reason = json.path("reason").asText("Unable to determine risk level");
 
-            log.info("Parsed risk assessment - Level: {}, Reason: {}", level, reason);
+        // Ensure level is within 1-5 range
+        level = Math.max(1, Math.min(5, level));
 
-            return Map.of(
-                "level", level,
-                "reason", reason
-            );
+        log.info("Parsed risk assessment - Level: {}, Reason: {}", level, reason);
 
-        } catch (Exception e) {
-            log.error("Failed to parse risk assessment response: {}", content, e);
+        return Map.of(
+            "level", level,
+            "reason", reason
+        );
+    }
 
-            // Fallback: try to extract level from text
-            int level = 3;
-            String reason = "Unable to parse risk assessment";
-
-            if (content.contains("\"level\"")) {
-                try {
-                    String levelStr = content.substring(content.indexOf("\"level\"") + 8);
-                    levelStr = levelStr.substring(levelStr.indexOf(":") + 1);
-                    levelStr = levelStr.substring(0, levelStr.indexOf(",")).trim();
-                    level = Integer.parseInt(levelStr);
-                    level = Math.max(1, Math.min(5, level));
-                } catch (Exception ex) {
-                    log.warn("Failed to extract level from text");
-                }
+    /**
+     * Best-effort level and reason from an answer that is not valid JSON (never cached)
+     */
+    private Map<String, Object> salvageRiskAssessment(String content) {
+        // Fallback: try to extract level from text
+        int level = 3;
+        String reason = "Unable to parse risk assessment";
+
+        if (content.contains("\"level\"")) {
+            try {
+                String levelStr = content.substring(content.indexOf("\"level\"") + 8);
+                levelStr = levelStr.substring(levelStr.indexOf(":") + 1);
+                levelStr = levelStr.substring(0, levelStr.indexOf(",")).trim();
+                level = Integer.parseInt(levelStr);
+                level = Math.max(1, Math.min(5, level));
+            } catch (Exception ex) {
+                log.warn("Failed to extract level from text");
             }
+        }
 
-            if (content.contains("\"reason\"")) {
-                try {
-                    String reasonStr = content.substring(content.indexOf("\"reason\""));
-                    reasonStr = reasonStr.substring(reasonStr.indexOf(":") + 1);
-                    reasonStr = reasonStr.substring(reasonStr.indexOf("\"") + 1);
-                    reasonStr = reasonStr.substring(0, reasonStr.indexOf("\""));
-                    reason = reasonStr;
-                } catch (Exception ex) {
-                    log.warn("Failed to extract reason from text");
-                }
+        if (content.contains("\"reason\"")) {
+            try {
+                String reasonStr = content.substring(content.indexOf("\"reason\""));
+                reasonStr = reasonStr.substring(reasonStr.indexOf(":") + 1);
+                reasonStr = reasonStr.substring(reasonStr.indexOf("\"") + 1);
+                reasonStr = reasonStr.substring(0, reasonStr.indexOf("\""));
+                reason = reasonStr;
+            } catch (Exception ex) {
+                log.warn("Failed to extract reason from text");
             }
+        }
 
-            return Map.of(
-                "level", level,
-                "reason", reason
-            );
+        return Map.of(
+            "level", level,
+            "reason", reason
+        );
+    }
+
+    /**
+     * The model answered, but not with the requested JSON
+     */
+    private static final class UnparsableAnswerException extends RuntimeException {
+        private final String content;
+
+        UnparsableAnswerException(String content) {
+            super("Unparsable risk assessment answer");
+            this.content = content;
         }
     }
 
@@ -0,0 +1,158 @@
+package com.ecall.auth.service;
+
+import com.ecall.common.instrumentation.OutboundCallLedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for running the independent stages of a request pipeline concurrently.
+ *
+ * Every stage gets its own timeout and fallback value: a stage that fails, times out or is
+ * rejected because the pool is saturated completes with its fallback instead of failing
+ * the whole request. Required stages ({@link #runRequired}) have no fallback: their failure
+ * fails the request.
+ * Elapsed time and the degraded stages are collected in {@link Timings}.
+ */
+@Service
+@Slf4j
+public class StageExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+
+    public StageExecutor(MeterRegistry meterRegistry,
+                         @Value("${pipeline.stage.pool-size:16}") int poolSize,
+                         @Value("${pipeline.stage.queue-capacity:64}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pipeline-stage-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "pipeline.stage");
+
+        log.info("Pipeline stage executor initialized - poolSize: {}, queueCapacity: {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Run one stage asynchronously
+     * @param stage Stage name used in timings and logs
+     * @param work Stage body
+     * @param timeout Stage deadline (the response stops waiting; the task itself is not interrupted)
+     * @param fallback Value used when the stage fails, times out or is rejected
+     */
+    public <T> CompletableFuture<T> run(String stage, Supplier<T> work, Duration timeout, T fallback, Timings timings) {
+        long start = System.nanoTime();
+
+        CompletableFuture<T> future;
+        try {
+            // Outbound calls of the stage count towards the request that started it
+            future = CompletableFuture.supplyAsync(OutboundCallLedger.wrap(work), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Stage {} rejected (pool saturated), using fallback", stage);
+            timings.record(stage, start, "rejected");
+            return CompletableFuture.completedFuture(fallback);
+        }
+
+        return future
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error == null) {
+                        timings.record(stage, start, null);
+                        return result;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    String reason = cause instanceof TimeoutException ? "timeout" : "error";
+                    log.warn("Stage {} {} ({}), using fallback", stage, reason, cause.getMessage());
+                    timings.record(stage, start, reason);
+                    return fallback;
+                });
+    }
+
+    /**
+     * Run a stage the request cannot do without. It gets its own deadline like any other
+     * stage, but failing, timing out or being rejected fails the returned future instead of
+     * completing it with a fallback value.
+     */
+    public <T> CompletableFuture<T> runRequired(String stage, Supplier<T> work, Duration timeout, Timings timings) {
+        long start = System.nanoTime();
+
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(OutboundCallLedger.wrap(work), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Required stage {} rejected (pool saturated)", stage);
+            timings.record(stage, start, "rejected");
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Stage " + stage + " rejected (pool saturated)", e));
+        }
+
+        return future
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        timings.record(stage, start, null);
+                        return;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    String reason = cause instanceof TimeoutException ? "timeout" : "error";
+                    log.warn("Required stage {} {} ({})", stage, reason, cause.getMessage());
+                    timings.record(stage, start, reason);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Per-request stage timings (ms) and the stages that completed with their fallback
+     */
+    public static class Timings {
+        private final long start = System.nanoTime();
+        private final Map<String, Long> elapsedMs = new ConcurrentHashMap<>();
+        private final Map<String, String> degraded = new ConcurrentHashMap<>();
+
+        void record(String stage, long startNanos, String degradedReason) {
+            elapsedMs.put(stage, (System.nanoTime() - startNanos) / 1_000_000);
+            if (degradedReason != null) {
+                degraded.put(stage, degradedReason);
+            }
+        }
+
+        /**
+         * Record a stage that ran on the calling thread
+         */
+        public void recordSync(String stage, long startNanos) {
+            record(stage, startNanos, null);
+        }
+
+        public Map<String, Long> elapsedMs() {
+            Map<String, Long> snapshot = new TreeMap<>(elapsedMs);
+            snapshot.put("total", (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        }
+
+        public Map<String, String> degraded() {
+            return new TreeMap<>(degraded);
+        }
+    }
+}
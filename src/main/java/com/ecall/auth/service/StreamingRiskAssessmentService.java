@@ -0,0 +1,345 @@
+package com.ecall.auth.service;
+
+import com.ecall.common.resilience.AiCallExecutor;
+import com.ecall.common.resilience.DependencyUnavailableException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Risk assessment streamed to the console while the model generates it.
+ *
+ * The chat completion is requested with stream=true and a strict schema that puts
+ * risk_level before risk_reason, so the level is decoded from the first few tokens and sent
+ * on its own ("level" event) long before the answer is complete; the reason then follows
+ * as it is generated ("reason" events carrying the new text) and "done" closes the stream
+ * with the complete result. A keyword-based "provisional" level ({@link LocalTriageClassifier})
+ * is sent first, before any remote call.
+ * Completed results are cached by {@link LlmResultCache} and replayed at once for an
+ * identical transcript. If the stream fails, "done" carries the blocking
+ * {@link RiskLevelAssessmentService} result instead, or the keyword level when OpenAI is
+ * unavailable or the answer is not complete within ai.deadline.openai-ms. Outcomes are counted as openai.risk.stream{outcome=streamed|cached|fallback|local}.
+ */
+@Service
+@Slf4j
+public class StreamingRiskAssessmentService {
+
+    /**
+     * Cache key version of the prompt; bump when the prompt, the schema or the model changes
+     */
+    static final String PROMPT_VERSION = "risk-stream-v1";
+
+    private static final String SYSTEM_PROMPT =
+            "You are an emergency call risk assessment expert. Assess the risk level (위험도) of the emergency call " +
+            "transcript on a scale of 1-5 and give a brief reason in English (1-2 sentences).\n\n" +
+            RiskLevelAssessmentService.SEVERITY_GUIDELINES;
+
+    private static final Map<String, Object> RESPONSE_FORMAT = Map.of(
+            "type", "json_schema",
+            "json_schema", Map.of(
+                    "name", "risk_assessment",
+                    "strict", true,
+                    "schema", riskSchema()
+            )
+    );
+
+    private static final int MAX_TOKENS = 200;
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> CHUNKS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient openAiWebClient;
+    private final RiskLevelAssessmentService riskLevelAssessmentService;
+    private final LocalTriageClassifier localTriageClassifier;
+    private final LlmResultCache llmResultCache;
+    private final LlmDispatchScheduler llmDispatchScheduler;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String openaiApiKey;
+    private final Duration idleTimeout;
+    private final Duration deadline;
+
+    public StreamingRiskAssessmentService(WebClient.Builder webClientBuilder,
+                                          RiskLevelAssessmentService riskLevelAssessmentService,
+                                          LocalTriageClassifier localTriageClassifier,
+                                          LlmResultCache llmResultCache,
+                                          LlmDispatchScheduler llmDispatchScheduler,
+                                          AiCallExecutor aiCallExecutor,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${openai.api.key:}") String openaiApiKey,
+                                          @Value("${openai.stream.idle-timeout-ms:10000}") long idleTimeoutMillis) {
+        this.openAiWebClient = webClientBuilder.baseUrl("https://api.openai.com").build();
+        this.riskLevelAssessmentService = riskLevelAssessmentService;
+        this.localTriageClassifier = localTriageClassifier;
+        this.llmResultCache = llmResultCache;
+        this.llmDispatchScheduler = llmDispatchScheduler;
+        this.meterRegistry = meterRegistry;
+        this.openaiApiKey = openaiApiKey;
+        this.idleTimeout = Duration.ofMillis(idleTimeoutMillis);
+        this.deadline = aiCallExecutor.deadline("openai");
+    }
+
+    /**
+     * Events of one assessment: provisional?, level, reason*, done
+     * @param transcript Full transcript of the emergency call
+     */
+    @SuppressWarnings("unchecked")
+    public Flux<ServerSentEvent<Map<String, Object>>> assess(String transcript) {
+        LlmDispatchScheduler.Priority priority = LlmDispatchScheduler.currentPriority();
+        return Flux.defer(() -> {
+            Map<String, Object> cached = llmResultCache.peek("risk", PROMPT_VERSION, transcript, Map.class);
+            if (cached != null) {
+                count("cached");
+                return Flux.just(event("level", Map.of("level", cached.get("level"))),
+                        event("reason", Map.of("text", cached.get("reason"))),
+                        done((int) cached.get("level"), (String) cached.get("reason"), "cache"));
+            }
+
+            LocalTriageClassifier.Classification local = localTriageClassifier.classify(transcript);
+            Flux<ServerSentEvent<Map<String, Object>>> provisional = local.riskLevel() > 0
+                    ? Flux.just(event("provisional", Map.of(
+                            "level", local.riskLevel(),
+                            "keywords", local.matchedKeywords())))
+                    : Flux.empty();
+
+            if (openaiApiKey == null || openaiApiKey.isEmpty()) {
+                return provisional.concatWith(fallback(transcript, null));
+            }
+
+            RiskStreamParser parser = new RiskStreamParser();
+            int estimatedTokens = LlmDispatchScheduler.estimateTokens(MAX_TOKENS, SYSTEM_PROMPT, transcript);
+            // Admission may wait for rate budget, so it is awaited off the request thread. A
+            // permit granted after the console went away is discarded, and released there
+            Mono<LlmDispatchScheduler.Permit> admission = Mono
+                    .fromCallable(() -> llmDispatchScheduler.acquire(priority, estimatedTokens))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doOnDiscard(LlmDispatchScheduler.Permit.class, LlmDispatchScheduler.Permit::release);
+            // The slot is held until the stream completes, fails or is cancelled
+            Flux<ServerSentEvent<Map<String, Object>>> streamed = Flux
+                    .usingWhen(admission,
+                            permit -> openAiWebClient.post()
+                                    .uri("/v1/chat/completions")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .headers(headers -> headers.setBearerAuth(openaiApiKey))
+                                    .bodyValue(requestBody(transcript))
+                                    .retrieve()
+                                    .bodyToFlux(CHUNKS)
+                                    .timeout(idleTimeout)
+                                    // The whole answer within the OpenAI deadline, else the keyword level
+                                    .takeUntilOther(Mono.delay(deadline).then(Mono.error(() ->
+                                            new DependencyUnavailableException("openai", "deadline exceeded"))))
+                                    .map(ServerSentEvent::data)
+                                    .filter(Objects::nonNull)
+                                    .takeWhile(data -> !"[DONE]".equals(data)),
+                            permit -> Mono.fromRunnable(permit::release))
+                    .concatMapIterable(data -> parser.accept(readChunk(data, parser)))
+                    .concatWith(Mono.fromCallable(() -> complete(transcript, parser)));
+
+            return provisional.concatWith(streamed.onErrorResume(e -> fallback(transcript, e)));
+        });
+    }
+
+    private ServerSentEvent<Map<String, Object>> complete(String transcript, RiskStreamParser parser) throws Exception {
+        if (!"stop".equals(parser.finishReason)) {
+            throw new IllegalStateException("Incomplete answer (finish_reason " + parser.finishReason + ")");
+        }
+        JsonNode json = objectMapper.readTree(parser.content.toString());
+        int level = json.path("risk_level").asInt(0);
+        if (level < 1 || level > 5) {
+            throw new IllegalStateException("Invalid risk level: " + json.path("risk_level"));
+        }
+        String reason = json.path("risk_reason").asText("");
+
+        llmResultCache.put("risk", PROMPT_VERSION, transcript, Map.of("level", level, "reason", reason));
+        count("streamed");
+        log.info("Streamed risk assessment - Level: {}, Reason: {}", level, reason);
+        return done(level, reason, "stream");
+    }
+
+    /**
+     * "done" event from the blocking assessment, or from keywords when OpenAI is unavailable
+     */
+    private Mono<ServerSentEvent<Map<String, Object>>> fallback(String transcript, Throwable error) {
+        if (error != null && DependencyUnavailableException.isCause(error)) {
+            log.warn("OpenAI unavailable ({}), streaming keyword risk level", error.getMessage());
+            count("local");
+            LocalTriageClassifier.Classification local = localTriageClassifier.classify(transcript);
+            return Mono.just(done(local.riskLevel() > 0 ? local.riskLevel() : 3,
+                    local.toTriageResult().reason(), "local"));
+        }
+        if (error != null) {
+            log.warn("Risk assessment stream failed ({}), falling back to a blocking call", error.getMessage());
+        }
+        count("fallback");
+        return Mono.fromCallable(() -> riskLevelAssessmentService.assessRiskLevel(transcript))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(risk -> done((int) risk.get("level"), (String) risk.get("reason"), "fallback"));
+    }
+
+    /**
+     * Content delta of one chat.completion.chunk, recording the finish reason when it arrives
+     */
+    private String readChunk(String data, RiskStreamParser parser) {
+        try {
+            JsonNode choice = objectMapper.readTree(data).path("choices").path(0);
+            JsonNode refusal = choice.path("delta").path("refusal");
+            if (refusal.isTextual()) {
+                throw new IllegalStateException("Model refused: " + refusal.asText());
+            }
+            if (choice.path("finish_reason").isTextual()) {
+                parser.finishReason = choice.path("finish_reason").asText();
+            }
+            return choice.path("delta").path("content").asText("");
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read risk assessment stream: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> requestBody(String transcript) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", "gpt-4o-mini");
+        requestBody.put("messages", List.of(
+                Map.of("role", "system", "content", SYSTEM_PROMPT),
+                Map.of("role", "user", "content", "Assess the risk of this emergency call transcript:\n\n" + transcript)
+        ));
+        requestBody.put("response_format", RESPONSE_FORMAT);
+        requestBody.put("temperature", 0.3);
+        requestBody.put("max_tokens", MAX_TOKENS);
+        requestBody.put("stream", true);
+        return requestBody;
+    }
+
+    /**
+     * Incremental decoder of the streamed JSON answer: reports the level as soon as its digit
+     * has arrived and the reason string as it grows (escapes decoded, a split escape waits
+     * for its remaining characters). One instance per stream; chunks arrive in order.
+     */
+    static final class RiskStreamParser {
+
+        private static final Pattern LEVEL = Pattern.compile("\"risk_level\"\\s*:\\s*([1-5])");
+        private static final Pattern REASON = Pattern.compile("\"risk_reason\"\\s*:\\s*\"");
+
+        final StringBuilder content = new StringBuilder();
+        String finishReason;
+        private boolean levelSent;
+        private int reasonPosition = -1;
+        private boolean reasonComplete;
+
+        List<ServerSentEvent<Map<String, Object>>> accept(String delta) {
+            content.append(delta);
+            List<ServerSentEvent<Map<String, Object>>> events = new ArrayList<>(2);
+
+            if (!levelSent) {
+                Matcher matcher = LEVEL.matcher(content);
+                if (matcher.find()) {
+                    levelSent = true;
+                    events.add(event("level", Map.of("level", Integer.parseInt(matcher.group(1)))));
+                }
+            }
+            if (reasonPosition < 0) {
+                Matcher matcher = REASON.matcher(content);
+                if (matcher.find()) {
+                    reasonPosition = matcher.end();
+                }
+            }
+            if (reasonPosition >= 0 && !reasonComplete) {
+                String text = decodeReason();
+                if (!text.isEmpty()) {
+                    events.add(event("reason", Map.of("text", text)));
+                }
+            }
+            return events;
+        }
+
+        private String decodeReason() {
+            StringBuilder text = new StringBuilder();
+            while (reasonPosition < content.length()) {
+                char c = content.charAt(reasonPosition);
+                if (c == '"') {
+                    reasonComplete = true;
+                    break;
+                }
+                if (c != '\\') {
+                    text.append(c);
+                    reasonPosition++;
+                    continue;
+                }
+                if (reasonPosition + 1 >= content.length()) {
+                    break;
+                }
+                char escaped = content.charAt(reasonPosition + 1);
+                if (escaped == 'u') {
+                    if (reasonPosition + 6 > content.length()) {
+                        break;
+                    }
+                    text.append((char) Integer.parseInt(content.substring(reasonPosition + 2, reasonPosition + 6), 16));
+                    reasonPosition += 6;
+                    continue;
+                }
+                text.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    case 'r' -> '\r';
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    default -> escaped;
+                });
+                reasonPosition += 2;
+            }
+            return text.toString();
+        }
+    }
+
+    private static ServerSentEvent<Map<String, Object>> done(int level, String reason, String source) {
+        return event("done", Map.of("level", level, "reason", reason != null ? reason : "", "source", source));
+    }
+
+    private static ServerSentEvent<Map<String, Object>> event(String name, Map<String, Object> data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+
+    private void count(String outcome) {
+        Counter.builder("openai.risk.stream")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Strict-mode schema; the level comes first so it can be shown before the reason is written
+     */
+    private static Map<String, Object> riskSchema() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("risk_level", Map.of("type", "integer", "enum", List.of(1, 2, 3, 4, 5)));
+        properties.put("risk_reason", Map.of("type", "string"));
+
+        return Map.of(
+                "type", "object",
+                "properties", properties,
+                "required", List.of("risk_level", "risk_reason"),
+                "additionalProperties", false
+        );
+    }
+}
@@ -0,0 +1,319 @@
+package com.ecall.auth.service;
+
+import com.ecall.auth.config.SupabaseConfig;
+import com.ecall.common.instrumentation.OutboundCallTracker;
+import com.ecall.common.resilience.DependencyGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.classic.methods.HttpPatch;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+
+/**
+ * Uploads to Supabase Storage without holding the file in memory.
+ *
+ * Request bodies are written straight from the file (or multipart part) through one
+ * constant-size buffer, so heap per upload stays flat regardless of file size. Files of at
+ * least storage.upload.resumable-threshold-mb go through the resumable (TUS) endpoint in
+ * fixed-size chunks; a failed chunk is resumed from the offset the server reports instead
+ * of restarting the whole upload.
+ *
+ * Uses the pooled Supabase HttpClient directly: RestTemplate interceptors would buffer the
+ * whole body into a byte[]. Calls are guarded and accounted like every other Supabase call.
+ */
+@Service
+@Slf4j
+public class SupabaseStorageService {
+
+    private static final String TUS_VERSION = "1.0.0";
+    private static final ContentType OFFSET_OCTET_STREAM = ContentType.create("application/offset+octet-stream");
+
+    private final SupabaseConfig supabaseConfig;
+    private final CloseableHttpClient httpClient;
+    private final DependencyGuard dependencyGuard;
+    private final OutboundCallTracker outboundCallTracker;
+    private final int bufferSize;
+    private final long resumableThreshold;
+    private final long chunkSize;
+    private final int chunkRetries;
+
+    public SupabaseStorageService(SupabaseConfig supabaseConfig,
+                                  @Qualifier("supabaseHttpClient") CloseableHttpClient httpClient,
+                                  DependencyGuard dependencyGuard,
+                                  OutboundCallTracker outboundCallTracker,
+                                  @Value("${storage.upload.buffer-size-kb:64}") int bufferSizeKb,
+                                  @Value("${storage.upload.resumable-threshold-mb:20}") long resumableThresholdMb,
+                                  @Value("${storage.upload.chunk-size-bytes:6291456}") long chunkSize,
+                                  @Value("${storage.upload.chunk-retries:3}") int chunkRetries) {
+        this.supabaseConfig = supabaseConfig;
+        this.httpClient = httpClient;
+        this.dependencyGuard = dependencyGuard;
+        this.outboundCallTracker = outboundCallTracker;
+        this.bufferSize = bufferSizeKb * 1024;
+        this.resumableThreshold = resumableThresholdMb * 1024 * 1024;
+        this.chunkSize = chunkSize;
+        this.chunkRetries = chunkRetries;
+    }
+
+    /**
+     * Upload an object. Large files backed by the file system use the resumable endpoint.
+     * @param content File or multipart part to stream from
+     * @param size Content size in bytes
+     */
+    public void upload(String bucket, String objectPath, Resource content, long size, String contentType) {
+        try {
+            if (size >= resumableThreshold && content.isFile()) {
+                uploadResumable(bucket, objectPath, content.getFile().toPath(), size, contentType);
+            } else {
+                uploadStreamed(bucket, objectPath, content, contentType);
+            }
+            log.info("Uploaded {} bytes to storage {}/{}", size, bucket, objectPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload to storage: " + e.getMessage(), e);
+        }
+    }
+
+    public String publicUrl(String bucket, String objectPath) {
+        return supabaseConfig.getSupabaseUrl() + "/storage/v1/object/public/" + bucket + "/" + objectPath;
+    }
+
+    /**
+     * Single request with a chunked body
+     */
+    private void uploadStreamed(String bucket, String objectPath, Resource content, String contentType)
+            throws IOException {
+        HttpPost post = new HttpPost(supabaseConfig.getSupabaseUrl() + "/storage/v1/object/" + bucket + "/" + objectPath);
+        authorize(post);
+        post.setEntity(new ChannelEntity(content::readableChannel, -1, contentType(contentType), bufferSize));
+
+        execute(bucket, post, response -> {
+            expectSuccess(response, "upload");
+            return null;
+        });
+    }
+
+    /**
+     * TUS upload: create, then PATCH fixed-size chunks, resuming from the server's offset on failure
+     */
+    private void uploadResumable(String bucket, String objectPath, Path file, long size, String contentType)
+            throws IOException {
+        HttpPost create = new HttpPost(supabaseConfig.getSupabaseUrl() + "/storage/v1/upload/resumable");
+        authorize(create);
+        create.setHeader("Tus-Resumable", TUS_VERSION);
+        create.setHeader("Upload-Length", String.valueOf(size));
+        create.setHeader("Upload-Metadata", "bucketName " + base64(bucket)
+                + ",objectName " + base64(objectPath)
+                + ",contentType " + base64(contentType != null ? contentType : "application/octet-stream"));
+
+        URI uploadUri = execute(bucket, create, response -> {
+            expectSuccess(response, "create resumable upload");
+            Header location = response.getFirstHeader("Location");
+            if (location == null) {
+                throw new IOException("Resumable upload created without a Location header");
+            }
+            return URI.create(supabaseConfig.getSupabaseUrl() + "/").resolve(location.getValue());
+        });
+        log.info("Resumable upload of {} bytes to {}/{} in {} byte chunks", size, bucket, objectPath, chunkSize);
+
+        long offset = 0;
+        int failures = 0;
+        while (offset < size) {
+            long length = Math.min(chunkSize, size - offset);
+            try {
+                offset = patchChunk(bucket, uploadUri, file, offset, length);
+                failures = 0;
+            } catch (IOException | RuntimeException e) {
+                if (++failures > chunkRetries) {
+                    throw new IOException("Resumable upload failed at offset " + offset + ": " + e.getMessage(), e);
+                }
+                log.warn("Chunk at offset {} failed ({}), resuming (attempt {}/{})",
+                        offset, e.getMessage(), failures, chunkRetries);
+                sleepBeforeRetry(failures);
+                offset = currentOffset(bucket, uploadUri);
+            }
+        }
+    }
+
+    private long patchChunk(String bucket, URI uploadUri, Path file, long offset, long length) throws IOException {
+        HttpPatch patch = new HttpPatch(uploadUri);
+        authorize(patch);
+        patch.setHeader("Tus-Resumable", TUS_VERSION);
+        patch.setHeader("Upload-Offset", String.valueOf(offset));
+        patch.setEntity(new ChannelEntity(() -> {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            channel.position(offset);
+            return channel;
+        }, length, OFFSET_OCTET_STREAM, bufferSize));
+
+        return execute(bucket, patch, response -> {
+            expectSuccess(response, "upload chunk");
+            return uploadOffset(response, offset + length);
+        });
+    }
+
+    private long currentOffset(String bucket, URI uploadUri) throws IOException {
+        HttpHead head = new HttpHead(uploadUri);
+        authorize(head);
+        head.setHeader("Tus-Resumable", TUS_VERSION);
+        return execute(bucket, head, response -> {
+            expectSuccess(response, "query upload offset");
+            return uploadOffset(response, -1);
+        });
+    }
+
+    private static long uploadOffset(ClassicHttpResponse response, long fallback) throws IOException {
+        Header header = response.getFirstHeader("Upload-Offset");
+        if (header == null) {
+            if (fallback < 0) {
+                throw new IOException("Upload-Offset header missing");
+            }
+            return fallback;
+        }
+        return Long.parseLong(header.getValue());
+    }
+
+    private interface ResponseHandler<T> {
+        T handle(ClassicHttpResponse response) throws IOException;
+    }
+
+    private <T> T execute(String bucket, HttpUriRequestBase request, ResponseHandler<T> handler) throws IOException {
+        DependencyGuard.Permit permit = dependencyGuard.acquire("supabase");
+        long start = System.nanoTime();
+        long bytes = request.getEntity() != null ? Math.max(0, request.getEntity().getContentLength()) : 0;
+        try {
+            return httpClient.execute(request, response -> {
+                int status = response.getCode();
+                permit.complete(status >= 500 || status == 429);
+                return handler.handle(response);
+            });
+        } finally {
+            // No-op if the response already completed the permit
+            permit.complete(true);
+            outboundCallTracker.record("supabase", "storage/" + bucket, System.nanoTime() - start, bytes);
+        }
+    }
+
+    private static void expectSuccess(ClassicHttpResponse response, String action) throws IOException {
+        int status = response.getCode();
+        if (status < 200 || status >= 300) {
+            String body = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : "";
+            throw new IOException("Storage " + action + " failed with status " + status + ": " + body);
+        }
+    }
+
+    private void authorize(HttpUriRequestBase request) {
+        request.setHeader("apikey", supabaseConfig.getSupabaseKey());
+        request.setHeader("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+    }
+
+    private static ContentType contentType(String contentType) {
+        return contentType != null ? ContentType.parse(contentType) : ContentType.APPLICATION_OCTET_STREAM;
+    }
+
+    private static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sleepBeforeRetry(int attempt) throws IOException {
+        try {
+            Thread.sleep(500L * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while resuming upload", e);
+        }
+    }
+
+    private interface ChannelSource {
+        ReadableByteChannel open() throws IOException;
+    }
+
+    /**
+     * Request body copied from a channel through one fixed-size buffer. A negative length
+     * sends the body chunked; otherwise exactly length bytes are sent.
+     */
+    private static final class ChannelEntity extends AbstractHttpEntity {
+        private final ChannelSource source;
+        private final long length;
+        private final int bufferSize;
+
+        ChannelEntity(ChannelSource source, long length, ContentType contentType, int bufferSize) {
+            super(contentType, null, length < 0);
+            this.source = source;
+            this.length = length;
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return Channels.newInputStream(source.open());
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+            WritableByteChannel target = Channels.newChannel(out);
+            long remaining = length < 0 ? Long.MAX_VALUE : length;
+            try (ReadableByteChannel channel = source.open()) {
+                while (remaining > 0) {
+                    buffer.clear();
+                    if (remaining < buffer.capacity()) {
+                        buffer.limit((int) remaining);
+                    }
+                    int read = channel.read(buffer);
+                    if (read < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    remaining -= read;
+                }
+            }
+            out.flush();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
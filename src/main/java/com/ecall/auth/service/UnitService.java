@@ -1,20 +1,21 @@
 package com.ecall.auth.service;
 
 import com.ecall.auth.config.SupabaseConfig;
+import com.ecall.auth.dto.DispatchForceRecord;
+import com.ecall.auth.dto.OperatorRecord;
+import com.ecall.auth.dto.OperatorSummary;
+import com.ecall.auth.dto.RosterMember;
+import com.ecall.auth.repository.OperatorRepository;
+import com.ecall.common.resilience.LastGoodSnapshots;
+import com.ecall.common.resilience.Snapshot;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPatch;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import jakarta.annotation.PostConstruct;
 import java.util.*;
 
 @Service
@@ -22,7 +23,12 @@ import java.util.*;
 public class UnitService {
 
     private final SupabaseConfig supabaseConfig;
-    private RestTemplate restTemplate;
+    private final DispatchForceQueryService dispatchForceQueryService;
+    private final OperatorDirectory operatorDirectory;
+    private final RequestCoalescer requestCoalescer;
+    private final LastGoodSnapshots lastGoodSnapshots;
+    private final OperatorRepository operatorRepository;
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
     {
@@ -30,108 +36,62 @@ public class UnitService {
         objectMapper.setSerializationInclusion(com.fasterxml.jackson.annotation.JsonInclude.Include.ALWAYS);
     }
 
-    public UnitService(SupabaseConfig supabaseConfig) {
+    public UnitService(SupabaseConfig supabaseConfig,
+                       @Qualifier("supabaseRestTemplate") RestTemplate restTemplate,
+                       DispatchForceQueryService dispatchForceQueryService,
+                       OperatorDirectory operatorDirectory,
+                       RequestCoalescer requestCoalescer,
+                       LastGoodSnapshots lastGoodSnapshots,
+                       OperatorRepository operatorRepository) {
         this.supabaseConfig = supabaseConfig;
-    }
-
-    @PostConstruct
-    public void init() {
-        this.restTemplate = new RestTemplate();
-        log.info("RestTemplate initialized for UnitService");
+        this.restTemplate = restTemplate;
+        this.dispatchForceQueryService = dispatchForceQueryService;
+        this.operatorDirectory = operatorDirectory;
+        this.requestCoalescer = requestCoalescer;
+        this.lastGoodSnapshots = lastGoodSnapshots;
+        this.operatorRepository = operatorRepository;
     }
 
     /**
-     * Helper method to make PATCH requests using Apache HttpClient
+     * Helper method to make PATCH requests through the shared Supabase transport
      */
     private String executePatchRequest(String url, Map<String, Object> data, HttpHeaders headers) throws Exception {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPatch httpPatch = new HttpPatch(url);
-
-            // Set headers
-            headers.forEach((key, values) -> {
-                for (String value : values) {
-                    httpPatch.setHeader(key, value);
-                }
-            });
+        // Serialize ourselves so explicit nulls (e.g. clearing organization_name) are kept
+        String jsonData = objectMapper.writeValueAsString(data);
+        log.debug("PATCH request to {}: {}", url, jsonData);
 
-            // Set request body
-            String jsonData = objectMapper.writeValueAsString(data);
-            log.debug("PATCH request to {}: {}", url, jsonData);
+        HttpEntity<String> entity = new HttpEntity<>(jsonData, headers);
 
-            if (jsonData != null && !jsonData.isEmpty()) {
-                StringEntity entity = new StringEntity(jsonData, "UTF-8");
-                entity.setContentType("application/json");
-                httpPatch.setEntity(entity);
-            }
+        ResponseEntity<String> response = restTemplate.exchange(
+                url,
+                HttpMethod.PATCH,
+                entity,
+                String.class
+        );
 
-            // Execute request
-            try (CloseableHttpResponse response = httpClient.execute(httpPatch)) {
-                int statusCode = response.getStatusLine().getStatusCode();
+        String responseBody = response.getBody() != null ? response.getBody() : "";
+        log.debug("PATCH response from {}: status={}, body={}", url, response.getStatusCode().value(), responseBody);
 
-                String responseBody = "";
-                if (response.getEntity() != null) {
-                    responseBody = EntityUtils.toString(response.getEntity(), "UTF-8");
-                }
-
-                log.debug("PATCH response from {}: status={}, body={}", url, statusCode, responseBody);
-
-                if (statusCode >= 200 && statusCode < 300) {
-                    return responseBody;
-                } else {
-                    throw new RuntimeException("PATCH request failed with status " + statusCode + ": " + responseBody);
-                }
-            }
-        }
+        return responseBody;
     }
 
     /**
-     * Get all operators (optionally filtered by role)
+     * Get all operators (optionally filtered by role), or the last good list while Supabase is unhealthy
      */
-    public List<Map<String, Object>> getOperators(String role) {
+    public Snapshot<List<OperatorSummary>> getOperators(String role) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/operator";
-            if (role != null && !role.isEmpty()) {
-                url += "?role=eq." + role + "&select=id,name,operator_id,role,organization_name,organization_code";
-            } else {
-                url += "?select=id,name,operator_id,role,organization_name,organization_code";
-            }
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
+            boolean byRole = role != null && !role.isEmpty();
+            Snapshot<List<OperatorSummary>> operators = lastGoodSnapshots.read(
+                    "operators", byRole ? role : "all",
+                    () -> OperatorSummary.listOf(byRole
+                            ? operatorDirectory.findOperatorsByRole(role) : operatorDirectory.findAllOperators()));
 
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            List<Map<String, Object>> operators = new ArrayList<>();
-
-            for (JsonNode node : jsonArray) {
-                Map<String, Object> operator = new HashMap<>();
-                operator.put("id", node.get("id").asText());
-                operator.put("name", node.get("name").asText());
-                operator.put("operator_id", node.get("operator_id").asText());
-                operator.put("role", node.has("role") && !node.get("role").isNull() ? node.get("role").asText() : null);
-                operator.put("organization_name", node.has("organization_name") && !node.get("organization_name").isNull()
-                    ? node.get("organization_name").asText() : null);
-                operator.put("organization_code", node.has("organization_code") && !node.get("organization_code").isNull()
-                    ? node.get("organization_code").asText() : null);
-                operators.add(operator);
-            }
-
-            log.info("Found {} operators" + (role != null ? " with role " + role : ""), operators.size());
+            log.info("Found {} operators" + (role != null ? " with role " + role : ""), operators.value().size());
             return operators;
 
         } catch (Exception e) {
             log.error("Error fetching operators", e);
-            return new ArrayList<>();
+            return Snapshot.fresh(new ArrayList<>());
         }
     }
 
@@ -183,6 +143,8 @@ public class UnitService {
             createdUnit.put("member_count", unitNode.get("member_count").asInt());
             createdUnit.put("created_at", unitNode.get("created_at").asText());
 
+            operatorDirectory.invalidateDispatchForce(unitId);
+
             log.info("Unit created successfully: {} (ID: {})", name, unitId);
             return createdUnit;
 
@@ -193,88 +155,22 @@ public class UnitService {
     }
 
     /**
-     * Get all units (dispatch_force)
+     * Get all units (dispatch_force), or the last good list while Supabase is unhealthy
+     * Leaders and member counts are resolved in bulk by DispatchForceQueryService
      */
-    public List<Map<String, Object>> getAllUnits() {
+    public Snapshot<List<Map<String, Object>>> getAllUnits() {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/dispatch_force?type=eq.dispatch&select=*&order=created_at.desc";
+            // Consoles refreshing at the same moment share one fan-out
+            Snapshot<List<Map<String, Object>>> units = lastGoodSnapshots.read("units", "all",
+                    () -> requestCoalescer.coalesce("units", "units@" + operatorDirectory.generation(),
+                            dispatchForceQueryService::findUnitsWithLeaders));
 
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            List<Map<String, Object>> units = new ArrayList<>();
-
-            for (JsonNode node : jsonArray) {
-                Map<String, Object> unit = new HashMap<>();
-                String unitId = node.get("id").asText();
-
-                unit.put("id", unitId);
-                unit.put("name", node.get("name").asText());
-                unit.put("type", node.has("type") && !node.get("type").isNull()
-                    ? node.get("type").asText() : "dispatch");
-
-                String leader1Id = node.has("operator_leader1_id") && !node.get("operator_leader1_id").isNull()
-                    ? node.get("operator_leader1_id").asText() : null;
-                String leader2Id = node.has("operator_leader2_id") && !node.get("operator_leader2_id").isNull()
-                    ? node.get("operator_leader2_id").asText() : null;
-
-                unit.put("operator_leader1_id", leader1Id);
-                unit.put("operator_leader2_id", leader2Id);
-
-                // Get leader details (name, role, join_date, phone_number)
-                if (leader1Id != null) {
-                    Map<String, Object> leader1 = getOperatorDetailsById(leader1Id);
-                    unit.put("leader1_name", leader1 != null ? leader1.get("name") : null);
-                    unit.put("leader1_role", leader1 != null ? leader1.get("role") : null);
-                    unit.put("leader1_join_date", leader1 != null ? leader1.get("join_date") : null);
-                    unit.put("leader1_phone", leader1 != null ? leader1.get("phone_number") : null);
-                } else {
-                    unit.put("leader1_name", null);
-                    unit.put("leader1_role", null);
-                    unit.put("leader1_join_date", null);
-                    unit.put("leader1_phone", null);
-                }
-
-                if (leader2Id != null) {
-                    Map<String, Object> leader2 = getOperatorDetailsById(leader2Id);
-                    unit.put("leader2_name", leader2 != null ? leader2.get("name") : null);
-                    unit.put("leader2_role", leader2 != null ? leader2.get("role") : null);
-                    unit.put("leader2_join_date", leader2 != null ? leader2.get("join_date") : null);
-                    unit.put("leader2_phone", leader2 != null ? leader2.get("phone_number") : null);
-                } else {
-                    unit.put("leader2_name", null);
-                    unit.put("leader2_role", null);
-                    unit.put("leader2_join_date", null);
-                    unit.put("leader2_phone", null);
-                }
-
-                // Calculate actual member count by querying operators
-                int actualMemberCount = countUnitMembers(unitId);
-                unit.put("member_count", actualMemberCount);
-                log.debug("Unit {} has actual member_count: {}", node.get("name").asText(), actualMemberCount);
-
-                unit.put("created_at", node.get("created_at").asText());
-                units.add(unit);
-            }
-
-            log.info("Found {} units", units.size());
+            log.info("Found {} units{}", units.value().size(), units.stale() ? " (stale)" : "");
             return units;
 
         } catch (Exception e) {
             log.error("Error fetching units", e);
-            return new ArrayList<>();
+            return Snapshot.fresh(new ArrayList<>());
         }
     }
 
@@ -303,6 +199,7 @@ public class UnitService {
 
             // Use custom PATCH implementation
             String responseBody = executePatchRequest(url, updateData, headers);
+            operatorDirectory.invalidateDispatchForce(unitId);
 
             JsonNode result = objectMapper.readTree(responseBody);
             JsonNode unitNode = result.isArray() ? result.get(0) : result;
@@ -346,6 +243,8 @@ public class UnitService {
                     String.class
             );
 
+            operatorDirectory.invalidateDispatchForce(unitId);
+
             log.info("Unit deleted successfully: {}", unitId);
 
         } catch (Exception e) {
@@ -360,8 +259,8 @@ public class UnitService {
     public void addMember(String unitId, String operatorId) {
         try {
             // First, get current member_count
-            Map<String, Object> unit = getUnitById(unitId);
-            int currentCount = (int) unit.get("member_count");
+            DispatchForceRecord unit = getUnitById(unitId);
+            int currentCount = unit.memberCount() != null ? unit.memberCount() : 0;
 
             // Increment member_count
             Map<String, Object> updateData = new HashMap<>();
@@ -376,6 +275,7 @@ public class UnitService {
 
             // Use custom PATCH implementation
             executePatchRequest(url, updateData, headers);
+            operatorDirectory.invalidateDispatchForce(unitId);
 
             log.info("Member added to unit {}: operator {}", unitId, operatorId);
 
@@ -389,104 +289,122 @@ public class UnitService {
      * Remove member from unit (decrement member_count)
      */
     public void removeMember(String unitId, String operatorId) {
-        try {
-            // Get unit details to check if this operator is a leader
-            Map<String, Object> unit = getUnitById(unitId);
-            String leader1Id = (String) unit.get("operator_leader1_id");
-            String leader2Id = (String) unit.get("operator_leader2_id");
+        removeMembers(unitId, List.of(operatorId));
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+    /**
+     * Remove several members from a unit: one id=in.(...) PATCH clears their organization,
+     * then one PATCH updates the unit's leader slots and member_count.
+     * @return operatorId -> "removed" / "not_member"
+     */
+    public Map<String, String> removeMembers(String unitId, List<String> operatorIds) {
+        try {
+            // Get unit details to check if any of these operators is a leader
+            DispatchForceRecord unit = getUnitById(unitId);
+            String leader1Id = unit.operatorLeader1Id();
+            String leader2Id = unit.operatorLeader2Id();
 
-            // Remove organization_code and organization_name from operator
+            // Remove organization_code and organization_name from operators of this unit
             Map<String, Object> operatorUpdate = new HashMap<>();
             operatorUpdate.put("organization_code", null);
             operatorUpdate.put("organization_name", null);
 
-            String operatorUrl = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
-            executePatchRequest(operatorUrl, operatorUpdate, headers);
+            Set<String> cleared = operatorRepository.updateAll(
+                    operatorIds, "organization_code=eq." + unitId, operatorUpdate);
+            operatorDirectory.invalidateOperators(operatorIds);
 
             // If removing a leader, also remove from unit's leader fields
             Map<String, Object> unitUpdate = new HashMap<>();
-            boolean needsUnitUpdate = false;
+            Set<String> removedLeaders = new HashSet<>();
 
-            if (operatorId.equals(leader1Id)) {
+            if (leader1Id != null && operatorIds.contains(leader1Id)) {
                 unitUpdate.put("operator_leader1_id", null);
-                needsUnitUpdate = true;
+                removedLeaders.add(leader1Id);
                 log.info("Removing leader1 from unit {}", unitId);
             }
 
-            if (operatorId.equals(leader2Id)) {
+            if (leader2Id != null && operatorIds.contains(leader2Id)) {
                 unitUpdate.put("operator_leader2_id", null);
-                needsUnitUpdate = true;
+                removedLeaders.add(leader2Id);
                 log.info("Removing leader2 from unit {}", unitId);
             }
 
-            // Update unit's member_count by counting actual members
-            int actualMemberCount = countUnitMembers(unitId);
+            // Update unit's member_count by counting actual members (minus leaders being removed)
+            int actualMemberCount = countUnitMembers(unitId, removedLeaders);
             unitUpdate.put("member_count", actualMemberCount);
 
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("apikey", supabaseConfig.getSupabaseKey());
+            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+
             String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + unitId;
             executePatchRequest(url, unitUpdate, headers);
+            operatorDirectory.invalidateDispatchForce(unitId);
 
-            log.info("Member removed from unit {}: operator {}. New member count: {}",
-                     unitId, operatorId, actualMemberCount);
+            Map<String, String> results = new LinkedHashMap<>();
+            for (String operatorId : operatorIds) {
+                boolean removed = cleared.contains(operatorId) || removedLeaders.contains(operatorId);
+                results.put(operatorId, removed ? "removed" : "not_member");
+            }
+
+            log.info("Removed {}/{} members from unit {}. New member count: {}",
+                     cleared.size(), operatorIds.size(), unitId, actualMemberCount);
+            return results;
 
         } catch (Exception e) {
-            log.error("Error removing member from unit", e);
+            log.error("Error removing members from unit", e);
             throw new RuntimeException("Failed to remove member: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Assign multiple operators to unit (batch update organization_code and organization_name)
+     * Assign multiple operators to unit in a single id=in.(...) PATCH
+     * (organization_code and organization_name)
+     * @return operatorId -> "assigned" / "not_found"
      */
-    public void assignOperatorsToUnit(String unitId, List<String> operatorIds) {
+    public Map<String, String> assignOperatorsToUnit(String unitId, List<String> operatorIds) {
         try {
             // Get unit details
-            Map<String, Object> unit = getUnitById(unitId);
-            String unitName = (String) unit.get("name");
-            int currentMemberCount = (int) unit.get("member_count");
+            DispatchForceRecord unit = getUnitById(unitId);
+            String unitName = unit.name();
 
-            // Update each operator's organization_code and organization_name
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+            Map<String, Object> operatorUpdate = new HashMap<>();
+            operatorUpdate.put("organization_code", unitId);
+            operatorUpdate.put("organization_name", unitName);
+
+            Set<String> assigned = operatorRepository.updateAll(operatorIds, null, operatorUpdate);
 
-            int successCount = 0;
+            Map<String, String> results = new LinkedHashMap<>();
             for (String operatorId : operatorIds) {
-                try {
-                    Map<String, Object> updateData = new HashMap<>();
-                    updateData.put("organization_code", unitId);
-                    updateData.put("organization_name", unitName);
-
-                    String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId;
-                    executePatchRequest(url, updateData, headers);
-                    successCount++;
-                    log.info("Operator {} assigned to unit {} ({})", operatorId, unitId, unitName);
-                } catch (Exception e) {
-                    log.error("Failed to assign operator {} to unit {}", operatorId, unitId, e);
-                }
+                results.put(operatorId, assigned.contains(operatorId) ? "assigned" : "not_found");
             }
 
             // Update unit's member_count by counting actual members
-            if (successCount > 0) {
+            if (!assigned.isEmpty()) {
+                operatorDirectory.invalidateOperators(operatorIds);
+
                 // Count actual members in the unit
                 int actualMemberCount = countUnitMembers(unitId);
 
                 Map<String, Object> updateData = new HashMap<>();
                 updateData.put("member_count", actualMemberCount);
 
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.set("apikey", supabaseConfig.getSupabaseKey());
+                headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+
                 String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + unitId;
                 executePatchRequest(url, updateData, headers);
+                operatorDirectory.invalidateDispatchForce(unitId);
 
-                log.info("Successfully assigned {} operators to unit {}. Total member count: {}",
-                         successCount, unitId, actualMemberCount);
+                log.info("Successfully assigned {}/{} operators to unit {} ({}). Total member count: {}",
+                         assigned.size(), operatorIds.size(), unitId, unitName, actualMemberCount);
             }
 
+            return results;
+
         } catch (Exception e) {
             log.error("Error assigning operators to unit", e);
             throw new RuntimeException("Failed to assign operators: " + e.getMessage(), e);
@@ -497,9 +415,19 @@ public class UnitService {
      * Count members in a unit
      */
     private int countUnitMembers(String unitId) {
+        return countUnitMembers(unitId, Collections.emptySet());
+    }
+
+    private int countUnitMembers(String unitId, Set<String> excludedIds) {
         try {
-            List<Map<String, Object>> members = getUnitMembers(unitId);
-            return members.size();
+            int count = 0;
+            // Fresh read: the count is written back
+            for (RosterMember member : loadUnitMembers(unitId)) {
+                if (!excludedIds.contains(member.operator().id())) {
+                    count++;
+                }
+            }
+            return count;
         } catch (Exception e) {
             log.error("Error counting unit members for unit {}", unitId, e);
             return 0;
@@ -507,134 +435,74 @@ public class UnitService {
     }
 
     /**
-     * Get unit members (operators assigned to this unit)
+     * Get unit members (operators assigned to this unit), or the last good list while Supabase is unhealthy
      * Includes both regular members and leaders
      */
-    public List<Map<String, Object>> getUnitMembers(String unitId) {
+    public Snapshot<List<RosterMember>> getUnitMembers(String unitId) {
         try {
-            // First get unit details to get leader IDs
-            Map<String, Object> unit = getUnitById(unitId);
-            String leader1Id = (String) unit.get("operator_leader1_id");
-            String leader2Id = (String) unit.get("operator_leader2_id");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+            return lastGoodSnapshots.read("unitMembers", unitId, () -> loadUnitMembers(unitId));
 
-            // Query operators where organization_code matches unitId
-            String url = supabaseConfig.getApiUrl() + "/operator?organization_code=eq." + unitId +
-                         "&select=id,name,operator_id,role,organization_name,organization_code,phone_number,join_date";
-
-            log.info("Querying unit members with URL: {}", url);
+        } catch (Exception e) {
+            log.error("Error fetching unit members", e);
+            return Snapshot.fresh(new ArrayList<>());
+        }
+    }
 
-            HttpEntity<String> entity = new HttpEntity<>(headers);
+    private List<RosterMember> loadUnitMembers(String unitId) {
+        // First get unit details to get leader IDs
+        DispatchForceRecord unit = getUnitById(unitId);
+        String leader1Id = unit.operatorLeader1Id();
+        String leader2Id = unit.operatorLeader2Id();
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
+        // Query operators where organization_code matches unitId
+        List<OperatorRecord> operators = operatorDirectory.findOperatorsByOrganizationCode(unitId);
 
-            log.info("Response from getUnitMembers for unit {}: {}", unitId, response.getBody());
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            List<Map<String, Object>> members = new ArrayList<>();
-            Set<String> addedMemberIds = new HashSet<>();
-
-            // Add regular members
-            for (JsonNode node : jsonArray) {
-                Map<String, Object> member = new HashMap<>();
-                String memberId = node.get("id").asText();
-                member.put("id", memberId);
-                member.put("name", node.get("name").asText());
-                member.put("operator_id", node.get("operator_id").asText());
-                member.put("role", node.has("role") && !node.get("role").isNull() ? node.get("role").asText() : null);
-                member.put("organization_name", node.has("organization_name") && !node.get("organization_name").isNull()
-                    ? node.get("organization_name").asText() : null);
-                member.put("phone_number", node.has("phone_number") && !node.get("phone_number").isNull()
-                    ? node.get("phone_number").asText() : null);
-                member.put("join_date", node.has("join_date") && !node.get("join_date").isNull()
-                    ? node.get("join_date").asText() : null);
-
-                // Mark if this member is a leader
-                if (memberId.equals(leader1Id)) {
-                    member.put("position", "팀장");
-                } else if (memberId.equals(leader2Id)) {
-                    member.put("position", "부팀장");
-                } else {
-                    member.put("position", null);
-                }
+        List<RosterMember> members = new ArrayList<>();
+        Set<String> addedMemberIds = new HashSet<>();
 
-                members.add(member);
-                addedMemberIds.add(memberId);
-            }
+        // Add regular members, marking leaders
+        for (OperatorRecord operator : operators) {
+            members.add(new RosterMember(operator, positionOf(operator.id(), leader1Id, leader2Id)));
+            addedMemberIds.add(operator.id());
+        }
 
-            // Add leaders if they are not already in the member list
-            if (leader1Id != null && !addedMemberIds.contains(leader1Id)) {
-                Map<String, Object> leader = getOperatorById(leader1Id);
-                if (leader != null) {
-                    leader.put("position", "팀장");
-                    members.add(0, leader); // Add at the beginning
-                }
+        // Add leaders if they are not already in the member list
+        if (leader1Id != null && !addedMemberIds.contains(leader1Id)) {
+            OperatorRecord leader = getOperatorById(leader1Id);
+            if (leader != null) {
+                members.add(0, new RosterMember(leader, "팀장")); // Add at the beginning
             }
+        }
 
-            if (leader2Id != null && !addedMemberIds.contains(leader2Id)) {
-                Map<String, Object> deputy = getOperatorById(leader2Id);
-                if (deputy != null) {
-                    deputy.put("position", "부팀장");
-                    members.add(leader1Id != null && !addedMemberIds.contains(leader1Id) ? 1 : 0, deputy);
-                }
+        if (leader2Id != null && !addedMemberIds.contains(leader2Id)) {
+            OperatorRecord deputy = getOperatorById(leader2Id);
+            if (deputy != null) {
+                members.add(leader1Id != null && !addedMemberIds.contains(leader1Id) ? 1 : 0,
+                        new RosterMember(deputy, "부팀장"));
             }
+        }
 
-            log.info("Found {} total members (including leaders) for unit {}", members.size(), unitId);
-            return members;
+        log.info("Found {} total members (including leaders) for unit {}", members.size(), unitId);
+        return members;
+    }
 
-        } catch (Exception e) {
-            log.error("Error fetching unit members", e);
-            return new ArrayList<>();
+    private static String positionOf(String operatorId, String leader1Id, String leader2Id) {
+        if (operatorId.equals(leader1Id)) {
+            return "팀장";
+        }
+        if (operatorId.equals(leader2Id)) {
+            return "부팀장";
         }
+        return null;
     }
 
     /**
      * Get unit by ID (dispatch_force)
      */
-    private Map<String, Object> getUnitById(String unitId) {
+    private DispatchForceRecord getUnitById(String unitId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/dispatch_force?id=eq." + unitId;
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            if (jsonArray.isEmpty()) {
-                throw new RuntimeException("Unit not found: " + unitId);
-            }
-
-            JsonNode unitNode = jsonArray.get(0);
-            Map<String, Object> unit = new HashMap<>();
-            unit.put("id", unitNode.get("id").asText());
-            unit.put("name", unitNode.get("name").asText());
-            unit.put("member_count", unitNode.get("member_count").asInt());
-            unit.put("operator_leader1_id", unitNode.has("operator_leader1_id") && !unitNode.get("operator_leader1_id").isNull()
-                ? unitNode.get("operator_leader1_id").asText() : null);
-            unit.put("operator_leader2_id", unitNode.has("operator_leader2_id") && !unitNode.get("operator_leader2_id").isNull()
-                ? unitNode.get("operator_leader2_id").asText() : null);
-
-            return unit;
-
+            return operatorDirectory.findDispatchForce(unitId)
+                    .orElseThrow(() -> new RuntimeException("Unit not found: " + unitId));
         } catch (Exception e) {
             log.error("Error fetching unit by ID", e);
             throw new RuntimeException("Failed to fetch unit: " + e.getMessage(), e);
@@ -644,92 +512,12 @@ public class UnitService {
     /**
      * Get operator by ID
      */
-    private Map<String, Object> getOperatorById(String operatorId) {
+    private OperatorRecord getOperatorById(String operatorId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId +
-                         "&select=id,name,operator_id,role,organization_name,organization_code";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            if (jsonArray.isEmpty()) {
-                return null;
-            }
-
-            JsonNode node = jsonArray.get(0);
-            Map<String, Object> operator = new HashMap<>();
-            operator.put("id", node.get("id").asText());
-            operator.put("name", node.get("name").asText());
-            operator.put("operator_id", node.get("operator_id").asText());
-            operator.put("role", node.has("role") && !node.get("role").isNull() ? node.get("role").asText() : null);
-            operator.put("organization_name", node.has("organization_name") && !node.get("organization_name").isNull()
-                ? node.get("organization_name").asText() : null);
-
-            return operator;
-
+            return operatorDirectory.findOperator(operatorId);
         } catch (Exception e) {
             log.error("Error fetching operator by ID: {}", operatorId, e);
             return null;
         }
     }
-
-    /**
-     * Get operator details by ID (including role, join_date, and phone_number)
-     */
-    private Map<String, Object> getOperatorDetailsById(String operatorId) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("apikey", supabaseConfig.getSupabaseKey());
-            headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
-
-            String url = supabaseConfig.getApiUrl() + "/operator?id=eq." + operatorId +
-                         "&select=id,name,operator_id,role,organization_name,organization_code,join_date,phone_number";
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    String.class
-            );
-
-            JsonNode jsonArray = objectMapper.readTree(response.getBody());
-            if (jsonArray.isEmpty()) {
-                return null;
-            }
-
-            JsonNode node = jsonArray.get(0);
-            Map<String, Object> operator = new HashMap<>();
-            operator.put("id", node.get("id").asText());
-            operator.put("name", node.get("name").asText());
-            operator.put("operator_id", node.get("operator_id").asText());
-            operator.put("role", node.has("role") && !node.get("role").isNull() ? node.get("role").asText() : null);
-            operator.put("organization_name", node.has("organization_name") && !node.get("organization_name").isNull()
-                ? node.get("organization_name").asText() : null);
-            operator.put("join_date", node.has("join_date") && !node.get("join_date").isNull()
-                ? node.get("join_date").asText() : null);
-            operator.put("phone_number", node.has("phone_number") && !node.get("phone_number").isNull()
-                ? node.get("phone_number").asText() : null);
-
-            return operator;
-
-        } catch (Exception e) {
-            log.error("Error fetching operator details by ID: {}", operatorId, e);
-            return null;
-        }
-    }
 }
@@ -3,17 +3,32 @@ package com.ecall.common.config;
 import com.azure.ai.textanalytics.TextAnalyticsClient;
 import com.azure.ai.textanalytics.TextAnalyticsClientBuilder;
 import com.azure.core.credential.AzureKeyCredential;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.ecall.common.instrumentation.OutboundCallLedger;
+import com.ecall.common.instrumentation.OutboundCallTracker;
+import com.ecall.common.resilience.DependencyGuard;
 import io.github.cdimascio.dotenv.Dotenv;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
 
 @Configuration
 public class AzureTextAnalyticsConfig {
 
     @Bean
     @ConditionalOnProperty(name = "azure.ai.enabled", havingValue = "true", matchIfMissing = false)
-    public TextAnalyticsClient textAnalyticsClient() {
+    public TextAnalyticsClient textAnalyticsClient(OutboundCallTracker outboundCallTracker,
+                                                   DependencyGuard dependencyGuard,
+                                                   @Value("${ai.deadline.azure-ms:${ai.deadline.default-ms:10000}}") long deadlineMs) {
         Dotenv dotenv = Dotenv.load();
         String azureAiApiKey = dotenv.get("AZURE_AI_API_KEY");
         String azureAiApiEndpoint = dotenv.get("AZURE_AI_API_ENDPOINT");
@@ -27,6 +42,67 @@ public class AzureTextAnalyticsConfig {
         return new TextAnalyticsClientBuilder()
                 .credential(new AzureKeyCredential(azureAiApiKey))
                 .endpoint(azureAiApiEndpoint)
+                .addPolicy(new DeadlinePolicy(Duration.ofMillis(deadlineMs)))
+                .addPolicy(dependencyGuardPolicy(dependencyGuard))
+                .addPolicy(outboundCallPolicy(outboundCallTracker))
                 .buildClient();
     }
+
+    /**
+     * Hard deadline of every Text Analytics call, retries included: runs once per call, ahead
+     * of the SDK's retry policy, so a stalled attempt is not retried past the deadline
+     */
+    static final class DeadlinePolicy implements HttpPipelinePolicy {
+        private final Duration deadline;
+
+        DeadlinePolicy(Duration deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+            return next.process().timeout(deadline);
+        }
+
+        @Override
+        public HttpPipelinePosition getPipelinePosition() {
+            return HttpPipelinePosition.PER_CALL;
+        }
+    }
+
+    /**
+     * Bulkhead / circuit breaker of the "azure" dependency around every Text Analytics attempt.
+     * The deadline cancels the attempt from outside, so a cancelled attempt counts as a failure.
+     */
+    static HttpPipelinePolicy dependencyGuardPolicy(DependencyGuard guard) {
+        return (context, next) -> Mono.defer(() -> {
+            DependencyGuard.Permit permit = guard.tryAcquire("azure");
+            return next.process()
+                    .doOnNext(response -> permit.complete(
+                            response.getStatusCode() >= 500 || response.getStatusCode() == 429))
+                    .doOnError(e -> permit.complete(true))
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            permit.complete(true);
+                        } else {
+                            permit.release();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Count Text Analytics calls in the outbound call accounting (ledger captured on the calling thread)
+     */
+    private static HttpPipelinePolicy outboundCallPolicy(OutboundCallTracker tracker) {
+        return (context, next) -> {
+            OutboundCallLedger ledger = OutboundCallLedger.current();
+            long start = System.nanoTime();
+            return next.process().doOnEach(signal -> {
+                if (signal.isOnNext() || signal.isOnError()) {
+                    tracker.record("azure", "text-analytics", System.nanoTime() - start, 0, ledger);
+                }
+            });
+        };
+    }
 }
@@ -0,0 +1,19 @@
+package com.ecall.common.instrumentation;
+
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class OutboundAccountingConfig {
+
+    /**
+     * Count calls of every WebClient built from the Spring Boot WebClient.Builder (e.g. Kakao in MapService)
+     */
+    @Bean
+    @Order(1)
+    public WebClientCustomizer outboundCallWebClientCustomizer(OutboundCallExchangeFilter exchangeFilter) {
+        return builder -> builder.filter(exchangeFilter);
+    }
+}
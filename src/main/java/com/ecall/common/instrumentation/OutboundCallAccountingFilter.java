@@ -0,0 +1,173 @@
+package com.ecall.common.instrumentation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Opens an {@link OutboundCallLedger} for every inbound request and, when the request
+ * completes (including async / Mono responses), publishes what it caused:
+ * <ul>
+ *   <li>outbound.calls.per.request{uri, target, resource}: calls per inbound request</li>
+ *   <li>X-Outbound-Calls response header (if outbound.accounting.debug-header is on)</li>
+ *   <li>a warning and outbound.table.call.warnings{uri, resource} when one request calls the
+ *       same resource more than outbound.accounting.warn-calls-per-resource times (N+1 pattern)</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class OutboundCallAccountingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "X-Outbound-Calls";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean debugHeader;
+    private final int warnCallsPerResource;
+
+    public OutboundCallAccountingFilter(MeterRegistry meterRegistry,
+                                        @Value("${outbound.accounting.debug-header:false}") boolean debugHeader,
+                                        @Value("${outbound.accounting.warn-calls-per-resource:20}") int warnCallsPerResource) {
+        this.meterRegistry = meterRegistry;
+        this.debugHeader = debugHeader;
+        this.warnCallsPerResource = warnCallsPerResource;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        OutboundCallLedger ledger = new OutboundCallLedger();
+        HttpServletResponse target = debugHeader ? new LedgerHeaderResponse(response, ledger) : response;
+
+        OutboundCallLedger.bind(ledger);
+        try {
+            chain.doFilter(request, target);
+        } finally {
+            OutboundCallLedger.unbind();
+        }
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    publish(request, ledger);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            publish(request, ledger);
+        }
+    }
+
+    private void publish(HttpServletRequest request, OutboundCallLedger ledger) {
+        if (ledger.isEmpty()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        ledger.snapshot().forEach((key, stats) -> {
+            int separator = key.indexOf('/');
+            String targetName = key.substring(0, separator);
+            String resource = key.substring(separator + 1);
+
+            DistributionSummary.builder("outbound.calls.per.request")
+                    .tag("uri", uri)
+                    .tag("target", targetName)
+                    .tag("resource", resource)
+                    .register(meterRegistry)
+                    .record(stats.count());
+
+            if (stats.count() > warnCallsPerResource) {
+                Counter.builder("outbound.table.call.warnings")
+                        .tag("uri", uri)
+                        .tag("resource", key)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("{} {} made {} calls to {} ({}ms) - likely N+1, batch or cache these reads",
+                        request.getMethod(), uri, stats.count(), key, stats.totalMillis());
+            }
+        });
+
+        log.debug("{} {} outbound calls: {}", request.getMethod(), uri, ledger.summary());
+    }
+
+    /**
+     * Adds the ledger summary header right before the response is committed, i.e. after
+     * the handler has made its outbound calls and before the first body byte is written
+     */
+    private static final class LedgerHeaderResponse extends HttpServletResponseWrapper {
+        private final OutboundCallLedger ledger;
+        private boolean applied;
+
+        LedgerHeaderResponse(HttpServletResponse response, OutboundCallLedger ledger) {
+            super(response);
+            this.ledger = ledger;
+        }
+
+        private void applyHeader() {
+            if (!applied && !isCommitted()) {
+                applied = true;
+                if (!ledger.isEmpty()) {
+                    setHeader(HEADER, ledger.summary());
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            applyHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            applyHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            applyHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            applyHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            applyHeader();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecall.common.instrumentation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient side of the outbound call accounting. The ledger comes from the Reactor
+ * context (see {@link OutboundCallLedger#propagate()}) or the subscribing thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboundCallExchangeFilter implements ExchangeFilterFunction {
+
+    private final OutboundCallTracker tracker;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            OutboundCallLedger ledger = OutboundCallLedger.from(context);
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnSuccess(response -> tracker.record(request.url(), System.nanoTime() - start,
+                            response != null ? response.headers().contentLength().orElse(0) : 0, ledger))
+                    .doOnError(e -> tracker.record(request.url(), System.nanoTime() - start, 0, ledger));
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecall.common.instrumentation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * RestTemplate side of the outbound call accounting
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboundCallInterceptor implements ClientHttpRequestInterceptor {
+
+    private final OutboundCallTracker tracker;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long start = System.nanoTime();
+        long responseBytes = 0;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            responseBytes = Math.max(0, response.getHeaders().getContentLength());
+            return response;
+        } finally {
+            tracker.record(request.getURI(), System.nanoTime() - start, body.length + responseBytes,
+                    OutboundCallLedger.current());
+        }
+    }
+}
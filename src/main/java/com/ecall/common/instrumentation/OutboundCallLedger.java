@@ -0,0 +1,152 @@
+package com.ecall.common.instrumentation;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Outbound calls caused by one inbound request, grouped by "target/resource"
+ * (e.g. supabase/operator, openai/chat/completions).
+ *
+ * The ledger is bound to the request thread by {@link OutboundCallAccountingFilter}.
+ * Work handed to other threads carries it along explicitly: {@link #wrap} for executors,
+ * {@link #propagate()} / {@link #from} for Reactor pipelines.
+ */
+public final class OutboundCallLedger {
+
+    static final String CONTEXT_KEY = OutboundCallLedger.class.getName();
+
+    private static final ThreadLocal<OutboundCallLedger> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Stats> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Count, total latency and bytes of the calls to one target/resource
+     */
+    public static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalMillis() {
+            return nanos.sum() / 1_000_000;
+        }
+
+        public long bytes() {
+            return bytes.sum();
+        }
+    }
+
+    void add(String target, String resource, long elapsedNanos, long bytes) {
+        Stats stats = calls.computeIfAbsent(target + "/" + resource, key -> new Stats());
+        stats.count.increment();
+        stats.nanos.add(elapsedNanos);
+        stats.bytes.add(Math.max(0, bytes));
+    }
+
+    /**
+     * Snapshot keyed by "target/resource", sorted
+     */
+    public Map<String, Stats> snapshot() {
+        return new TreeMap<>(calls);
+    }
+
+    public boolean isEmpty() {
+        return calls.isEmpty();
+    }
+
+    /**
+     * Compact header form: "supabase/operator=3;42ms;5120B, openai/chat/completions=1;900ms;2048B"
+     */
+    public String summary() {
+        StringJoiner joiner = new StringJoiner(", ");
+        snapshot().forEach((key, stats) ->
+                joiner.add(key + "=" + stats.count() + ";" + stats.totalMillis() + "ms;" + stats.bytes() + "B"));
+        return joiner.toString();
+    }
+
+    // ===== binding =====
+
+    public static OutboundCallLedger current() {
+        return CURRENT.get();
+    }
+
+    static void bind(OutboundCallLedger ledger) {
+        CURRENT.set(ledger);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run the supplier with the caller's ledger bound, on whatever thread it ends up on
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> work) {
+        OutboundCallLedger ledger = current();
+        if (ledger == null) {
+            return work;
+        }
+        return () -> {
+            OutboundCallLedger previous = current();
+            CURRENT.set(ledger);
+            try {
+                return work.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Call with the given ledger bound (e.g. one taken from a Reactor context)
+     */
+    public static <V> V callWith(OutboundCallLedger ledger, Callable<V> work) throws Exception {
+        if (ledger == null) {
+            return work.call();
+        }
+        OutboundCallLedger previous = current();
+        CURRENT.set(ledger);
+        try {
+            return work.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * For contextWrite(...) on a Mono/Flux returned from a controller: captures the ledger
+     * of the request thread now, so calls made later on event-loop threads are still counted
+     */
+    public static Function<Context, Context> propagate() {
+        OutboundCallLedger ledger = current();
+        return context -> ledger != null ? context.put(CONTEXT_KEY, ledger) : context;
+    }
+
+    /**
+     * Ledger carried by a Reactor context, falling back to the current thread's
+     */
+    public static OutboundCallLedger from(ContextView context) {
+        return context.hasKey(CONTEXT_KEY) ? context.get(CONTEXT_KEY) : current();
+    }
+
+    private static void restore(OutboundCallLedger previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecall.common.instrumentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records outbound HTTP calls (Supabase, OpenAI, Kakao, Clova, Azure) as Micrometer metrics
+ * and into the ledger of the inbound request that caused them.
+ *
+ * outbound.calls{target, resource} is a timer, and outbound.bytes{target, resource} counts
+ * request + response body bytes as far as they are known (Content-Length).
+ */
+@Component
+public class OutboundCallTracker {
+
+    private final MeterRegistry meterRegistry;
+    private final String supabaseHost;
+
+    public OutboundCallTracker(MeterRegistry meterRegistry, @Value("${supabase.url}") String supabaseUrl) {
+        this.meterRegistry = meterRegistry;
+        this.supabaseHost = URI.create(supabaseUrl).getHost();
+    }
+
+    /**
+     * Record a call into the current thread's ledger
+     */
+    public void record(String target, String resource, long elapsedNanos, long bytes) {
+        record(target, resource, elapsedNanos, bytes, OutboundCallLedger.current());
+    }
+
+    public void record(String target, String resource, long elapsedNanos, long bytes, OutboundCallLedger ledger) {
+        Timer.builder("outbound.calls")
+                .tag("target", target)
+                .tag("resource", resource)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("outbound.bytes")
+                .baseUnit("bytes")
+                .tag("target", target)
+                .tag("resource", resource)
+                .register(meterRegistry)
+                .record(Math.max(0, bytes));
+
+        if (ledger != null) {
+            ledger.add(target, resource, elapsedNanos, bytes);
+        }
+    }
+
+    /**
+     * Record a call to a URI, deriving target and resource from it
+     */
+    public void record(URI uri, long elapsedNanos, long bytes, OutboundCallLedger ledger) {
+        String[] targetAndResource = classify(uri);
+        record(targetAndResource[0], targetAndResource[1], elapsedNanos, bytes, ledger);
+    }
+
+    /**
+     * Dependency (target) a URI belongs to, e.g. "supabase"
+     */
+    public String targetOf(URI uri) {
+        return classify(uri)[0];
+    }
+
+    /**
+     * Map a URI to {target, resource}. Supabase resources are tables (rpc/..., storage/bucket);
+     * other APIs use the request path, so metric tags stay bounded (no query strings or ids).
+     */
+    String[] classify(URI uri) {
+        String host = uri.getHost() != null ? uri.getHost() : "unknown";
+        String path = uri.getPath() != null ? uri.getPath() : "";
+
+        if (host.equals(supabaseHost) || host.endsWith(".supabase.co")) {
+            String[] segments = path.replaceFirst("^/", "").split("/");
+            if (segments.length >= 3 && segments[0].equals("rest")) {
+                return new String[] {"supabase", segments[2].equals("rpc") && segments.length >= 4
+                        ? "rpc/" + segments[3] : segments[2]};
+            }
+            if (segments.length >= 4 && segments[0].equals("storage")) {
+                // /storage/v1/object/{bucket}/... or /storage/v1/object/public/{bucket}/...
+                String bucket = segments[3].equals("public") && segments.length >= 5 ? segments[4] : segments[3];
+                return new String[] {"supabase", "storage/" + bucket};
+            }
+            return new String[] {"supabase", path};
+        }
+        if (host.endsWith("openai.com")) {
+            return new String[] {"openai", path.replaceFirst("^/v1/", "")};
+        }
+        if (host.contains("kakao")) {
+            return new String[] {"kakao", path};
+        }
+        if (host.contains("naver") || host.contains("ncloud")) {
+            return new String[] {"clova", path.substring(path.lastIndexOf('/') + 1)};
+        }
+        if (host.contains("azure") || host.contains("microsoft")) {
+            return new String[] {"azure", path};
+        }
+        return new String[] {host, path};
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecall.common.resilience;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+
+/**
+ * Apache HttpClient request factory whose requests are aborted when the {@link AiCallExecutor}
+ * attempt making them is abandoned (deadline passed, or the other hedge attempt won).
+ * Unlike an interrupted HttpURLConnection read, an aborted request closes its connection at
+ * once, so the pool thread and the admission slot are freed with it.
+ */
+public class AbortableClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    public AbortableClientHttpRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+        if (request instanceof HttpUriRequest abortable) {
+            AiCallExecutor.onAbandon(abortable::abort);
+        }
+        return request;
+    }
+}
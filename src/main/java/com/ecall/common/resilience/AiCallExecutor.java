@@ -0,0 +1,424 @@
+package com.ecall.common.resilience;
+
+import com.ecall.common.instrumentation.OutboundCallLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hard deadlines, and optional hedging, for calls to the AI providers (OpenAI, Azure, Clova).
+ *
+ * A call runs on a bounded pool while the caller waits at most ai.deadline.{dependency}-ms
+ * for it; past the deadline the caller gets {@link DependencyUnavailableException} (reason
+ * "deadline exceeded"), which the AI callers answer with their local rules, however long
+ * the provider keeps the call open. The abandoned attempt is cancelled (and aborted, where
+ * the caller passes a way to abort it).
+ *
+ * Idempotent calls may be hedged ({@link #hedged}): when the first attempt has not answered
+ * after the ai.hedge.percentile latency of the recent successful calls of the same name, a
+ * second identical attempt is started and the first answer wins. Hedging starts once
+ * ai.hedge.min-samples latencies have been seen, and never earlier than ai.hedge.min-delay-ms.
+ *
+ * Each attempt holds its own {@link Admission} slot (e.g. of the OpenAI rate limits) until it
+ * has actually finished, also when the caller has given up on it; a hedge is only sent when
+ * a slot is free at once. HTTP requests made through {@link AbortableClientHttpRequestFactory}
+ * are aborted when their attempt is abandoned, so they do not run on to the read timeout.
+ *
+ * Counted as ai.calls{dependency, outcome=ok|deadline|error|rejected} and
+ * ai.hedges{name, winner=primary|hedge|skipped}; pool usage as executor.*{name=ai.call}.
+ */
+@Component
+@Slf4j
+public class AiCallExecutor {
+
+    /**
+     * Slots that the attempts of a call need before they are sent (e.g. rate limit admission)
+     */
+    public interface Admission {
+
+        /**
+         * No admission: attempts are only bounded by the pool
+         */
+        Admission NONE = new Admission() {
+            @Override
+            public Runnable acquire() {
+                return () -> {
+                };
+            }
+
+            @Override
+            public Runnable tryAcquire() {
+                return () -> {
+                };
+            }
+        };
+
+        /**
+         * Slot for the first attempt, waiting for it if need be
+         * @return Releases the slot
+         * @throws DependencyUnavailableException if no slot is granted
+         */
+        Runnable acquire();
+
+        /**
+         * Slot for a hedge attempt without waiting
+         * @return Releases the slot, or null if no slot is free now
+         */
+        Runnable tryAcquire();
+    }
+
+    private static final ThreadLocal<Attempt<?>> CURRENT_ATTEMPT = new ThreadLocal<>();
+
+    /**
+     * One attempt of a call: runs the work on a pool thread, and releases its admission slot
+     * when the work has finished (or when it is abandoned before it started)
+     */
+    private static final class Attempt<T> implements Callable<T> {
+        private final Supplier<T> work;
+        private final Runnable release;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile Runnable abort;
+        private volatile boolean abandoned;
+
+        Attempt(Supplier<T> work, Runnable release) {
+            this.work = OutboundCallLedger.wrap(work);
+            this.release = release;
+        }
+
+        @Override
+        public T call() {
+            if (!started.compareAndSet(false, true)) {
+                throw new CancellationException("Abandoned before it started");
+            }
+            CURRENT_ATTEMPT.set(this);
+            try {
+                return work.get();
+            } finally {
+                CURRENT_ATTEMPT.remove();
+                release();
+            }
+        }
+
+        void onAbandon(Runnable abort) {
+            this.abort = abort;
+            if (abandoned) {
+                abort.run();
+            }
+        }
+
+        /**
+         * The caller no longer waits for this attempt: stop its request
+         */
+        void abandon() {
+            abandoned = true;
+            Runnable current = abort;
+            if (current != null) {
+                current.run();
+            }
+            if (started.compareAndSet(false, true)) {
+                release(); // Will never run
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Latencies of the last successful calls of one name, for the hedge delay
+     */
+    private static final class LatencyWindow {
+        private final long[] nanos;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.nanos = new long[capacity];
+        }
+
+        synchronized void add(long elapsedNanos) {
+            nanos[next] = elapsedNanos;
+            next = (next + 1) % nanos.length;
+            size = Math.min(size + 1, nanos.length);
+        }
+
+        synchronized long percentile(double percentile, int minSamples) {
+            if (size < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final int hedgeMinSamples;
+    private final long hedgeMinDelayNanos;
+    private final int hedgeWindow;
+
+    public AiCallExecutor(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.hedgeEnabled = environment.getProperty("ai.hedge.enabled", Boolean.class, false);
+        this.hedgePercentile = environment.getProperty("ai.hedge.percentile", Double.class, 0.95);
+        this.hedgeMinSamples = environment.getProperty("ai.hedge.min-samples", Integer.class, 20);
+        this.hedgeMinDelayNanos = TimeUnit.MILLISECONDS.toNanos(
+                environment.getProperty("ai.hedge.min-delay-ms", Long.class, 300L));
+        this.hedgeWindow = environment.getProperty("ai.hedge.window", Integer.class, 200);
+
+        int poolSize = environment.getProperty("ai.pool-size", Integer.class, 32);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ai-call-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "ai.call");
+
+        log.info("AI call executor initialized - poolSize: {}, deadlines: openai {}ms, azure {}ms, clova {}ms, hedging: {} (p{}, min {} samples)",
+                poolSize, deadlineMillis("openai"), deadlineMillis("azure"), deadlineMillis("clova"),
+                hedgeEnabled ? "on" : "off", Math.round(hedgePercentile * 100), hedgeMinSamples);
+    }
+
+    /**
+     * Stop the request of the current attempt with this action when the caller abandons it;
+     * a no-op outside an attempt
+     */
+    public static void onAbandon(Runnable abort) {
+        Attempt<?> attempt = CURRENT_ATTEMPT.get();
+        if (attempt != null) {
+            attempt.onAbandon(abort);
+        }
+    }
+
+    /**
+     * Make a call within the dependency's deadline
+     * @throws DependencyUnavailableException if the deadline passes or the pool is saturated
+     */
+    public <T> T call(String dependency, Supplier<T> work) {
+        return call(dependency, Admission.NONE, work, null);
+    }
+
+    /**
+     * Make a call within the dependency's deadline, aborting it if the deadline passes
+     * @param abort Stops the underlying request (e.g. HttpPost::abort), or null
+     */
+    public <T> T call(String dependency, Supplier<T> work, Runnable abort) {
+        return call(dependency, Admission.NONE, work, abort);
+    }
+
+    /**
+     * Make a call within the dependency's deadline, once it is admitted
+     * @throws DependencyUnavailableException if it is not admitted, the deadline passes or the
+     *                                        pool is saturated
+     */
+    public <T> T call(String dependency, Admission admission, Supplier<T> work) {
+        return call(dependency, admission, work, null);
+    }
+
+    private <T> T call(String dependency, Admission admission, Supplier<T> work, Runnable abort) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis(dependency));
+        Attempt<T> attempt = new Attempt<>(work, admission.acquire());
+        if (abort != null) {
+            attempt.onAbandon(abort);
+        }
+        Future<T> future = submit(dependency, attempt);
+        try {
+            T result = await(dependency, future, deadline);
+            count(dependency, "ok");
+            return result;
+        } finally {
+            if (!future.isDone()) {
+                future.cancel(true);
+                attempt.abandon();
+            }
+        }
+    }
+
+    /**
+     * Make an idempotent call within the dependency's deadline, hedged with a second attempt
+     * when the first is slower than usual
+     * @param name Call kind whose latencies set the hedge delay, e.g. "incident-type"
+     * @param admission Slots of the attempts; a hedge is skipped when none is free at once
+     */
+    public <T> T hedged(String dependency, String name, Admission admission, Supplier<T> work) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMillis(dependency));
+        LatencyWindow window = latencies.computeIfAbsent(name, k -> new LatencyWindow(hedgeWindow));
+        long hedgeDelay = hedgeEnabled ? window.percentile(hedgePercentile, hedgeMinSamples) : -1;
+
+        CompletionService<T> attempts = new ExecutorCompletionService<>(executor);
+        Attempt<T> primaryAttempt = new Attempt<>(work, admission.acquire());
+        Future<T> primary;
+        try {
+            primary = attempts.submit(primaryAttempt);
+        } catch (RejectedExecutionException e) {
+            primaryAttempt.abandon();
+            count(dependency, "rejected");
+            throw new DependencyUnavailableException(dependency, "ai call pool saturated");
+        }
+        Attempt<T> hedgeAttempt = null;
+        Future<T> hedge = null;
+        int pending = 1;
+        try {
+            while (true) {
+                long waitUntil = hedge == null && hedgeDelay >= 0
+                        ? Math.min(deadline, start + Math.max(hedgeDelay, hedgeMinDelayNanos))
+                        : deadline;
+                Future<T> done = attempts.poll(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                if (done == null) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        count(dependency, "deadline");
+                        log.warn("{} {} call missed its {}ms deadline", dependency, name, deadlineMillis(dependency));
+                        throw new DependencyUnavailableException(dependency, "deadline exceeded");
+                    }
+                    // Slower than usual: send the same request again if a slot is free, first answer wins
+                    hedgeDelay = -1;
+                    Runnable slot = admission.tryAcquire();
+                    if (slot == null) {
+                        countHedge(name, "skipped");
+                        continue;
+                    }
+                    hedgeAttempt = new Attempt<>(work, slot);
+                    try {
+                        hedge = attempts.submit(hedgeAttempt);
+                        pending++;
+                    } catch (RejectedExecutionException e) {
+                        // Pool saturated: keep waiting on the first attempt only
+                        hedgeAttempt.abandon();
+                        hedgeAttempt = null;
+                        countHedge(name, "skipped");
+                    }
+                    continue;
+                }
+
+                pending--;
+                try {
+                    T result = done.get();
+                    window.add(System.nanoTime() - start);
+                    if (hedge != null) {
+                        countHedge(name, done == hedge ? "hedge" : "primary");
+                    }
+                    count(dependency, "ok");
+                    return result;
+                } catch (ExecutionException e) {
+                    if (pending == 0) {
+                        count(dependency, "error");
+                        throw unwrap(e);
+                    }
+                    // The other attempt may still succeed
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException(dependency, "interrupted");
+        } finally {
+            abandonIfRunning(primary, primaryAttempt);
+            if (hedge != null) {
+                abandonIfRunning(hedge, hedgeAttempt);
+            }
+        }
+    }
+
+    /**
+     * Overall deadline of calls to a dependency (ai.deadline.{dependency}-ms), e.g. for streams
+     */
+    public Duration deadline(String dependency) {
+        return Duration.ofMillis(deadlineMillis(dependency));
+    }
+
+    private static void abandonIfRunning(Future<?> future, Attempt<?> attempt) {
+        if (!future.isDone()) {
+            future.cancel(true);
+            attempt.abandon();
+        }
+    }
+
+    private <T> Future<T> submit(String dependency, Attempt<T> attempt) {
+        try {
+            return executor.submit(attempt);
+        } catch (RejectedExecutionException e) {
+            attempt.abandon();
+            count(dependency, "rejected");
+            throw new DependencyUnavailableException(dependency, "ai call pool saturated");
+        }
+    }
+
+    private <T> T await(String dependency, Future<T> attempt, long deadline) {
+        try {
+            return attempt.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            count(dependency, "deadline");
+            log.warn("{} call missed its {}ms deadline", dependency, deadlineMillis(dependency));
+            throw new DependencyUnavailableException(dependency, "deadline exceeded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException(dependency, "interrupted");
+        } catch (ExecutionException e) {
+            count(dependency, "error");
+            throw unwrap(e);
+        }
+    }
+
+    private long deadlineMillis(String dependency) {
+        return environment.getProperty("ai.deadline." + dependency + "-ms", Long.class,
+                environment.getProperty("ai.deadline.default-ms", Long.class, 10000L));
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof RuntimeException runtime
+                ? runtime
+                : new RuntimeException("Failed to call AI provider: " + cause.getMessage(), cause);
+    }
+
+    private void count(String dependency, String outcome) {
+        Counter.builder("ai.calls")
+                .tag("dependency", dependency)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void countHedge(String name, String winner) {
+        Counter.builder("ai.hedges")
+                .tag("name", name)
+                .tag("winner", winner)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecall.common.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * CLOSED: the outcomes of the last windowSize calls are kept; once at least minimumCalls are
+ * recorded and the failure rate reaches the threshold, the circuit opens.
+ * OPEN: calls are refused for openNanos.
+ * HALF_OPEN: up to halfOpenCalls trial calls go through; all of them succeeding closes the
+ * circuit, any failure opens it again.
+ */
+@Slf4j
+final class CircuitBreaker {
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent,
+                   long openNanos, int halfOpenCalls) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * A half-open trial call that ended without an outcome (e.g. cancelled) frees its slot
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits > halfOpenSuccesses) {
+            halfOpenPermits--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[windowIndex]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            failures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transition(State next) {
+        if (next == State.OPEN) {
+            log.warn("Circuit {} OPEN - failure rate {}/{} (was {})", name, failures, recorded, state);
+            openedAt = System.nanoTime();
+        } else {
+            log.info("Circuit {} {} (was {})", name, next, state);
+        }
+        state = next;
+        recorded = 0;
+        failures = 0;
+        windowIndex = 0;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+    }
+}
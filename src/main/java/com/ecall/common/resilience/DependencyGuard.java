@@ -0,0 +1,206 @@
+package com.ecall.common.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-dependency bulkhead and circuit breaker for Supabase, OpenAI, Kakao, Clova and Azure.
+ *
+ * Every dependency has its own bounded number of concurrent calls, so a slow dependency
+ * ties up at most that many threads / connections and degrades only its own feature, and
+ * its own circuit breaker, so an unhealthy dependency is refused immediately instead of
+ * being waited on. Limits come from resilience.{dependency}.* (see application.yml).
+ *
+ * Exported as resilience.circuit.state{dependency} (0 closed, 1 half-open, 2 open),
+ * resilience.bulkhead.available{dependency} and resilience.rejected{dependency, reason}.
+ */
+@Component
+@Slf4j
+public class DependencyGuard {
+
+    public static final Set<String> DEPENDENCIES = Set.of("supabase", "openai", "kakao", "clova", "azure");
+
+    private final Map<String, Dependency> dependencies = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public DependencyGuard(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (String name : DEPENDENCIES) {
+            Dependency dependency = new Dependency(name, environment);
+            dependencies.put(name, dependency);
+
+            Gauge.builder("resilience.circuit.state", dependency.breaker, breaker -> breaker.state().ordinal())
+                    .tag("dependency", name)
+                    .register(meterRegistry);
+            Gauge.builder("resilience.bulkhead.available", dependency.bulkhead, Semaphore::availablePermits)
+                    .tag("dependency", name)
+                    .register(meterRegistry);
+
+            log.info("Dependency guard {} - maxConcurrent: {}, maxWait: {}ms", name,
+                    dependency.maxConcurrent, dependency.maxWait.toMillis());
+        }
+    }
+
+    /**
+     * Whether calls to the dependency are currently refused (circuit open)
+     */
+    public boolean isOpen(String dependency) {
+        Dependency guarded = dependencies.get(dependency);
+        return guarded != null && guarded.breaker.state() == CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * Acquire a call slot, waiting up to resilience.{dependency}.max-wait-ms for a free one.
+     * For blocking callers; unknown dependencies get an unguarded permit.
+     * @throws DependencyUnavailableException if the circuit is open or the bulkhead stays full
+     */
+    public Permit acquire(String dependency) {
+        Dependency guarded = dependencies.get(dependency);
+        if (guarded == null) {
+            return Permit.UNGUARDED;
+        }
+        return guarded.acquire(guarded.maxWait);
+    }
+
+    /**
+     * Acquire a call slot without waiting
+     * @throws DependencyUnavailableException if the circuit is open or the bulkhead is full
+     */
+    public Permit tryAcquire(String dependency) {
+        Dependency guarded = dependencies.get(dependency);
+        if (guarded == null) {
+            return Permit.UNGUARDED;
+        }
+        return guarded.acquire(Duration.ZERO);
+    }
+
+    /**
+     * Acquire a circuit breaker permission only, without a bulkhead slot. For non-blocking
+     * clients whose connection pool already bounds (and queues) concurrent calls.
+     * @throws DependencyUnavailableException if the circuit is open
+     */
+    public Permit acquireCircuit(String dependency) {
+        Dependency guarded = dependencies.get(dependency);
+        if (guarded == null) {
+            return Permit.UNGUARDED;
+        }
+        return guarded.acquireCircuit();
+    }
+
+    private void rejected(String dependency, String reason) {
+        Counter.builder("resilience.rejected")
+                .tag("dependency", dependency)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private final class Dependency {
+        private final String name;
+        private final int maxConcurrent;
+        private final Duration maxWait;
+        private final Semaphore bulkhead;
+        private final CircuitBreaker breaker;
+
+        Dependency(String name, Environment environment) {
+            String prefix = "resilience." + name + ".";
+            this.name = name;
+            this.maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class, 20);
+            this.maxWait = Duration.ofMillis(environment.getProperty(prefix + "max-wait-ms", Long.class, 200L));
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.breaker = new CircuitBreaker(name,
+                    environment.getProperty(prefix + "window-size", Integer.class, 20),
+                    environment.getProperty(prefix + "minimum-calls", Integer.class, 10),
+                    environment.getProperty(prefix + "failure-rate-threshold", Integer.class, 50),
+                    TimeUnit.SECONDS.toNanos(environment.getProperty(prefix + "open-seconds", Long.class, 15L)),
+                    environment.getProperty(prefix + "half-open-calls", Integer.class, 3));
+        }
+
+        Permit acquire(Duration wait) {
+            // Bulkhead first: a refused slot must not use up a half-open trial call
+            boolean acquired;
+            try {
+                acquired = wait.isZero()
+                        ? bulkhead.tryAcquire()
+                        : bulkhead.tryAcquire(wait.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rejected(name, "bulkhead-full");
+                throw new DependencyUnavailableException(name, "bulkhead full");
+            }
+            if (!breaker.tryAcquirePermission()) {
+                bulkhead.release();
+                rejected(name, "circuit-open");
+                throw new DependencyUnavailableException(name, "circuit open");
+            }
+            return new Permit(this, true);
+        }
+
+        Permit acquireCircuit() {
+            if (!breaker.tryAcquirePermission()) {
+                rejected(name, "circuit-open");
+                throw new DependencyUnavailableException(name, "circuit open");
+            }
+            return new Permit(this, false);
+        }
+    }
+
+    /**
+     * One call slot. Complete it exactly once with the call's outcome; {@link #release()}
+     * frees it without an outcome (e.g. the caller cancelled). Both are idempotent.
+     */
+    public static final class Permit {
+        static final Permit UNGUARDED = new Permit(null, false);
+
+        private final Dependency dependency;
+        private final boolean holdsSlot;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Dependency dependency, boolean holdsSlot) {
+            this.dependency = dependency;
+            this.holdsSlot = holdsSlot;
+        }
+
+        /**
+         * @param failure Whether the call counts as a dependency failure (I/O error, 5xx, 429)
+         */
+        public void complete(boolean failure) {
+            if (dependency != null && released.compareAndSet(false, true)) {
+                if (failure) {
+                    dependency.breaker.onFailure();
+                } else {
+                    dependency.breaker.onSuccess();
+                }
+                releaseSlot();
+            }
+        }
+
+        public void release() {
+            if (dependency != null && released.compareAndSet(false, true)) {
+                dependency.breaker.onIgnored();
+                releaseSlot();
+            }
+        }
+
+        private void releaseSlot() {
+            if (holdsSlot) {
+                dependency.bulkhead.release();
+            }
+        }
+    }
+}
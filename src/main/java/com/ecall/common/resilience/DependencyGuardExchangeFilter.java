@@ -0,0 +1,36 @@
+package com.ecall.common.resilience;
+
+import com.ecall.common.instrumentation.OutboundCallTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient side of the {@link DependencyGuard}: circuit breaker only. The Reactor Netty
+ * connection pool is the bulkhead of the non-blocking path, and queues bursts in its pending
+ * acquire queue without holding a thread, so no semaphore slot is taken here; an open circuit
+ * fails the exchange immediately.
+ */
+@Component
+@RequiredArgsConstructor
+public class DependencyGuardExchangeFilter implements ExchangeFilterFunction {
+
+    private final DependencyGuard guard;
+    private final OutboundCallTracker tracker;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            DependencyGuard.Permit permit = guard.acquireCircuit(tracker.targetOf(request.url()));
+            return next.exchange(request)
+                    .doOnNext(response -> permit.complete(
+                            DependencyGuardInterceptor.isFailure(response.statusCode().value())))
+                    .doOnError(e -> permit.complete(true))
+                    .doFinally(signal -> permit.release());
+        });
+    }
+}
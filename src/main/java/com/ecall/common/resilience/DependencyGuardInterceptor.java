@@ -0,0 +1,44 @@
+package com.ecall.common.resilience;
+
+import com.ecall.common.instrumentation.OutboundCallTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * RestTemplate side of the {@link DependencyGuard}: waits briefly for a call slot of the
+ * target dependency and feeds the outcome into its circuit breaker
+ */
+@Component
+@RequiredArgsConstructor
+public class DependencyGuardInterceptor implements ClientHttpRequestInterceptor {
+
+    private final DependencyGuard guard;
+    private final OutboundCallTracker tracker;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        DependencyGuard.Permit permit = guard.acquire(tracker.targetOf(request.getURI()));
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            permit.complete(isFailure(response.getStatusCode().value()));
+            return response;
+        } catch (IOException | RuntimeException e) {
+            permit.complete(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Server errors and throttling count against the dependency; other 4xx are the caller's problem
+     */
+    static boolean isFailure(int status) {
+        return status >= 500 || status == 429;
+    }
+}
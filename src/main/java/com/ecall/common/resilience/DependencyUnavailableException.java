@@ -0,0 +1,32 @@
+package com.ecall.common.resilience;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of calling a dependency whose circuit is open or whose bulkhead is full,
+ * or when a call missed its deadline
+ */
+@Getter
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+    private final String reason;
+
+    public DependencyUnavailableException(String dependency, String reason) {
+        super(dependency + " unavailable (" + reason + ")");
+        this.dependency = dependency;
+        this.reason = reason;
+    }
+
+    /**
+     * Whether the error, or one of its causes, is a refused call
+     */
+    public static boolean isCause(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DependencyUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecall.common.resilience;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the last good result of the roster / emergency reads, so that while Supabase is
+ * unhealthy (errors, open circuit, full bulkhead) consoles get that result marked stale
+ * instead of an error. Writes are not buffered: in that state the app is read-only.
+ *
+ * Stale responses are counted as resilience.stale.served{read}.
+ */
+@Component
+@Slf4j
+public class LastGoodSnapshots {
+
+    private final Cache<String, Snapshot<?>> snapshots;
+    private final MeterRegistry meterRegistry;
+
+    public LastGoodSnapshots(MeterRegistry meterRegistry,
+                             @Value("${resilience.snapshots.max-entries:2000}") long maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "resilience.snapshots");
+    }
+
+    /**
+     * Run a blocking read, remembering its result; on failure fall back to the last good result
+     * @param read Name of the read, e.g. "units"
+     * @param id Identity of the result within the read (e.g. a unit id, "all")
+     * @throws RuntimeException the read's failure, if there is no earlier result
+     */
+    public <T> Snapshot<T> read(String read, Object id, Supplier<T> loader) {
+        String key = read + ":" + id;
+        try {
+            Snapshot<T> snapshot = Snapshot.fresh(loader.get());
+            snapshots.put(key, snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            return fallback(read, key, e);
+        }
+    }
+
+    /**
+     * Reactive {@link #read(String, Object, Supplier)}
+     */
+    public <T> Mono<Snapshot<T>> readMono(String read, Object id, Supplier<Mono<T>> loader) {
+        String key = read + ":" + id;
+        return Mono.defer(loader)
+                .map(value -> {
+                    Snapshot<T> snapshot = Snapshot.fresh(value);
+                    snapshots.put(key, snapshot);
+                    return snapshot;
+                })
+                .onErrorResume(RuntimeException.class, e -> Mono.fromCallable(() -> fallback(read, key, e)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Snapshot<T> fallback(String read, String key, RuntimeException failure) {
+        // Bad input is not an outage
+        if (failure instanceof IllegalArgumentException) {
+            throw failure;
+        }
+        Snapshot<T> lastGood = (Snapshot<T>) snapshots.getIfPresent(key);
+        if (lastGood == null) {
+            throw failure;
+        }
+        log.warn("Serving stale {} as of {} ({})", key, lastGood.asOf(), failure.getMessage());
+        Counter.builder("resilience.stale.served")
+                .tag("read", read)
+                .register(meterRegistry)
+                .increment();
+        return lastGood.asStale();
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecall.common.resilience;
+
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Guard every WebClient built from the Spring Boot WebClient.Builder (e.g. Kakao in MapService).
+     * Ordered before the outbound call accounting, so refused calls are not counted as calls.
+     */
+    @Bean
+    @Order(0)
+    public WebClientCustomizer dependencyGuardWebClientCustomizer(DependencyGuardExchangeFilter exchangeFilter) {
+        return builder -> builder.filter(exchangeFilter);
+    }
+}
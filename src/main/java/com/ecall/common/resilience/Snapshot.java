@@ -0,0 +1,30 @@
+package com.ecall.common.resilience;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A read result, either fresh or the last good value served while its source is unhealthy
+ * @param asOf When the value was read from its source
+ */
+public record Snapshot<T>(T value, boolean stale, Instant asOf) {
+
+    public static <T> Snapshot<T> fresh(T value) {
+        return new Snapshot<>(value, false, Instant.now());
+    }
+
+    Snapshot<T> asStale() {
+        return new Snapshot<>(value, true, asOf);
+    }
+
+    /**
+     * Add "stale" / "stale_as_of" to an API response body when the value is stale
+     */
+    public Map<String, Object> describeInto(Map<String, Object> response) {
+        if (stale) {
+            response.put("stale", true);
+            response.put("stale_as_of", asOf.toString());
+        }
+        return response;
+    }
+}
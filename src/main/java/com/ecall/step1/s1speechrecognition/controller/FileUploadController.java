@@ -157,14 +157,11 @@ public class FileUploadController {
                 // Save media asset (audio file)
                 String mediaAssetId = null;
                 try {
-                    // Read file bytes
-                    byte[] fileBytes = Files.readAllBytes(tempFile);
-
-                    // Save to media_asset table
+                    // Save to media_asset table (streamed from the temp file, not read into memory)
                     mediaAssetId = mediaAssetService.saveMediaAsset(
                         file.getOriginalFilename(),
                         file.getContentType(),
-                        fileBytes,
+                        tempFile,
                         operatorId != null ? operatorId : "system"
                     );
                     log.info("Media asset saved with ID: {}", mediaAssetId);
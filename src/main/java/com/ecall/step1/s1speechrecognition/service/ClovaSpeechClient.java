@@ -17,9 +17,13 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.ecall.common.instrumentation.OutboundCallTracker;
+import com.ecall.common.resilience.AiCallExecutor;
+import com.ecall.common.resilience.DependencyGuard;
 import com.google.gson.Gson;
 
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +38,15 @@ public class ClovaSpeechClient {
     @Value("${clova.speech.invoke-url}")
     private String invokeUrl;
 
+    @Autowired
+    private OutboundCallTracker outboundCallTracker;
+
+    @Autowired
+    private DependencyGuard dependencyGuard;
+
+    @Autowired
+    private AiCallExecutor aiCallExecutor;
+
     private final CloseableHttpClient httpClient = HttpClients.createDefault();
     private final Gson gson = new Gson();
 
@@ -267,11 +280,23 @@ public class ClovaSpeechClient {
         };
     }
 
+    /**
+     * Bounded by the clova deadline; a request past it is aborted
+     */
     private String execute(HttpPost httpPost) {
+        return aiCallExecutor.call("clova", () -> executeNow(httpPost), httpPost::abort);
+    }
+
+    private String executeNow(HttpPost httpPost) {
+        DependencyGuard.Permit permit = dependencyGuard.acquire("clova");
+        long start = System.nanoTime();
+        long bytes = httpPost.getEntity() != null ? Math.max(0, httpPost.getEntity().getContentLength()) : 0;
         try (final CloseableHttpResponse httpResponse = httpClient.execute(httpPost)) {
             final int statusCode = httpResponse.getStatusLine().getStatusCode();
+            permit.complete(statusCode >= 500 || statusCode == 429);
             final HttpEntity entity = httpResponse.getEntity();
             String result = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+            bytes += result.getBytes(StandardCharsets.UTF_8).length;
             
             log.info("Clova Speech API 응답 수신 완료 - 상태 코드: {}", statusCode);
             log.debug("API 응답: {}", result);
@@ -287,6 +312,12 @@ public class ClovaSpeechClient {
             log.error("Clova Speech API 호출 중 오류 발생", e);
             String errorMsg = e.getMessage() != null ? e.getMessage() : "Clova API 통신 실패";
             throw new RuntimeException(errorMsg, e);
+        } finally {
+            // No-op if the response already completed the permit
+            permit.complete(true);
+            String path = httpPost.getURI().getPath();
+            outboundCallTracker.record("clova", path.substring(path.lastIndexOf('/') + 1),
+                    System.nanoTime() - start, bytes);
         }
     }
 }
@@ -0,0 +1,62 @@
+package com.ecall.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeocodeCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compactsIntoNewSegmentAndReadsItBackAfterRestart() throws Exception {
+        Path store = dir.resolve("geocode.dat");
+        GeocodeCache cache = newCache(store);
+        cache.open();
+        // 60 entries of ~30KB do not fit a 1MB segment, so it is compacted at least once
+        for (int i = 0; i < 60; i++) {
+            int index = i;
+            cache.get("address", "세종대로 " + i, String.class, () -> result(index));
+        }
+        cache.close();
+
+        long generation = Long.parseLong(Files.readString(store).trim());
+        assertThat(generation).isPositive();
+        try (Stream<Path> files = Files.list(dir)) {
+            // The replaced segments are gone; the pointer is the only other file
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("geocode.dat", "geocode.dat." + generation);
+        }
+
+        GeocodeCache reopened = newCache(store);
+        reopened.open();
+        AtomicInteger lookups = new AtomicInteger();
+        String cached = reopened.get("address", "세종대로 59", String.class, () -> {
+            lookups.incrementAndGet();
+            return "looked up";
+        });
+        reopened.close();
+
+        assertThat(cached).isEqualTo(result(59));
+        assertThat(lookups).hasValue(0);
+    }
+
+    private GeocodeCache newCache(Path store) {
+        return new GeocodeCache(meterRegistry, new RequestCoalescer(meterRegistry),
+                true, 168, 4, store.toString(), 1);
+    }
+
+    private static String result(int index) {
+        return index + ":" + "x".repeat(30_000);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecall.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void reportsOverlappingAndNestedMatches() {
+        List<String> keywords = List.of("he", "she", "his", "hers");
+
+        assertThat(matches(keywords, "ushers")).containsExactlyInAnyOrder(
+                "she@1-4", "he@2-4", "hers@2-6");
+    }
+
+    @Test
+    void reportsKeywordsFoundThroughFailureLinks() {
+        List<String> keywords = List.of("의식이 없", "식이", "이 없", "없");
+
+        assertThat(matches(keywords, "환자가 의식이 없어요")).containsExactlyInAnyOrder(
+                "의식이 없@4-9", "식이@5-7", "이 없@6-9", "없@8-9");
+    }
+
+    @Test
+    void reportsEveryOccurrenceOfRepeatedKeywords() {
+        List<String> keywords = List.of("aa", "a");
+
+        assertThat(matches(keywords, "aaa")).containsExactlyInAnyOrder(
+                "a@0-1", "aa@0-2", "a@1-2", "aa@1-3", "a@2-3");
+    }
+
+    @Test
+    void findsNothingWithoutKeywords() {
+        assertThat(matches(List.of("칼로", "흉기"), "칼국수 먹으러 왔어요")).isEmpty();
+    }
+
+    private static List<String> matches(List<String> keywords, String text) {
+        List<String> found = new ArrayList<>();
+        new KeywordAutomaton(keywords).scan(text, (keyword, start, end) ->
+                found.add(keywords.get(keyword) + "@" + start + "-" + end));
+        return found;
+    }
+}
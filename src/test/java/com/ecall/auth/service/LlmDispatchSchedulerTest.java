@@ -0,0 +1,99 @@
+package com.ecall.auth.service;
+
+import com.ecall.common.resilience.DependencyUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LlmDispatchSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private LlmDispatchScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void admitsLiveCallsBeforeEarlierBackgroundCalls() throws Exception {
+        scheduler = new LlmDispatchScheduler(meterRegistry, 1000, 1_000_000, 1, 1, 5000, 5000);
+        LlmDispatchScheduler.Permit busy = scheduler.acquire(LlmDispatchScheduler.Priority.LIVE, 10);
+
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> background = CompletableFuture.runAsync(
+                () -> admit(LlmDispatchScheduler.Priority.BACKGROUND, admitted), callers);
+        awaitQueued("background");
+        CompletableFuture<Void> live = CompletableFuture.runAsync(
+                () -> admit(LlmDispatchScheduler.Priority.LIVE, admitted), callers);
+        awaitQueued("live");
+
+        busy.release();
+        CompletableFuture.allOf(background, live).get(5, TimeUnit.SECONDS);
+
+        assertThat(admitted).containsExactly("LIVE", "BACKGROUND");
+    }
+
+    @Test
+    void admitsQueuedCallOnceTheTokenBudgetRefills() {
+        // 6000 tokens per minute = 100 per second
+        scheduler = new LlmDispatchScheduler(meterRegistry, 1000, 6000, 4, 4, 5000, 5000);
+        scheduler.acquire(LlmDispatchScheduler.Priority.LIVE, 6000).release();
+
+        assertThat(scheduler.tryAcquire(LlmDispatchScheduler.Priority.LIVE, 100)).isNull();
+
+        long start = System.nanoTime();
+        LlmDispatchScheduler.Permit permit = scheduler.acquire(LlmDispatchScheduler.Priority.LIVE, 100);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        permit.release();
+
+        assertThat(waitedMillis).isBetween(500L, 4000L);
+    }
+
+    @Test
+    void rejectedCallDoesNotKeepItsSlot() {
+        scheduler = new LlmDispatchScheduler(meterRegistry, 1000, 1_000_000, 1, 1, 100, 100);
+        LlmDispatchScheduler.Permit busy = scheduler.acquire(LlmDispatchScheduler.Priority.LIVE, 10);
+
+        assertThatThrownBy(() -> scheduler.acquire(LlmDispatchScheduler.Priority.LIVE, 10))
+                .isInstanceOf(DependencyUnavailableException.class);
+        assertThat(meterRegistry.get("llm.dispatch.rejected").tag("priority", "live").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("llm.dispatch.queued").tag("priority", "live").gauge().value()).isZero();
+
+        busy.release();
+        busy.release();
+        assertThat(meterRegistry.get("llm.dispatch.running").gauge().value()).isZero();
+
+        // The only slot is free again, so a hedge attempt gets it without waiting
+        LlmDispatchScheduler.Permit next = scheduler.tryAcquire(LlmDispatchScheduler.Priority.LIVE, 10);
+        assertThat(next).isNotNull();
+        assertThat(scheduler.tryAcquire(LlmDispatchScheduler.Priority.LIVE, 10)).isNull();
+        next.release();
+    }
+
+    private void admit(LlmDispatchScheduler.Priority priority, List<String> admitted) {
+        LlmDispatchScheduler.Permit permit = scheduler.acquire(priority, 10);
+        admitted.add(priority.name());
+        permit.release();
+    }
+
+    private void awaitQueued(String priority) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("llm.dispatch.queued").tag("priority", priority).gauge().value() < 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecall.auth.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RiskStreamParserTest {
+
+    @Test
+    void sendsLevelBeforeReasonFromTheSameChunk() {
+        StreamingRiskAssessmentService.RiskStreamParser parser = new StreamingRiskAssessmentService.RiskStreamParser();
+
+        List<ServerSentEvent<Map<String, Object>>> events = parser.accept("{\"risk_level\":4,\"risk_reason\":\"Knife");
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("level", "reason");
+        assertThat(events.get(0).data()).containsEntry("level", 4);
+        assertThat(events.get(1).data()).containsEntry("text", "Knife");
+    }
+
+    @Test
+    void sendsLevelAsSoonAsItIsComplete() {
+        StreamingRiskAssessmentService.RiskStreamParser parser = new StreamingRiskAssessmentService.RiskStreamParser();
+
+        assertThat(parser.accept("{\"risk_")).isEmpty();
+        assertThat(parser.accept("level\": ")).isEmpty();
+        List<ServerSentEvent<Map<String, Object>>> events = parser.accept("5,");
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("level");
+        assertThat(events.get(0).data()).containsEntry("level", 5);
+        // Sent once only
+        assertThat(parser.accept("\"risk_reason\":\"")).isEmpty();
+    }
+
+    @Test
+    void decodesUnicodeEscapeSplitAcrossChunks() {
+        StreamingRiskAssessmentService.RiskStreamParser parser = new StreamingRiskAssessmentService.RiskStreamParser();
+        parser.accept("{\"risk_level\":3,\"risk_reason\":\"");
+
+        // The escape is held back until all four hex digits have arrived
+        assertThat(reasons(parser.accept("Fire \\"))).containsExactly("Fire ");
+        assertThat(reasons(parser.accept("u"))).isEmpty();
+        assertThat(reasons(parser.accept("D6"))).isEmpty();
+        assertThat(reasons(parser.accept("54 "))).containsExactly("화 ");
+    }
+
+    @Test
+    void decodesEscapesWithoutRepeatingText() {
+        StreamingRiskAssessmentService.RiskStreamParser parser = new StreamingRiskAssessmentService.RiskStreamParser();
+        parser.accept("{\"risk_level\":3,\"risk_reason\":\"");
+
+        StringBuilder reason = new StringBuilder();
+        for (String chunk : List.of("Fire \\", "uD654", "\\uC7AC", " on 3F\\", "n\\\"smoke\\\"", "\"}")) {
+            reasons(parser.accept(chunk)).forEach(reason::append);
+        }
+
+        assertThat(reason.toString()).isEqualTo("Fire 화재 on 3F\n\"smoke\"");
+        // The closing quote ends the reason
+        assertThat(parser.accept(" trailing")).isEmpty();
+    }
+
+    private static List<String> reasons(List<ServerSentEvent<Map<String, Object>>> events) {
+        return events.stream()
+                .filter(event -> "reason".equals(event.event()))
+                .map(event -> (String) event.data().get("text"))
+                .toList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecall.common.config;
+
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpPipeline;
+import com.azure.core.http.HttpPipelineBuilder;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.policy.RetryPolicy;
+import com.ecall.common.resilience.DependencyGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AzureTextAnalyticsConfigTest {
+
+    @Test
+    void stalledResponseIsAFailureAndIsNotRetried() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("resilience.azure.window-size", "1")
+                .withProperty("resilience.azure.minimum-calls", "1");
+        DependencyGuard guard = new DependencyGuard(environment, new SimpleMeterRegistry());
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Same order as the client builder: per-call policies, then retry, then per-retry policies
+        HttpPipeline pipeline = new HttpPipelineBuilder()
+                .policies(new AzureTextAnalyticsConfig.DeadlinePolicy(Duration.ofMillis(200)),
+                        new RetryPolicy(),
+                        AzureTextAnalyticsConfig.dependencyGuardPolicy(guard))
+                .httpClient(request -> {
+                    attempts.incrementAndGet();
+                    return Mono.never();
+                })
+                .build();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> pipeline.send(new HttpRequest(HttpMethod.POST, "https://example.cognitiveservices.azure.com/")).block())
+                .hasRootCauseInstanceOf(TimeoutException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(attempts).hasValue(1);
+        assertThat(guard.isOpen("azure")).isTrue();
+    }
+}